@@ -0,0 +1,81 @@
+#!/usr/bin/env bash
+# 로컬에서 애플리케이션을 profile별로 띄우고 wrk(HTTP/1.1), h2load(h2c)로 GET /v2/books/{book-id}에 부하를 준다
+#
+# 사용법 : scripts/load-test.sh [profile ...]        (기본값 : default tuned nio)
+#   default는 profile 없이 실행한다 (book.netty.* 기본값 = Reactor Netty 기본값)
+#
+# 환경 변수
+#   DURATION=30s CONNECTIONS=64 THREADS=4 PORT=18080 CATALOG_SIZE=2000000
+#   JAR=build/libs/reactive-0.0.1-SNAPSHOT.jar (없으면 ./gradlew bootJar로 생성)
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+DURATION=${DURATION:-30s}
+CONNECTIONS=${CONNECTIONS:-64}
+THREADS=${THREADS:-4}
+PORT=${PORT:-18080}
+CATALOG_SIZE=${CATALOG_SIZE:-2000000}
+JAR=${JAR:-build/libs/reactive-0.0.1-SNAPSHOT.jar}
+PROFILES=("$@")
+if [ ${#PROFILES[@]} -eq 0 ]; then
+  PROFILES=(default tuned nio)
+fi
+
+if ! command -v wrk > /dev/null; then
+  echo "wrk is required (https://github.com/wg/wrk)" >&2
+  exit 1
+fi
+if [ ! -f "$JAR" ]; then
+  ./gradlew bootJar
+fi
+
+WRK_SCRIPT=$(mktemp)
+cat > "$WRK_SCRIPT" <<LUA
+math.randomseed(os.time())
+request = function()
+  return wrk.format("GET", "/v2/books/" .. math.random(1, ${CATALOG_SIZE}))
+end
+LUA
+
+APP_PID=
+stop_app() {
+  if [ -n "$APP_PID" ]; then
+    kill "$APP_PID" 2> /dev/null || true
+    wait "$APP_PID" 2> /dev/null || true
+    APP_PID=
+  fi
+}
+trap 'stop_app; rm -f "$WRK_SCRIPT"' EXIT
+
+for profile in "${PROFILES[@]}"; do
+  args=(--server.port="$PORT" --book.catalog.load-mode=eager --book.catalog.size="$CATALOG_SIZE"
+        --book.access-log.sample-rate=1000 --logging.level.root=warn)
+  if [ "$profile" != "default" ]; then
+    args+=(--spring.profiles.active="$profile")
+  fi
+
+  java -jar "$JAR" "${args[@]}" > "build/load-test-$profile.log" 2>&1 &
+  APP_PID=$!
+  for _ in $(seq 1 120); do
+    if curl -sf "http://localhost:$PORT/v2/books/1" > /dev/null; then
+      break
+    fi
+    sleep 1
+  done
+
+  echo "===== profile: $profile (HTTP/1.1, $CONNECTIONS connections, $DURATION) ====="
+  # 먼저 짧게 실행해서 JIT warm-up을 한 후 측정한다
+  wrk -t"$THREADS" -c"$CONNECTIONS" -d10s -s "$WRK_SCRIPT" "http://localhost:$PORT" > /dev/null
+  wrk -t"$THREADS" -c"$CONNECTIONS" -d"$DURATION" --latency -s "$WRK_SCRIPT" "http://localhost:$PORT"
+
+  if command -v h2load > /dev/null && grep -qs "server.http2.enabled=true" "src/main/resources/application-$profile.properties"; then
+    echo "===== profile: $profile (h2c) ====="
+    h2load -t"$THREADS" -c"$CONNECTIONS" -m 10 -D "${DURATION%s}" "http://localhost:$PORT/v2/books/1"
+  fi
+
+  echo "----- route metrics -----"
+  curl -s "http://localhost:$PORT/actuator/book-metrics"
+  echo
+  stop_app
+done
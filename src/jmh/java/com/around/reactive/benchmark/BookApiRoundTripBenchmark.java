@@ -0,0 +1,78 @@
+package com.around.reactive.benchmark;
+
+import com.around.reactive.ReactiveApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 같은 JVM에서 띄운 Reactor Netty 서버에 WebTestClient로 GET /v1/books/{book-id}, /v2/books/{book-id}를 요청하는 전체 왕복 비용
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class BookApiRoundTripBenchmark {
+    private static final int CATALOG_SIZE = 2_000_000;
+
+    private ConfigurableApplicationContext context;
+    private WebTestClient webTestClient;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = SpringApplication.run(ReactiveApplication.class,
+                "--server.port=0",
+                "--book.catalog.load-mode=eager",
+                "--book.catalog.size=" + CATALOG_SIZE,
+                "--logging.level.root=warn");
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        webTestClient = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + port)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] v1GetBook() {
+        return get("/v1/books/{book-id}");
+    }
+
+    @Benchmark
+    public byte[] v2GetBook() {
+        return get("/v2/books/{book-id}");
+    }
+
+    private byte[] get(String uri) {
+        return webTestClient.get()
+                .uri(uri, ThreadLocalRandom.current().nextLong(1, CATALOG_SIZE + 1))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .returnResult()
+                .getResponseBody();
+    }
+}
@@ -0,0 +1,99 @@
+package com.around.reactive.benchmark;
+
+import com.around.reactive.dto.Book;
+import com.around.reactive.stats.BookAuthorStats;
+import com.around.reactive.stats.BookStats;
+import com.around.reactive.stats.BookStatsEngine;
+import com.around.reactive.stats.BookStatsGroupBy;
+import com.around.reactive.stats.BookStatsMetric;
+import com.around.reactive.store.GeneratedBookCatalog;
+import com.around.reactive.store.OffHeapBookStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 2백만 권 카탈로그 + 저자가 있는 도서 10만 권(저자 1,000명)에서 저자별 집계 비용
+ * - findAuthor : BookAuthorStats.find(), GET /v2/books/stats/authors/{author}
+ * - topAuthors : BookAuthorStats.snapshot().top(), GET /v2/books/stats/authors
+ * - created / moved : 생성 이벤트와 저자를 바꾸는 수정 이벤트 반영 비용 (가격이 있는 카탈로그 도서)
+ * - recompute : BookStatsEngine으로 전체를 다시 집계하는 비용 (검증용, 비교 기준)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class BookAuthorStatsBenchmark {
+    private static final int CATALOG_SIZE = 2_000_000;
+    private static final int AUTHORED_BOOKS = 100_000;
+    private static final int AUTHORS = 1_000;
+
+    private OffHeapBookStore catalog;
+    private List<Book> books;
+    private BookAuthorStats authorStats;
+    private BookStatsEngine engine;
+
+    @Setup
+    public void setUp() {
+        GeneratedBookCatalog generated = new GeneratedBookCatalog(CATALOG_SIZE);
+        catalog = OffHeapBookStore.copyOf(generated, generated.firstBookId(), generated.lastBookId());
+        authorStats = new BookAuthorStats(catalog);
+        books = new ArrayList<>(AUTHORED_BOOKS);
+        for (int i = 1; i <= AUTHORED_BOOKS; i++) {
+            // 절반은 저자를 지정한 카탈로그 도서 (가격 있음), 절반은 새로 생성된 도서
+            long bookId = i % 2 == 0 ? i : CATALOG_SIZE + i;
+            Book book = book(bookId, "Author" + (i % AUTHORS));
+            books.add(book);
+            authorStats.created(book);
+        }
+        engine = new BookStatsEngine(Schedulers.DEFAULT_POOL_SIZE, Schedulers.parallel());
+    }
+
+    @Benchmark
+    public BookStats.Group findAuthor() {
+        return authorStats.find("Author" + ThreadLocalRandom.current().nextInt(AUTHORS));
+    }
+
+    @Benchmark
+    public List<BookStats.Group> topAuthors() {
+        return authorStats.snapshot().top(BookStatsMetric.SUM_PRICE, 20);
+    }
+
+    @Benchmark
+    public void created() {
+        authorStats.created(book(CATALOG_SIZE + AUTHORED_BOOKS + 1, "Author" + ThreadLocalRandom.current().nextInt(AUTHORS)));
+    }
+
+    @Benchmark
+    public void moved() {
+        int i = 2 * (1 + ThreadLocalRandom.current().nextInt(AUTHORED_BOOKS / 2));
+        Book previous = books.get(i - 1);
+        Book updated = book(previous.getBookId(), "Author" + ThreadLocalRandom.current().nextInt(AUTHORS));
+        authorStats.updated(previous, updated);
+        books.set(i - 1, updated);
+    }
+
+    @Benchmark
+    public BookStats recompute() {
+        return engine.aggregate(catalog, books, BookStatsGroupBy.AUTHOR).block();
+    }
+
+    private static Book book(long bookId, String author) {
+        return new Book(bookId, "Book " + bookId, null, null, author, null, null, null, null, 1);
+    }
+}
@@ -0,0 +1,94 @@
+package com.around.reactive.benchmark;
+
+import com.around.reactive.cache.BookBatchLoader;
+import com.around.reactive.dto.Book;
+import com.around.reactive.repository.InMemoryBookRepository;
+import com.around.reactive.store.GeneratedBookCatalog;
+import com.around.reactive.store.OffHeapBookStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CONCURRENCY개의 findBook 요청이 동시에 들어왔을 때 bookId마다 조회하는 경우와 BookBatchLoader로 모아서 조회하는 경우의 처리량
+ * roundTripTokens : 저장소 호출 한 번마다 드는 고정 비용 (Blackhole.consumeCPU), 원격 저장소의 round trip을 흉내 낸다
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookBatchLoaderBenchmark {
+    private static final int CATALOG_SIZE = 2_000_000;
+    private static final int CONCURRENCY = 1_024;
+
+    @Param({"0", "2000"})
+    private long roundTripTokens;
+
+    private InMemoryBookRepository repository;
+    private BookBatchLoader batchLoader;
+
+    @Setup
+    public void setUp() {
+        GeneratedBookCatalog catalog = new GeneratedBookCatalog(CATALOG_SIZE);
+        repository = new InMemoryBookRepository(
+                OffHeapBookStore.copyOf(catalog, catalog.firstBookId(), catalog.lastBookId()));
+        batchLoader = new BookBatchLoader(this::findAllById, 128, Duration.ofMillis(1));
+    }
+
+    @TearDown
+    public void tearDown() {
+        batchLoader.dispose();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONCURRENCY)
+    public void findById(Blackhole blackhole) {
+        Flux.range(0, CONCURRENCY)
+                .flatMap(i -> findById(randomCatalogId()), CONCURRENCY)
+                .doOnNext(blackhole::consume)
+                .blockLast();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONCURRENCY)
+    public void batchLoader(Blackhole blackhole) {
+        Flux.range(0, CONCURRENCY)
+                .flatMap(i -> batchLoader.load(randomCatalogId()), CONCURRENCY)
+                .doOnNext(blackhole::consume)
+                .blockLast();
+    }
+
+    private Mono<Book> findById(long bookId) {
+        Blackhole.consumeCPU(roundTripTokens);
+        return repository.findById(bookId);
+    }
+
+    private Mono<Map<Long, Book>> findAllById(long[] bookIds) {
+        Blackhole.consumeCPU(roundTripTokens);
+        return repository.findAllById(bookIds);
+    }
+
+    private static long randomCatalogId() {
+        return ThreadLocalRandom.current().nextLong(1, CATALOG_SIZE + 1);
+    }
+}
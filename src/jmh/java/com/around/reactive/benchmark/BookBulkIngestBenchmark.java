@@ -0,0 +1,108 @@
+package com.around.reactive.benchmark;
+
+import com.around.reactive.cache.BookCache;
+import com.around.reactive.controller.v2.BookController;
+import com.around.reactive.dto.BookDto;
+import com.around.reactive.event.BookChangeFeed;
+import com.around.reactive.mapper.v2.bookMapperV2;
+import com.around.reactive.repository.InMemoryBookRepository;
+import com.around.reactive.search.BookSearchIndex;
+import com.around.reactive.service.v2.BookService;
+import com.around.reactive.stats.BookAuthorStats;
+import com.around.reactive.store.GeneratedBookCatalog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * POST /v2/books/bulk 처리량 (도서 한 권당 시간)
+ * - service : 디코딩된 BookDto.Post를 v2 BookService.createBooks()로 저장 (bufferTimeout + insertAll + 색인/집계/change feed)
+ * - http : NDJSON 요청 body를 WebTestClient.bindToController()로 전달 (디코딩과 BulkResponse 인코딩 포함, 네트워크 제외)
+ * 저장된 도서가 쌓이지 않도록 iteration마다 저장소와 서비스를 새로 만든다
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class BookBulkIngestBenchmark {
+    private static final int CATALOG_SIZE = 100_000;
+    private static final int BOOKS = 20_000;
+
+    private BookDto.Post[] posts;
+    private byte[] ndjson;
+    private BookService bookService;
+    private WebTestClient client;
+
+    @Setup(Level.Trial)
+    public void setUpRequests() throws Exception {
+        // Spring 애플리케이션 없이 실행하기 때문에 logback 기본 설정(DEBUG)에서 WebFlux 요청 로그가 남지 않도록 한다
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME))
+                .setLevel(ch.qos.logback.classic.Level.WARN);
+        ObjectMapper objectMapper = new ObjectMapper();
+        StringBuilder body = new StringBuilder();
+        posts = new BookDto.Post[BOOKS];
+        for (int i = 0; i < BOOKS; i++) {
+            String line = "{\"titleKorean\":\"리액티브 프로그래밍 " + i + "\",\"titleEnglish\":\"Reactive Programming " + i
+                    + "\",\"author\":\"Author" + (i % 1_000) + "\",\"publishDate\":\"2022-03-22\"}";
+            posts[i] = objectMapper.readValue(line, BookDto.Post.class);
+            body.append(line).append('\n');
+        }
+        ndjson = body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpService() {
+        GeneratedBookCatalog catalog = new GeneratedBookCatalog(CATALOG_SIZE);
+        InMemoryBookRepository repository = new InMemoryBookRepository(catalog);
+        BookSearchIndex searchIndex = new BookSearchIndex();
+        BookAuthorStats authorStats = new BookAuthorStats(catalog);
+        bookService = new BookService(new bookMapperV2(), repository,
+                new BookCache(repository::findById, 10_000, Duration.ofMinutes(10), Duration.ofMinutes(1)),
+                new BookChangeFeed(10_000, BookChangeFeed.Backpressure.DROP_OLDEST, 256, List.of(searchIndex, authorStats)),
+                searchIndex, authorStats);
+        client = WebTestClient.bindToController(new BookController(bookService, new bookMapperV2()))
+                .configureClient()
+                .responseTimeout(Duration.ofMinutes(1))
+                .build();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BOOKS)
+    public Long service() {
+        return bookService.createBooks(Flux.fromArray(posts)).count().block();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BOOKS)
+    public byte[] http() {
+        return client.post().uri("/v2/books/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(ndjson)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody().returnResult().getResponseBody();
+    }
+}
@@ -0,0 +1,98 @@
+package com.around.reactive.benchmark;
+
+import com.around.reactive.cache.BookCache;
+import com.around.reactive.dto.Book;
+import com.around.reactive.repository.InMemoryBookRepository;
+import com.around.reactive.store.GeneratedBookCatalog;
+import com.around.reactive.store.OffHeapBookStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 조회 빈도가 치우친(log-uniform, 상위 1%의 bookId가 조회의 절반 이상) 트래픽에서 저장소 직접 조회와 BookCache 조회 비교
+ * TearDown에서 실제 저장소 조회 횟수를 출력한다
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookCacheBenchmark {
+    private static final int CATALOG_SIZE = 2_000_000;
+    private static final int CACHE_SIZE = 20_000;
+    private static final int ACCESS_PATTERN_SIZE = 1 << 20;
+
+    private InMemoryBookRepository repository;
+    private BookCache bookCache;
+    private final LongAdder storeLoads = new LongAdder();
+    private final LongAdder requests = new LongAdder();
+    private long[] bookIds;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        GeneratedBookCatalog catalog = new GeneratedBookCatalog(CATALOG_SIZE);
+        repository = new InMemoryBookRepository(
+                OffHeapBookStore.copyOf(catalog, catalog.firstBookId(), catalog.lastBookId()));
+        bookCache = new BookCache(this::countedFind, CACHE_SIZE, Duration.ofMinutes(10), Duration.ofMinutes(1));
+
+        SplittableRandom random = new SplittableRandom(42);
+        bookIds = new long[ACCESS_PATTERN_SIZE];
+        for (int i = 0; i < bookIds.length; i++) {
+            bookIds[i] = (long) Math.exp(random.nextDouble() * Math.log(CATALOG_SIZE));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void resetCounters() {
+        storeLoads.reset();
+        requests.reset();
+    }
+
+    @TearDown(Level.Iteration)
+    public void printLoads() {
+        if (requests.sum() > 0) {
+            System.out.printf("%n# store loads / requests: %d / %d (%.1f%%)%n",
+                    storeLoads.sum(), requests.sum(), 100.0 * storeLoads.sum() / requests.sum());
+        }
+    }
+
+    @Benchmark
+    public void repository(Blackhole blackhole) {
+        requests.increment();
+        countedFind(nextBookId()).subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public void bookCache(Blackhole blackhole) {
+        requests.increment();
+        bookCache.get(nextBookId()).subscribe(blackhole::consume);
+    }
+
+    private Mono<Book> countedFind(long bookId) {
+        storeLoads.increment();
+        return repository.findById(bookId);
+    }
+
+    private long nextBookId() {
+        return bookIds[cursor++ & (ACCESS_PATTERN_SIZE - 1)];
+    }
+}
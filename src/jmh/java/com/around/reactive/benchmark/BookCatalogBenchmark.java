@@ -0,0 +1,79 @@
+package com.around.reactive.benchmark;
+
+import com.around.reactive.config.BookCatalogProperties;
+import com.around.reactive.config.BookConfiguration;
+import com.around.reactive.dto.SimpleBook;
+import com.around.reactive.store.BookStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BookConfiguration의 카탈로그 bean 생성 비용
+ * - legacyHashMap : 기존 bookMap() (HashMap<Long, SimpleBook>)
+ * - bookStore : 현재 bookStore() (EAGER는 off-heap 적재, SNAPSHOT은 이미 기록된 스냅샷 매핑)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class BookCatalogBenchmark {
+    private static final int CATALOG_SIZE = 2_000_000;
+
+    @Param({"EAGER", "SNAPSHOT"})
+    private BookCatalogProperties.LoadMode loadMode;
+
+    private final BookConfiguration configuration = new BookConfiguration();
+    private final BookCatalogProperties properties = new BookCatalogProperties();
+    private Path snapshotDir;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        snapshotDir = Files.createTempDirectory("book-catalog-benchmark");
+        properties.setSize(CATALOG_SIZE);
+        properties.setLoadMode(loadMode);
+        properties.setSnapshotPath(snapshotDir.resolve("book-catalog.snapshot"));
+        if (loadMode == BookCatalogProperties.LoadMode.SNAPSHOT) {
+            configuration.bookStore(properties);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(properties.getSnapshotPath());
+        Files.deleteIfExists(snapshotDir);
+    }
+
+    @Benchmark
+    public Map<Long, SimpleBook> legacyHashMap() {
+        Map<Long, SimpleBook> bookMap = new HashMap<>();
+        for (long i = 1; i <= CATALOG_SIZE; i++) {
+            bookMap.put(i, new SimpleBook(i, "IT Book" + i, 2000));
+        }
+        return bookMap;
+    }
+
+    @Benchmark
+    public BookStore bookStore() {
+        return configuration.bookStore(properties);
+    }
+}
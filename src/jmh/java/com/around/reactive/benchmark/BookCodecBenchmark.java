@@ -0,0 +1,73 @@
+package com.around.reactive.benchmark;
+
+import com.around.reactive.dto.Book;
+import com.around.reactive.dto.BookDto;
+import com.around.reactive.mapper.v2.bookMapperV2;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 서비스 간 통신 payload의 format별 직렬화/역직렬화 비용 비교 (json / cbor / smile)
+ * - encodeResponse : GET /v2/books/{book-id} 응답 (BookDto.Response)
+ * - decodePost : POST /v2/books 요청 (BookDto.Post)
+ * 도서 1권당 bytes는 setup에서 출력한다
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookCodecBenchmark {
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private BookDto.Response response;
+    private byte[] post;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = objectMapper(format);
+        Book book = new Book(2_000_001L, "Java 고급", "Advanced Java", "Java 중급 프로그래밍 마스터",
+                "Kevin", "111-11-1111-111-1", "2022-03-22", LocalDateTime.now(), LocalDateTime.now(), 1);
+        response = new bookMapperV2().bookToResponse(book);
+        post = objectMapper.writeValueAsBytes(response);
+        System.out.printf("%n[%s] %d bytes/book%n", format, post.length);
+    }
+
+    @Benchmark
+    public int encodeResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(response).length;
+    }
+
+    @Benchmark
+    public BookDto.Post decodePost() throws Exception {
+        return objectMapper.readValue(post, BookDto.Post.class);
+    }
+
+    private static ObjectMapper objectMapper(String format) {
+        switch (format) {
+            case "cbor":
+                return Jackson2ObjectMapperBuilder.cbor().build();
+            case "smile":
+                return Jackson2ObjectMapperBuilder.smile().build();
+            default:
+                return Jackson2ObjectMapperBuilder.json().build();
+        }
+    }
+}
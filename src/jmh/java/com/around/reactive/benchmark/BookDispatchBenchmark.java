@@ -0,0 +1,103 @@
+package com.around.reactive.benchmark;
+
+import com.around.reactive.ReactiveApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 같은 요청을 애너테이션 기반 v2 BookController와 함수형 v3 BookHandler로 처리하는 비용 비교
+ * WebTestClient.bindToApplicationContext()로 네트워크 없이 WebFilter -> DispatcherHandler -> handler -> codec만 실행한다
+ * 조회 비용이 섞이지 않도록 BookCache에 모두 들어가는 HOT_BOOKS 범위의 bookId만 조회하고 batch loader는 끈다
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookDispatchBenchmark {
+    private static final int CATALOG_SIZE = 100_000;
+    private static final int HOT_BOOKS = 1_000;
+    private static final String BOOK_IDS = "[1,2,3,4,5,6,7,8,9,10]";
+
+    private ConfigurableApplicationContext context;
+    private WebTestClient webTestClient;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = SpringApplication.run(ReactiveApplication.class,
+                "--server.port=0",
+                "--book.catalog.load-mode=eager",
+                "--book.catalog.size=" + CATALOG_SIZE,
+                "--book.cache.batch-size=1",
+                "--book.access-log.sample-rate=1000",
+                "--logging.level.root=warn");
+        webTestClient = WebTestClient.bindToApplicationContext(context).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] v2GetBook() {
+        return get("/v2/books/{book-id}");
+    }
+
+    @Benchmark
+    public byte[] v3GetBook() {
+        return get("/v3/books/{book-id}");
+    }
+
+    @Benchmark
+    public byte[] v2PostBatch() {
+        return postBatch("/v2/books/batch");
+    }
+
+    @Benchmark
+    public byte[] v3PostBatch() {
+        return postBatch("/v3/books/batch");
+    }
+
+    private byte[] get(String uri) {
+        return webTestClient.get()
+                .uri(uri, ThreadLocalRandom.current().nextLong(1, HOT_BOOKS + 1))
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private byte[] postBatch(String uri) {
+        return webTestClient.post()
+                .uri(uri)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(BOOK_IDS)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .returnResult()
+                .getResponseBody();
+    }
+}
@@ -0,0 +1,65 @@
+package com.around.reactive.benchmark;
+
+import com.around.reactive.dto.Book;
+import com.around.reactive.dto.BookDto;
+import com.around.reactive.mapper.v1.BookMapperImpl;
+import com.around.reactive.mapper.v2.bookMapperV2;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * v1 / v2 BookMapper의 변환 처리량
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookMapperBenchmark {
+    private final com.around.reactive.mapper.v1.BookMapper v1BookMapper = new BookMapperImpl();
+    private final com.around.reactive.mapper.v2.BookMapper v2BookMapper = new bookMapperV2();
+    private final Book book = new Book(1L, "Java 고급", "Advanced Java", "Java 중급 프로그래밍 마스터",
+            "Kevin", "111-11-1111-111-1", "2022-03-22", LocalDateTime.now(), LocalDateTime.now(), 1);
+    private BookDto.Post post;
+
+    @Setup
+    public void setUp() throws IOException {
+        post = new ObjectMapper().readValue(
+                "{\"titleKorean\":\"Java 고급\",\"titleEnglish\":\"Advanced Java\",\"author\":\"Kevin\",\"isbn\":\"111-11-1111-111-1\"}",
+                BookDto.Post.class);
+    }
+
+    @Benchmark
+    public BookDto.Response v1BookToResponse() {
+        return v1BookMapper.bookToResponse(book);
+    }
+
+    @Benchmark
+    public BookDto.Response v2BookToResponse() {
+        return v2BookMapper.bookToResponse(book);
+    }
+
+    @Benchmark
+    public Book v1BookPostToBook() {
+        return v1BookMapper.bookPostToBook(post);
+    }
+
+    @Benchmark
+    public Book v2BookPostToBook() {
+        return v2BookMapper.bookPostToBook(post);
+    }
+}
@@ -0,0 +1,112 @@
+package com.around.reactive.benchmark;
+
+import com.around.reactive.cache.BookCache;
+import com.around.reactive.dto.Book;
+import com.around.reactive.dto.BookDto;
+import com.around.reactive.event.BookChangeFeed;
+import com.around.reactive.mapper.v1.BookMapperImpl;
+import com.around.reactive.mapper.v2.BookMapper;
+import com.around.reactive.mapper.v2.bookMapperV2;
+import com.around.reactive.repository.InMemoryBookRepository;
+import com.around.reactive.repository.ReactiveBookRepository;
+import com.around.reactive.search.BookSearchIndex;
+import com.around.reactive.service.v2.BookService;
+import com.around.reactive.stats.BookAuthorStats;
+import com.around.reactive.store.GeneratedBookCatalog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청 body부터 응답 DTO까지의 Reactor pipeline 비교
+ * - legacy* : flatMap(x -> Mono.just(f(x)))로 연결하던 기존 v1 mapper / v2 controller, service 형태
+ * - fused*, v1MapperGet, v2Get : 같은 작업을 map()으로 연결한 현재 형태
+ * gc profiler로 ops/s와 함께 gc.alloc.rate.norm을 비교한다
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookPipelineBenchmark {
+    private static final long BOOK_ID = 42;
+
+    private final ReactiveBookRepository repository = new InMemoryBookRepository(new GeneratedBookCatalog(1_000));
+    private final BookMapper bookMapper = new bookMapperV2();
+    private final com.around.reactive.mapper.v1.BookMapper v1BookMapper = new BookMapperImpl();
+    private final BookSearchIndex searchIndex = new BookSearchIndex();
+    private final BookAuthorStats authorStats = new BookAuthorStats(new GeneratedBookCatalog(1_000));
+    private final BookService bookService = new BookService(bookMapper, repository,
+            new BookCache(repository::findById, 1_000, Duration.ofMinutes(10), Duration.ofMinutes(1)),
+            new BookChangeFeed(10_000, BookChangeFeed.Backpressure.DROP_OLDEST, 256, List.of(searchIndex, authorStats)),
+            searchIndex, authorStats);
+
+    @Benchmark
+    public void legacyGet(Blackhole blackhole) {
+        repository.findById(BOOK_ID)
+                .flatMap(book -> Mono.just(bookMapper.bookToResponse(book)))
+                .subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public void v1MapperGet(Blackhole blackhole) {
+        v1BookMapper.bookToBookResponse(repository.findById(BOOK_ID))
+                .subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public void v2Get(Blackhole blackhole) {
+        bookService.findBook(BOOK_ID)
+                .map(bookMapper::bookToResponse)
+                .subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public void legacyPatch(Blackhole blackhole) {
+        Mono.just(patch())
+                .flatMap(patch -> Mono.just(bookMapper.bookPatchToBook(patch)))
+                .flatMap(changes -> repository.findById(changes.getBookId())
+                        .flatMap(repository::update))
+                .flatMap(book -> Mono.just(bookMapper.bookToResponse(book)))
+                .subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public void fusedPatch(Blackhole blackhole) {
+        Mono.just(patch())
+                .map(bookMapper::bookPatchToBook)
+                .flatMap(changes -> repository.findById(changes.getBookId())
+                        .flatMap(repository::update))
+                .map(bookMapper::bookToResponse)
+                .subscribe(blackhole::consume);
+    }
+
+    /**
+     * 실제 v2 BookService.updateBook() 경로 (필드 병합과 version 충돌 재시도 포함)
+     */
+    @Benchmark
+    public void v2Patch(Blackhole blackhole) {
+        bookService.updateBook(BOOK_ID, Mono.just(patch()))
+                .map(bookMapper::bookToResponse)
+                .subscribe(blackhole::consume);
+    }
+
+    private static BookDto.Patch patch() {
+        BookDto.Patch patch = new BookDto.Patch();
+        patch.setBookId(BOOK_ID);
+        return patch;
+    }
+}
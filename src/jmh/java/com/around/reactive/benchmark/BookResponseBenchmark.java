@@ -0,0 +1,70 @@
+package com.around.reactive.benchmark;
+
+import com.around.reactive.codec.BookJsonEncoder;
+import com.around.reactive.dto.Book;
+import com.around.reactive.dto.BookDto;
+import com.around.reactive.mapper.v2.BookMapper;
+import com.around.reactive.mapper.v2.bookMapperV2;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /v2/books/{book-id} 응답 직렬화 비용 비교
+ * - mapperAndJackson : 기존 경로 (BookMapper.bookToResponse() + Jackson2JsonEncoder)
+ * - bookJsonEncoder : BookJsonEncoder로 pooled DataBuffer에 직접 기록
+ * gc profiler의 gc.alloc.rate.norm이 요청당 할당 bytes이다
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookResponseBenchmark {
+    private static final ResolvableType BOOK_TYPE = ResolvableType.forClass(Book.class);
+    private static final ResolvableType RESPONSE_TYPE = ResolvableType.forClass(BookDto.Response.class);
+
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+    private final BookMapper bookMapper = new bookMapperV2();
+    private final Jackson2JsonEncoder jacksonEncoder = new Jackson2JsonEncoder();
+    private final BookJsonEncoder bookJsonEncoder = new BookJsonEncoder();
+    private final Book book = new Book(2_000_001L, "Java 고급", "Advanced Java", "Java 중급 프로그래밍 마스터",
+            "Kevin", "111-11-1111-111-1", "2022-03-22", LocalDateTime.now(), LocalDateTime.now(), 1);
+
+    @Benchmark
+    public int mapperAndJackson() {
+        BookDto.Response response = bookMapper.bookToResponse(book);
+        return release(jacksonEncoder.encodeValue(response, bufferFactory, RESPONSE_TYPE,
+                MediaType.APPLICATION_JSON, Collections.emptyMap()));
+    }
+
+    @Benchmark
+    public int bookJsonEncoder() {
+        return release(bookJsonEncoder.encodeValue(book, bufferFactory, BOOK_TYPE,
+                MediaType.APPLICATION_JSON, Collections.emptyMap()));
+    }
+
+    private static int release(DataBuffer buffer) {
+        int bytes = buffer.readableByteCount();
+        DataBufferUtils.release(buffer);
+        return bytes;
+    }
+}
@@ -0,0 +1,101 @@
+package com.around.reactive.benchmark;
+
+import com.around.reactive.dto.Book;
+import com.around.reactive.search.BookSearchIndex;
+import com.around.reactive.store.GeneratedBookCatalog;
+import com.around.reactive.store.OffHeapBookStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 2백만 권 카탈로그 + 생성된 도서 10만 권에서 GET /v2/books/search의 색인 조회 비용
+ * - catalogTitle : 카탈로그 도서 한 권을 찾는 검색어 ("book 1234567")
+ * - koreanTitle : 생성된 도서의 한글 제목 두 단어 검색 (수천 권이 후보, overlay posting도 bookId 오름차순 교집합과 조기 종료를 사용한다)
+ * - isbn : ISBN 검색 (하이픈 포함)
+ * - broad : 2백만 권 모두가 후보인 검색어 ("it book"), 상위 20개 정렬 비용의 상한
+ * - linearScan : Example14Error.getBooksFromCache()와 같은 contains() 순차 검색 (비교용)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class BookSearchBenchmark {
+    private static final int CATALOG_SIZE = 2_000_000;
+    private static final int CREATED_BOOKS = 100_000;
+    private static final int LIMIT = 20;
+    private static final String[] WORDS = {"자바", "코틀린", "스프링", "리액티브", "프로그래밍", "입문", "고급", "실전", "웹플럭스", "데이터"};
+
+    private final SplittableRandom random = new SplittableRandom(42);
+    private OffHeapBookStore catalog;
+    private BookSearchIndex searchIndex;
+
+    @Setup
+    public void setUp() {
+        GeneratedBookCatalog generated = new GeneratedBookCatalog(CATALOG_SIZE);
+        catalog = OffHeapBookStore.copyOf(generated, generated.firstBookId(), generated.lastBookId());
+        searchIndex = new BookSearchIndex();
+
+        long startedAt = System.nanoTime();
+        searchIndex.indexCatalog(catalog);
+        long catalogMillis = (System.nanoTime() - startedAt) / 1_000_000;
+
+        SplittableRandom titles = new SplittableRandom(7);
+        startedAt = System.nanoTime();
+        for (int i = 1; i <= CREATED_BOOKS; i++) {
+            String title = WORDS[titles.nextInt(WORDS.length)] + " " + WORDS[titles.nextInt(WORDS.length)]
+                    + " " + WORDS[titles.nextInt(WORDS.length)] + " " + i;
+            searchIndex.index(new Book(CATALOG_SIZE + i, title, "Book " + i, null, "Author" + (i % 1_000),
+                    String.format("979-11-%04d-%03d-%d", i / 1_000, i % 1_000, i % 10), null, null, null, 1));
+        }
+        long createdMillis = (System.nanoTime() - startedAt) / 1_000_000;
+        System.out.printf("%n# catalog index: %d books, %d MB, %d ms / %d created books indexed in %d ms%n",
+                searchIndex.catalogDocuments(), searchIndex.catalogMemoryBytes() >> 20, catalogMillis,
+                CREATED_BOOKS, createdMillis);
+    }
+
+    @Benchmark
+    public long[] catalogTitle() {
+        return searchIndex.search("book " + (1 + random.nextInt(CATALOG_SIZE)), LIMIT);
+    }
+
+    @Benchmark
+    public long[] koreanTitle() {
+        return searchIndex.search(WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)], LIMIT);
+    }
+
+    @Benchmark
+    public long[] isbn() {
+        int i = 1 + random.nextInt(CREATED_BOOKS);
+        return searchIndex.search(String.format("979-11-%04d-%03d-%d", i / 1_000, i % 1_000, i % 10), LIMIT);
+    }
+
+    @Benchmark
+    public long[] broad() {
+        return searchIndex.search("it book", LIMIT);
+    }
+
+    @Benchmark
+    public int linearScan() {
+        String keyword = "Book" + (1 + random.nextInt(CATALOG_SIZE)) + "x";
+        int found = 0;
+        for (long bookId = 1; bookId <= CATALOG_SIZE; bookId++) {
+            if (catalog.name(bookId).contains(keyword)) {
+                found++;
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,88 @@
+package com.around.reactive.benchmark;
+
+import com.around.reactive.cache.BookCache;
+import com.around.reactive.dto.Book;
+import com.around.reactive.event.BookChangeFeed;
+import com.around.reactive.mapper.v2.bookMapperV2;
+import com.around.reactive.repository.InMemoryBookRepository;
+import com.around.reactive.search.BookSearchIndex;
+import com.around.reactive.service.v1.BookService;
+import com.around.reactive.stats.BookAuthorStats;
+import com.around.reactive.store.GeneratedBookCatalog;
+import com.around.reactive.store.OffHeapBookStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * v1 / v2 BookService.findBook() 처리량
+ * - catalog : 수정되지 않은 카탈로그 도서 (off-heap store에서 조회 후 Book 생성)
+ * - created : 생성된 도서 (repository map에서 조회)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookServiceBenchmark {
+    private static final int CATALOG_SIZE = 2_000_000;
+
+    private BookService v1BookService;
+    private com.around.reactive.service.v2.BookService v2BookService;
+    private long createdBookId;
+
+    @Setup
+    public void setUp() {
+        GeneratedBookCatalog catalog = new GeneratedBookCatalog(CATALOG_SIZE);
+        OffHeapBookStore store = OffHeapBookStore.copyOf(catalog, catalog.firstBookId(), catalog.lastBookId());
+        InMemoryBookRepository repository = new InMemoryBookRepository(store);
+        BookCache bookCache = new BookCache(repository::findById, 100_000, Duration.ofMinutes(10), Duration.ofMinutes(1));
+        BookSearchIndex searchIndex = new BookSearchIndex();
+        BookAuthorStats authorStats = new BookAuthorStats(store);
+        BookChangeFeed changeFeed = new BookChangeFeed(10_000, BookChangeFeed.Backpressure.DROP_OLDEST, 256,
+                List.of(searchIndex, authorStats));
+        v1BookService = new BookService(repository, bookCache, changeFeed);
+        v2BookService = new com.around.reactive.service.v2.BookService(new bookMapperV2(), repository, bookCache,
+                changeFeed, searchIndex, authorStats);
+        createdBookId = repository.insert(new Book(0, "Java 고급", "Advanced Java", null, "Kevin",
+                "111-11-1111-111-1", "2022-03-22", null, null, 0)).block().getBookId();
+    }
+
+    @Benchmark
+    public void v1FindCatalogBook(Blackhole blackhole) {
+        v1BookService.findBook(randomCatalogId()).subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public void v2FindCatalogBook(Blackhole blackhole) {
+        v2BookService.findBook(randomCatalogId()).subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public void v1FindCreatedBook(Blackhole blackhole) {
+        v1BookService.findBook(createdBookId).subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public void v2FindCreatedBook(Blackhole blackhole) {
+        v2BookService.findBook(createdBookId).subscribe(blackhole::consume);
+    }
+
+    private static long randomCatalogId() {
+        return ThreadLocalRandom.current().nextLong(1, CATALOG_SIZE + 1);
+    }
+}
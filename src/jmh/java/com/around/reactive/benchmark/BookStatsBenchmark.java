@@ -0,0 +1,90 @@
+package com.around.reactive.benchmark;
+
+import com.around.reactive.dto.Book;
+import com.around.reactive.stats.BookStats;
+import com.around.reactive.stats.BookStatsEngine;
+import com.around.reactive.stats.BookStatsGroupBy;
+import com.around.reactive.store.BookStore;
+import com.around.reactive.store.GeneratedBookCatalog;
+import com.around.reactive.store.OffHeapBookStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 2백만 권 카탈로그 + 생성된 도서 10만 권의 GET /v2/books/stats?groupBy=author&metric=sum(price) 집계 비용
+ * - shardedAggregate : BookStatsEngine, parallelism개의 rail에서 shard를 집계한다 (코어 수만큼 늘려서 확장성을 확인한다)
+ * - groupByReduce : Example14Split.example14_59와 같은 Flux.groupBy() + reduce() 순차 집계 (비교용, Book 객체를 만든다)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class BookStatsBenchmark {
+    private static final int CATALOG_SIZE = 2_000_000;
+    private static final int CREATED_BOOKS = 100_000;
+
+    @Param({"1", "2", "4"})
+    private int parallelism;
+
+    private BookStore catalog;
+    private List<Book> books;
+    private Scheduler scheduler;
+    private BookStatsEngine engine;
+
+    @Setup
+    public void setUp() {
+        GeneratedBookCatalog generated = new GeneratedBookCatalog(CATALOG_SIZE);
+        catalog = OffHeapBookStore.copyOf(generated, generated.firstBookId(), generated.lastBookId());
+        books = new ArrayList<>(CREATED_BOOKS);
+        for (int i = 1; i <= CREATED_BOOKS; i++) {
+            books.add(new Book(CATALOG_SIZE + i, "Book " + i, null, null, "Author" + (i % 1_000), null, null, null, null, 1));
+        }
+        scheduler = Schedulers.newParallel("stats", parallelism);
+        engine = new BookStatsEngine(parallelism, scheduler);
+    }
+
+    @TearDown
+    public void tearDown() {
+        scheduler.dispose();
+    }
+
+    @Benchmark
+    public BookStats shardedAggregate() {
+        return engine.aggregate(catalog, books, BookStatsGroupBy.AUTHOR).block();
+    }
+
+    @Benchmark
+    public Map<String, Long> groupByReduce() {
+        return Flux.concat(
+                        Flux.range(1, CATALOG_SIZE).map(bookId -> new Book(bookId, catalog.name(bookId), null, null,
+                                null, null, null, null, null, 1)),
+                        Flux.fromIterable(books))
+                .groupBy(book -> book.getAuthor() == null ? "" : book.getAuthor())
+                .flatMap(group -> group
+                        .map(book -> (long) Math.max(catalog.price(book.getBookId()), 0))
+                        .reduce(0L, Long::sum)
+                        .map(sum -> Map.entry(group.key(), sum)), Integer.MAX_VALUE)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .block();
+    }
+}
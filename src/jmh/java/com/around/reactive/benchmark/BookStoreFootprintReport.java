@@ -0,0 +1,50 @@
+package com.around.reactive.benchmark;
+
+import com.around.reactive.dto.SimpleBook;
+import com.around.reactive.store.OffHeapBookStore;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 2백만 건 카탈로그를 HashMap<Long, SimpleBook>과 OffHeapBookStore로 각각 적재했을 때의 heap/off-heap 사용량을 출력한다
+ * JMH benchmark가 아니라 main()으로 실행하는 측정 도구이다, 결과는 docs/book-store-footprint.md에 기록한다
+ */
+public class BookStoreFootprintReport {
+    private static final int CATALOG_SIZE = 2_000_000;
+    private static final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    public static void main(String[] args) {
+        long baseline = usedHeap();
+        Map<Long, SimpleBook> bookMap = new HashMap<>();
+        for (long i = 1; i <= CATALOG_SIZE; i++) {
+            bookMap.put(i, new SimpleBook(i, "IT Book" + i, 2000));
+        }
+        long hashMapHeap = usedHeap() - baseline;
+        System.out.println("HashMap<Long, SimpleBook> heap: " + toMb(hashMapHeap) + " MB (entries: " + bookMap.size() + ")");
+        bookMap = null;
+
+        baseline = usedHeap();
+        OffHeapBookStore.Builder builder = OffHeapBookStore.builder(CATALOG_SIZE);
+        for (long i = 1; i <= CATALOG_SIZE; i++) {
+            builder.add(i, "IT Book" + i, 2000);
+        }
+        OffHeapBookStore store = builder.build();
+        long storeHeap = Math.max(0, usedHeap() - baseline);
+        System.out.println("OffHeapBookStore heap: " + toMb(storeHeap) + " MB, off-heap: "
+                + toMb(store.offHeapBytes()) + " MB (entries: " + store.size() + ")");
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static String toMb(long bytes) {
+        return String.format("%.1f", bytes / 1024.0 / 1024.0);
+    }
+}
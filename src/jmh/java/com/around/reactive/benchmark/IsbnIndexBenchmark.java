@@ -0,0 +1,110 @@
+package com.around.reactive.benchmark;
+
+import com.around.reactive.repository.IsbnIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 2.5백만 개의 ISBN -> bookId에서 GET /v2/books/isbn/{isbn}의 색인 조회 처리량
+ * - isbnIndex : IsbnIndex.get() (optimistic read, primitive 배열)
+ * - isbnIndexWhileWriting : 다른 thread가 putIfAbsent/remove를 계속 수행하는 중의 조회
+ * - concurrentHashMap : ConcurrentHashMap<Long, Long> 조회 (비교용, Long boxing)
+ * Setup에서 두 색인의 heap 사용량을 출력한다
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class IsbnIndexBenchmark {
+    private static final int SIZE = 2_500_000;
+    private static final long FIRST_ISBN = 9_791_100_000_000L;
+
+    private long[] isbns;
+    private IsbnIndex isbnIndex;
+    private ConcurrentHashMap<Long, Long> concurrentHashMap;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        isbns = new long[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            isbns[i] = FIRST_ISBN + random.nextLong(100_000_000_000L);
+        }
+
+        long before = usedHeap();
+        isbnIndex = new IsbnIndex();
+        for (int i = 0; i < SIZE; i++) {
+            isbnIndex.putIfAbsent(isbns[i], i + 1);
+        }
+        long indexBytes = usedHeap() - before;
+
+        before = usedHeap();
+        concurrentHashMap = new ConcurrentHashMap<>();
+        for (int i = 0; i < SIZE; i++) {
+            concurrentHashMap.putIfAbsent(isbns[i], (long) i + 1);
+        }
+        long mapBytes = usedHeap() - before;
+        System.out.printf("%n# %d isbns: IsbnIndex %d MB, ConcurrentHashMap<Long, Long> %d MB%n",
+                isbnIndex.size(), indexBytes >> 20, mapBytes >> 20);
+    }
+
+    @Benchmark
+    public long isbnIndex() {
+        return isbnIndex.get(isbns[ThreadLocalRandom.current().nextInt(SIZE)]);
+    }
+
+    @Benchmark
+    @Threads(2)
+    public long isbnIndexWhileWriting(WriterState writer) {
+        if (writer.writer) {
+            long isbn = FIRST_ISBN - 1 - ThreadLocalRandom.current().nextInt(1_000);
+            if (isbnIndex.putIfAbsent(isbn, 1) == IsbnIndex.NOT_FOUND) {
+                isbnIndex.remove(isbn, 1);
+            }
+            return isbn;
+        }
+        return isbnIndex.get(isbns[ThreadLocalRandom.current().nextInt(SIZE)]);
+    }
+
+    @Benchmark
+    public Long concurrentHashMap() {
+        return concurrentHashMap.get(isbns[ThreadLocalRandom.current().nextInt(SIZE)]);
+    }
+
+    /**
+     * isbnIndexWhileWriting의 첫 번째 thread만 쓰기를 수행한다
+     */
+    @State(Scope.Thread)
+    public static class WriterState {
+        private static final AtomicInteger THREADS = new AtomicInteger();
+        boolean writer;
+
+        @Setup
+        public void setUp() {
+            writer = THREADS.getAndIncrement() == 0;
+        }
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,106 @@
+package com.around.reactive.benchmark;
+
+import com.around.reactive.dto.PriceDto;
+import com.around.reactive.stats.PriceRollup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 1백만 tick(1ms 간격, 약 16분)을 60초 window / 10초 slide로 집계하는 비용 (tick당 시간)
+ * - rollup : PriceRollup.add()를 직접 호출 (ring buffer)
+ * - rollupFlux : PriceRollup.windows()로 Flux 단계(watermark merge 포함)를 거치는 비용, GET /v2/prices/{symbol}/rollups
+ * - windowReduce : 비교 기준, slide마다 groupBy()로 Flux를 만들고 reduce()로 집계한 뒤 window를 합친다
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class PriceRollupBenchmark {
+    private static final int TICKS = 1_000_000;
+    private static final long WINDOW_MILLIS = 60_000;
+    private static final long SLIDE_MILLIS = 10_000;
+
+    private PriceDto.Tick[] ticks;
+
+    @Setup
+    public void setUp() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        ticks = new PriceDto.Tick[TICKS];
+        double price = 100;
+        for (int i = 0; i < TICKS; i++) {
+            price = Math.max(1, price + random.nextGaussian() * 0.05);
+            ticks[i] = new PriceDto.Tick(i, price, 1 + random.nextInt(1_000));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TICKS)
+    public long rollup() {
+        PriceRollup rollup = newRollup();
+        long windows = 0;
+        for (PriceDto.Tick tick : ticks) {
+            windows += rollup.add(tick.getTimestamp(), tick.getPrice(), tick.getVolume()).size();
+        }
+        return windows + rollup.flush().size();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TICKS)
+    public Long rollupFlux() {
+        return PriceRollup.windows(Flux.fromArray(ticks), Flux.never(), PriceRollupBenchmark::newRollup).count().block();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TICKS)
+    public Long windowReduce() {
+        return Flux.fromArray(ticks)
+                .groupBy(tick -> tick.getTimestamp() / SLIDE_MILLIS, Integer.MAX_VALUE)
+                .concatMap(bucket -> bucket.reduce(new double[]{0, 0, Double.MAX_VALUE, 0, 0, 0}, (slot, tick) -> {
+                    slot[0]++;
+                    slot[1] += tick.getPrice();
+                    slot[2] = Math.min(slot[2], tick.getPrice());
+                    slot[3] = Math.max(slot[3], tick.getPrice());
+                    slot[4] += tick.getPrice() * tick.getVolume();
+                    slot[5] += tick.getVolume();
+                    return slot;
+                }), Integer.MAX_VALUE)
+                .buffer((int) (WINDOW_MILLIS / SLIDE_MILLIS), 1)
+                .map(PriceRollupBenchmark::merge)
+                .count()
+                .block();
+    }
+
+    private static PriceRollup newRollup() {
+        return new PriceRollup("AAPL", WINDOW_MILLIS, SLIDE_MILLIS, EnumSet.allOf(PriceDto.WindowType.class));
+    }
+
+    private static double[] merge(List<double[]> slots) {
+        double[] window = {0, 0, Double.MAX_VALUE, 0, 0, 0};
+        for (double[] slot : slots) {
+            window[0] += slot[0];
+            window[1] += slot[1];
+            window[2] = Math.min(window[2], slot[2]);
+            window[3] = Math.max(window[3], slot[3]);
+            window[4] += slot[4];
+            window[5] += slot[5];
+        }
+        return window;
+    }
+}
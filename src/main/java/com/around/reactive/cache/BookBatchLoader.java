@@ -0,0 +1,94 @@
+package com.around.reactive.cache;
+
+import com.around.reactive.dto.Book;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * DataLoader 패턴으로 개별 bookId 조회를 모아서 한 번의 bulk 조회로 처리하는 loader
+ * load()로 들어온 요청은 FluxSink로 하나의 Flux에 모이고, bufferTimeout()으로 maxBatchSize개가 모이거나 window가 지나면
+ * 하나의 batch로 bulkLoader를 호출한 후 결과를 요청마다 만든 Sinks.one()으로 돌려준다
+ * bulk 조회가 끝나지 않은 batch가 DISPATCH_CONCURRENCY개를 넘으면 다음 batch는 onBackpressureBuffer()에서 기다린다
+ */
+public class BookBatchLoader {
+    private static final int DISPATCH_CONCURRENCY = 16;
+
+    private final Function<long[], Mono<Map<Long, Book>>> bulkLoader;
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder requests = new LongAdder();
+    private final Disposable dispatcher;
+    private FluxSink<Request> requestSink;
+
+    public BookBatchLoader(Function<long[], Mono<Map<Long, Book>>> bulkLoader, int maxBatchSize, Duration window) {
+        this.bulkLoader = bulkLoader;
+        this.dispatcher = Flux.<Request>create(sink -> this.requestSink = sink)
+                .bufferTimeout(maxBatchSize, window, Schedulers.parallel())
+                .onBackpressureBuffer()
+                .flatMap(this::dispatch, DISPATCH_CONCURRENCY)
+                .subscribe();
+    }
+
+    public Mono<Book> load(long bookId) {
+        return Mono.defer(() -> {
+            Request request = new Request(bookId);
+            requests.increment();
+            requestSink.next(request);
+            return request.result.asMono();
+        });
+    }
+
+    public long batches() {
+        return batches.sum();
+    }
+
+    public long requests() {
+        return requests.sum();
+    }
+
+    public void dispose() {
+        dispatcher.dispose();
+    }
+
+    private Mono<Void> dispatch(List<Request> batch) {
+        batches.increment();
+        long[] bookIds = new long[batch.size()];
+        for (int i = 0; i < bookIds.length; i++) {
+            bookIds[i] = batch.get(i).bookId;
+        }
+        return Mono.defer(() -> bulkLoader.apply(bookIds))
+                .defaultIfEmpty(Collections.emptyMap())
+                .doOnNext(books -> {
+                    for (Request request : batch) {
+                        Book book = books.get(request.bookId);
+                        if (book == null) {
+                            request.result.tryEmitEmpty();
+                        } else {
+                            request.result.tryEmitValue(book);
+                        }
+                    }
+                })
+                .doOnError(e -> batch.forEach(request -> request.result.tryEmitError(e)))
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    private static final class Request {
+        final long bookId;
+        final Sinks.One<Book> result = Sinks.one();
+
+        Request(long bookId) {
+            this.bookId = bookId;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.around.reactive.cache;
+
+import com.around.reactive.dto.Book;
+import com.around.reactive.dto.MetricsDto;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * bookId로 조회한 Mono<Book>을 캐싱하는 read-through cache
+ * - 조회 : ConcurrentHashMap에서 lock 없이 찾고, 없으면 loader의 Mono를 cache()해서 등록하기 때문에 같은 bookId의 동시 miss는 한 번만 적재된다
+ * - 만료 : expireAfterWrite가 지난 항목은 다시 적재하고, refreshAfterWrite가 지난 항목은 기존 값을 응답하면서
+ *          refreshScheduler에서 다시 적재한다 (요청 스레드에서 loader를 실행하지 않는다)
+ * - 제거 : W-TinyLFU와 같이 새 항목은 작은 window 영역에 먼저 들어가고, window에서 밀려난 항목은 main 영역의 가장 오래된 항목과
+ *          FrequencySketch로 추정한 조회 빈도를 비교해서 더 자주 조회된 쪽만 남는다
+ *          window는 FIFO, main은 LRU 대신 FIFO + second chance (main에 들어간 뒤 조회된 항목은 reference bit를 지우고 한 번 더 남긴다)
+ * 존재하지 않는 bookId(empty)와 에러는 캐싱하지 않는다
+ * 적재와 refresh는 SingleFlight를 거치기 때문에 만료 직후의 miss와 진행 중인 refresh처럼 entry가 달라도 같은 bookId라면 저장소를 한 번만 조회한다
+ */
+public class BookCache {
+    private static final int WINDOW_PERCENT = 1;
+
+    private final LongFunction<Mono<Book>> loader;
+    private final long windowSize;
+    private final long mainSize;
+    private final long expireAfterWriteNanos;
+    private final long refreshAfterWriteNanos;
+    private final LongSupplier ticker;
+    private final Scheduler refreshScheduler;
+
+    private final ConcurrentMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final FrequencySketch sketch;
+    private final SingleFlight<Book> flights = new SingleFlight<>();
+    /**
+     * window, main 영역과 sketch 갱신 외의 eviction 정책은 적재가 끝날 때만 실행되며 이 lock으로 보호한다
+     */
+    private final Object evictionLock = new Object();
+    private final ArrayDeque<Entry> window = new ArrayDeque<>();
+    private final ArrayDeque<Entry> main = new ArrayDeque<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public BookCache(LongFunction<Mono<Book>> loader, long maximumSize,
+                     Duration expireAfterWrite, Duration refreshAfterWrite) {
+        this(loader, maximumSize, expireAfterWrite, refreshAfterWrite, System::nanoTime);
+    }
+
+    public BookCache(LongFunction<Mono<Book>> loader, long maximumSize,
+                     Duration expireAfterWrite, Duration refreshAfterWrite, LongSupplier ticker) {
+        this(loader, maximumSize, expireAfterWrite, refreshAfterWrite, ticker, Schedulers.boundedElastic());
+    }
+
+    public BookCache(LongFunction<Mono<Book>> loader, long maximumSize, Duration expireAfterWrite,
+                     Duration refreshAfterWrite, LongSupplier ticker, Scheduler refreshScheduler) {
+        if (maximumSize < 2) {
+            throw new IllegalArgumentException("maximumSize must be at least 2: " + maximumSize);
+        }
+        this.loader = loader;
+        this.windowSize = Math.max(1, maximumSize * WINDOW_PERCENT / 100);
+        this.mainSize = maximumSize - windowSize;
+        this.expireAfterWriteNanos = expireAfterWrite.toNanos();
+        this.refreshAfterWriteNanos = Math.min(refreshAfterWrite.toNanos(), expireAfterWriteNanos);
+        this.ticker = ticker;
+        this.refreshScheduler = refreshScheduler;
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    public Mono<Book> get(long bookId) {
+        sketch.increment(bookId);
+        Entry entry = entries.get(bookId);
+        if (entry != null) {
+            long age = ticker.getAsLong() - entry.loadedAt;
+            if (!entry.loaded || age < expireAfterWriteNanos) {
+                hits.increment();
+                if (!entry.loaded) {
+                    coalesced.increment();
+                }
+                if (entry.loaded) {
+                    if (!entry.referenced) {
+                        entry.referenced = true;
+                    }
+                    if (age >= refreshAfterWriteNanos) {
+                        refresh(entry);
+                    }
+                }
+                return entry.value;
+            }
+            remove(entry);
+        }
+        misses.increment();
+        return load(bookId);
+    }
+
+    /**
+     * 도서가 생성/수정되면 호출해서 이전 값이 응답되지 않게 한다
+     * 수정 전에 시작된 적재는 이전 값을 읽었을 수 있기 때문에 SingleFlight에서도 떼어내서 이후의 miss가 합류하지 않게 한다
+     * (떼어낸 적재의 결과는 entry가 이미 제거되어 admit()에서 저장되지 않는다)
+     */
+    public void invalidate(long bookId) {
+        flights.forget(bookId);
+        Entry entry = entries.get(bookId);
+        if (entry != null) {
+            remove(entry);
+        }
+    }
+
+    public long size() {
+        return entries.size();
+    }
+
+    public MetricsDto.Cache stats() {
+        return MetricsDto.Cache.builder()
+                .size(entries.size())
+                .hits(hits.sum())
+                .misses(misses.sum())
+                .coalesced(coalesced.sum() + flights.coalesced())
+                .loads(loads.sum())
+                .loadFailures(loadFailures.sum())
+                .refreshes(refreshes.sum())
+                .evictions(evictions.sum())
+                .build();
+    }
+
+    private Mono<Book> load(long bookId) {
+        Entry created = new Entry(bookId);
+        created.value = flights.execute(bookId, loader)
+                .doOnSuccess(book -> {
+                    if (book == null) {
+                        remove(created);
+                    } else {
+                        loads.increment();
+                        admit(created);
+                    }
+                })
+                .doOnError(e -> {
+                    loadFailures.increment();
+                    remove(created);
+                })
+                .cache();
+
+        Entry existing = entries.putIfAbsent(bookId, created);
+        return existing == null ? created.value : existing.value;
+    }
+
+    /**
+     * 기존 값은 그대로 응답하고 bookId 하나당 하나의 백그라운드 적재만 refreshScheduler에서 실행한다
+     */
+    private void refresh(Entry entry) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        refreshes.increment();
+        Mono.defer(() -> flights.execute(entry.bookId, loader))
+                .subscribeOn(refreshScheduler)
+                .switchIfEmpty(Mono.fromRunnable(() -> remove(entry)))
+                .doFinally(signalType -> entry.refreshing.set(false))
+                .subscribe(book -> {
+                    entry.value = Mono.just(book);
+                    entry.loadedAt = ticker.getAsLong();
+                }, e -> loadFailures.increment());
+    }
+
+    private void admit(Entry entry) {
+        synchronized (evictionLock) {
+            entry.loadedAt = ticker.getAsLong();
+            entry.loaded = true;
+            if (entries.get(entry.bookId) != entry) {
+                return;
+            }
+            window.addLast(entry);
+            while (window.size() > windowSize) {
+                Entry candidate = window.pollFirst();
+                if (isLive(candidate)) {
+                    compete(candidate);
+                }
+            }
+        }
+    }
+
+    /**
+     * main 영역이 가득 찼다면 가장 오래된 항목(victim)과 window에서 밀려난 candidate 중 조회 빈도가 높은 쪽을 남긴다
+     * victim이 main에 들어간 뒤 조회되었다면(reference bit) 비교하지 않고 bit를 지워서 main의 끝으로 옮긴다 (second chance)
+     * victim이 이기면 main의 끝으로 옮겨서 다음 비교 대상이 바뀌게 한다
+     * reference bit는 조회마다 한 번만 설정되기 때문에 second chance로 건너뛰는 횟수는 조회 수를 넘지 않는다
+     */
+    private void compete(Entry candidate) {
+        candidate.referenced = false;
+        while (main.size() >= mainSize) {
+            Entry victim = main.pollFirst();
+            if (!isLive(victim)) {
+                continue;
+            }
+            if (victim.referenced) {
+                victim.referenced = false;
+                main.addLast(victim);
+                continue;
+            }
+            if (sketch.frequency(candidate.bookId) > sketch.frequency(victim.bookId)) {
+                evict(victim);
+            } else {
+                main.addLast(victim);
+                evict(candidate);
+                return;
+            }
+        }
+        main.addLast(candidate);
+    }
+
+    private boolean isLive(Entry entry) {
+        return entries.get(entry.bookId) == entry;
+    }
+
+    private void evict(Entry entry) {
+        if (entries.remove(entry.bookId, entry)) {
+            evictions.increment();
+        }
+    }
+
+    /**
+     * 제거된 항목은 window, main queue에 남아 있다가 isLive() 검사에서 건너뛴다
+     */
+    private void remove(Entry entry) {
+        entries.remove(entry.bookId, entry);
+    }
+
+    private static final class Entry {
+        final long bookId;
+        final AtomicBoolean refreshing = new AtomicBoolean();
+        volatile Mono<Book> value;
+        volatile long loadedAt;
+        volatile boolean loaded;
+        /**
+         * 마지막 second chance 이후 조회되었는지 여부, 조회 경로는 이미 설정되어 있으면 쓰지 않는다
+         */
+        volatile boolean referenced;
+
+        Entry(long bookId) {
+            this.bookId = bookId;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.around.reactive.cache;
+
+/**
+ * TinyLFU admission에 사용하는 4bit count-min sketch (long 하나에 counter 16개)
+ * 기록 횟수가 sampleSize에 도달하면 모든 counter를 절반으로 줄여서 오래된 빈도가 점점 잊혀지게 한다
+ * 조회 경로에서 lock 없이 호출되기 때문에 동시에 증가시키면 일부 증가가 유실될 수 있지만, 빈도 추정치로는 충분하다
+ */
+final class FrequencySketch {
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_COUNT = 15;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(long maximumSize) {
+        int size = (int) Math.min(1 << 30, Math.max(Long.highestOneBit(Math.max(maximumSize, 1) - 1) << 1, 8));
+        this.table = new long[size];
+        this.tableMask = size - 1;
+        this.sampleSize = (int) Math.min(Integer.MAX_VALUE, 10L * Math.max(maximumSize, 1));
+    }
+
+    int frequency(long key) {
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < SEEDS.length; i++) {
+            int hash = hash(key, i);
+            frequency = Math.min(frequency, (int) ((table[hash & tableMask] >>> offset(hash)) & MAX_COUNT));
+        }
+        return frequency;
+    }
+
+    void increment(long key) {
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            int hash = hash(key, i);
+            int index = hash & tableMask;
+            int offset = offset(hash);
+            if (((table[index] >>> offset) & MAX_COUNT) != MAX_COUNT) {
+                table[index] += 1L << offset;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions >>>= 1;
+    }
+
+    /**
+     * counter 16개 중 하나를 hash의 상위 bit로 선택한다
+     */
+    private static int offset(int hash) {
+        return (hash >>> 28) << 2;
+    }
+
+    private static int hash(long key, int i) {
+        long h = (key + SEEDS[i]) * SEEDS[i];
+        h ^= h >>> 32;
+        h *= 0x9e3779b97f4a7c15L;
+        return (int) (h ^ (h >>> 29));
+    }
+}
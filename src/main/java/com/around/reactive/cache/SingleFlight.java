@@ -0,0 +1,63 @@
+package com.around.reactive.cache;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+
+/**
+ * 같은 key에 대한 작업이 진행 중이면 새로 실행하지 않고 진행 중인 작업의 결과를 함께 받게 하는 single-flight
+ * 처음 구독한 요청만 작업을 구독하고, 결과는 Sinks.one()으로 기다리던 모든 Subscriber에게 multicast된다
+ * 작업이 끝나면 key를 제거하기 때문에 결과를 보관하지는 않는다 (보관은 BookCache의 역할)
+ * 기다리던 Subscriber가 모두 취소해도 시작된 작업은 끝까지 실행된다
+ */
+public class SingleFlight<T> {
+    private final ConcurrentMap<Long, Sinks.One<T>> flights = new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public Mono<T> execute(long key, LongFunction<Mono<T>> call) {
+        return Mono.defer(() -> {
+            Sinks.One<T> flight = flights.get(key);
+            if (flight != null) {
+                coalesced.increment();
+                return flight.asMono();
+            }
+            Sinks.One<T> created = Sinks.one();
+            flight = flights.putIfAbsent(key, created);
+            if (flight != null) {
+                coalesced.increment();
+                return flight.asMono();
+            }
+
+            executions.increment();
+            Mono<T> result = created.asMono();
+            call.apply(key)
+                    .doOnTerminate(() -> flights.remove(key, created))
+                    .subscribe(created::tryEmitValue, created::tryEmitError, created::tryEmitEmpty);
+            return result;
+        });
+    }
+
+    /**
+     * 진행 중인 작업을 더 이상 공유하지 않는다, 이후의 execute()는 새로 실행한다
+     * 이미 기다리던 Subscriber는 진행 중인 작업의 결과를 그대로 받는다
+     */
+    public void forget(long key) {
+        flights.remove(key);
+    }
+
+    public long executions() {
+        return executions.sum();
+    }
+
+    /**
+     * 진행 중인 작업에 합류해서 실행을 생략한 요청 수
+     */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+}
@@ -0,0 +1,212 @@
+package com.around.reactive.codec;
+
+import com.around.reactive.dto.Book;
+import com.around.reactive.dto.BookDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractEncoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Book을 BookDto.Response와 같은 모양의 JSON으로 DataBuffer에 직접 기록하는 Encoder
+ * BookDto.Response 생성과 Jackson 직렬화를 거치지 않고, 미리 인코딩해 둔 필드명 bytes와 문자열을 바로 UTF-8로 기록하기 때문에
+ * Reactor Netty의 pooled DataBuffer 외에는 요청마다 객체를 할당하지 않는다
+ * Mono<Book>은 JSON 객체 하나, Flux<Book>은 Jackson2JsonEncoder처럼 JSON 배열로 기록한다
+ * spring.jackson.* 설정을 따르지 않기 때문에 sameAs()로 애플리케이션 ObjectMapper와 결과가 같은지 확인한 후 등록한다
+ */
+public class BookJsonEncoder extends AbstractEncoder<Book> {
+    private static final byte[] BOOK_ID = ascii("{\"bookId\":");
+    private static final byte[] TITLE_KOREAN = ascii(",\"titleKorean\":");
+    private static final byte[] TITLE_ENGLISH = ascii(",\"titleEnglish\":");
+    private static final byte[] DESCRIPTION = ascii(",\"description\":");
+    private static final byte[] AUTHOR = ascii(",\"author\":");
+    private static final byte[] ISBN = ascii(",\"isbn\":");
+    private static final byte[] PUBLISH_DATE = ascii(",\"publishDate\":");
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] HEX = ascii("0123456789abcdef");
+    private static final byte[] ARRAY_START = ascii("[");
+    private static final byte[] ARRAY_END = ascii("]");
+    private static final int INITIAL_CAPACITY = 256;
+
+    public BookJsonEncoder() {
+        super(MimeTypeUtils.APPLICATION_JSON);
+    }
+
+    @Override
+    public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+        return Book.class.isAssignableFrom(elementType.toClass()) && super.canEncode(elementType, mimeType);
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<? extends Book> inputStream, DataBufferFactory bufferFactory,
+                                   ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+        if (inputStream instanceof Mono) {
+            return Mono.from(inputStream)
+                    .map(book -> encodeValue(book, bufferFactory, elementType, mimeType, hints))
+                    .flux();
+        }
+        Flux<DataBuffer> elements = Flux.from(inputStream)
+                .index((index, book) -> write(bufferFactory.allocateBuffer(INITIAL_CAPACITY), book, index > 0));
+        return Flux.concat(
+                Mono.fromCallable(() -> bufferFactory.wrap(ARRAY_START)),
+                elements,
+                Mono.fromCallable(() -> bufferFactory.wrap(ARRAY_END)));
+    }
+
+    @Override
+    public DataBuffer encodeValue(Book book, DataBufferFactory bufferFactory, ResolvableType valueType,
+                                  MimeType mimeType, Map<String, Object> hints) {
+        return write(bufferFactory.allocateBuffer(INITIAL_CAPACITY), book, false);
+    }
+
+    /**
+     * objectMapper로 직렬화한 BookDto.Response와 같은 JSON을 기록하는지 확인한다
+     * (null 필드 제외, naming strategy 같은 spring.jackson.* 설정이 다르면 false)
+     */
+    public boolean sameAs(ObjectMapper objectMapper) {
+        Book book = new Book(1, "자바 \"고급\"", "Advanced\\Java", null, "Kevin", "111-11-1111-111-1", "2022-03-22",
+                null, null, 1);
+        BookDto.Response response = BookDto.Response.builder()
+                .bookId(book.getBookId())
+                .titleKorean(book.getTitleKorean())
+                .titleEnglish(book.getTitleEnglish())
+                .description(book.getDescription())
+                .author(book.getAuthor())
+                .isbn(book.getIsbn())
+                .publishDate(book.getPublishDate())
+                .build();
+        DataBuffer buffer = encodeValue(book, DefaultDataBufferFactory.sharedInstance, ResolvableType.forClass(Book.class),
+                MimeTypeUtils.APPLICATION_JSON, Collections.emptyMap());
+        try {
+            return objectMapper.readTree(buffer.toString(StandardCharsets.UTF_8))
+                    .equals(objectMapper.readTree(objectMapper.writeValueAsString(response)));
+        } catch (JsonProcessingException e) {
+            return false;
+        }
+    }
+
+    private static DataBuffer write(DataBuffer buffer, Book book, boolean separator) {
+        if (separator) {
+            buffer.write((byte) ',');
+        }
+        buffer.write(BOOK_ID);
+        writeLong(buffer, book.getBookId());
+        buffer.write(TITLE_KOREAN);
+        writeString(buffer, book.getTitleKorean());
+        buffer.write(TITLE_ENGLISH);
+        writeString(buffer, book.getTitleEnglish());
+        buffer.write(DESCRIPTION);
+        writeString(buffer, book.getDescription());
+        buffer.write(AUTHOR);
+        writeString(buffer, book.getAuthor());
+        buffer.write(ISBN);
+        writeString(buffer, book.getIsbn());
+        buffer.write(PUBLISH_DATE);
+        writeString(buffer, book.getPublishDate());
+        buffer.write((byte) '}');
+        return buffer;
+    }
+
+    static void writeLong(DataBuffer buffer, long value) {
+        if (value == Long.MIN_VALUE) {
+            buffer.write(ascii(Long.toString(value)));
+            return;
+        }
+        if (value < 0) {
+            buffer.write((byte) '-');
+            value = -value;
+        }
+        long divisor = 1;
+        while (divisor <= value / 10) {
+            divisor *= 10;
+        }
+        while (divisor > 0) {
+            buffer.write((byte) ('0' + value / divisor));
+            value %= divisor;
+            divisor /= 10;
+        }
+    }
+
+    /**
+     * 문자열을 JSON escape 처리하면서 UTF-8로 한 글자씩 기록한다 (중간 byte[]를 만들지 않는다)
+     */
+    static void writeString(DataBuffer buffer, String value) {
+        if (value == null) {
+            buffer.write(NULL);
+            return;
+        }
+        buffer.write((byte) '"');
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                writeAscii(buffer, c);
+            } else if (c < 0x800) {
+                buffer.write((byte) (0xC0 | (c >> 6)));
+                buffer.write((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.write((byte) (0xF0 | (codePoint >> 18)));
+                buffer.write((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.write((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.write((byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                buffer.write((byte) '?');
+            } else {
+                buffer.write((byte) (0xE0 | (c >> 12)));
+                buffer.write((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.write((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        buffer.write((byte) '"');
+    }
+
+    private static void writeAscii(DataBuffer buffer, char c) {
+        switch (c) {
+            case '"':
+            case '\\':
+                buffer.write((byte) '\\');
+                buffer.write((byte) c);
+                return;
+            case '\n':
+                buffer.write((byte) '\\');
+                buffer.write((byte) 'n');
+                return;
+            case '\r':
+                buffer.write((byte) '\\');
+                buffer.write((byte) 'r');
+                return;
+            case '\t':
+                buffer.write((byte) '\\');
+                buffer.write((byte) 't');
+                return;
+            default:
+                if (c < 0x20) {
+                    buffer.write((byte) '\\');
+                    buffer.write((byte) 'u');
+                    buffer.write((byte) '0');
+                    buffer.write((byte) '0');
+                    buffer.write(HEX[c >> 4]);
+                    buffer.write(HEX[c & 0xF]);
+                } else {
+                    buffer.write((byte) c);
+                }
+        }
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
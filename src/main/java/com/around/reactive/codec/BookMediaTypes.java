@@ -0,0 +1,15 @@
+package com.around.reactive.codec;
+
+import org.springframework.http.MediaType;
+
+/**
+ * 서비스 간 통신에 사용하는 binary media type
+ * CBOR은 MediaType.APPLICATION_CBOR를 사용하고, Smile은 Spring에 상수가 없어서 Jackson2SmileEncoder의 기본 media type을 정의한다
+ */
+public final class BookMediaTypes {
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType APPLICATION_SMILE = MediaType.valueOf(APPLICATION_SMILE_VALUE);
+
+    private BookMediaTypes() {
+    }
+}
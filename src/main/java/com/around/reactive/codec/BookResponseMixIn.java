@@ -0,0 +1,11 @@
+package com.around.reactive.codec;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * CBOR / Smile ObjectMapper에서 Book을 BookDto.Response와 같은 필드로 직렬화하기 위한 Jackson mix-in
+ * BookJsonEncoder와 마찬가지로 BookDto.Response로 변환하지 않고 Book을 바로 기록한다
+ */
+@JsonIgnoreProperties({"createdAt", "modifiedAt", "version"})
+public abstract class BookResponseMixIn {
+}
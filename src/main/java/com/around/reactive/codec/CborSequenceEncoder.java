@@ -0,0 +1,35 @@
+package com.around.reactive.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+
+/**
+ * Jackson2CborEncoder는 encode(Publisher)를 지원하지 않아서 WebFlux 응답(EncoderHttpMessageWriter)에 사용할 수 없다
+ * 각 요소를 encodeValue()로 인코딩해서 CBOR sequence(RFC 8742)로 기록하며, Mono라면 CBOR 값 하나가 된다
+ * custom codec은 기본 JSON codec보다 앞에 등록되기 때문에 mime type 없이 확인하는 경우(Accept가 없거나 모든 type을 허용하는 경우)에는 인코딩하지 않는다
+ */
+public class CborSequenceEncoder extends Jackson2CborEncoder {
+
+    public CborSequenceEncoder(ObjectMapper mapper, MimeType... mimeTypes) {
+        super(mapper, mimeTypes);
+    }
+
+    @Override
+    public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+        return mimeType != null && super.canEncode(elementType, mimeType);
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory, ResolvableType elementType,
+                                   MimeType mimeType, Map<String, Object> hints) {
+        return Flux.from(inputStream).map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints));
+    }
+}
@@ -0,0 +1,17 @@
+package com.around.reactive.config;
+
+import com.around.reactive.log.AccessLog;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(AccessLogProperties.class)
+public class AccessLogConfiguration {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public AccessLog accessLog(AccessLogProperties properties) {
+        return new AccessLog(properties.getCapacity(), properties.getSampleRate(),
+                properties.getBatchSize(), properties.getFlushInterval());
+    }
+}
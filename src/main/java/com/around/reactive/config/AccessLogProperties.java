@@ -0,0 +1,23 @@
+package com.around.reactive.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties("book.access-log")
+public class AccessLogProperties {
+    /**
+     * capacity : ring buffer 크기 (2의 거듭제곱으로 올림), 가득 차면 새 레코드는 버려진다
+     * sampleRate : 정상 응답 N건 중 1건만 기록 (1이면 전부 기록, 5xx는 항상 기록)
+     * batchSize : drainer가 한 번의 로그 출력으로 묶는 최대 레코드 수
+     * flushInterval : drainer 실행 주기
+     */
+    private int capacity = 8_192;
+    private int sampleRate = 1;
+    private int batchSize = 256;
+    private Duration flushInterval = Duration.ofMillis(200);
+}
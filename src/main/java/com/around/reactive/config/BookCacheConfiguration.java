@@ -0,0 +1,35 @@
+package com.around.reactive.config;
+
+import com.around.reactive.cache.BookBatchLoader;
+import com.around.reactive.cache.BookCache;
+import com.around.reactive.repository.ReactiveBookRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(BookCacheProperties.class)
+public class BookCacheConfiguration {
+
+    /**
+     * batchSize가 1보다 크면 cache miss를 BookBatchLoader로 모아서 bulk 조회한다
+     */
+    @Bean
+    public BookCache bookCache(ReactiveBookRepository bookRepository, BookCacheProperties properties,
+                               ObjectProvider<BookBatchLoader> bookBatchLoader) {
+        BookBatchLoader batchLoader = bookBatchLoader.getIfAvailable();
+        return new BookCache(batchLoader != null ? batchLoader::load : bookRepository::findById,
+                properties.getMaximumSize(), properties.getExpireAfterWrite(), properties.getRefreshAfterWrite());
+    }
+
+    /**
+     * batchSize가 1 이하이면(기본값) 만들지 않아서 parallel scheduler의 dispatcher 구독도 생기지 않는다
+     */
+    @Bean(destroyMethod = "dispose")
+    @ConditionalOnExpression("${book.cache.batch-size:1} > 1")
+    public BookBatchLoader bookBatchLoader(ReactiveBookRepository bookRepository, BookCacheProperties properties) {
+        return new BookBatchLoader(bookRepository::findAllById, properties.getBatchSize(), properties.getBatchWindow());
+    }
+}
@@ -0,0 +1,26 @@
+package com.around.reactive.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties("book.cache")
+public class BookCacheProperties {
+    /**
+     * maximumSize : 캐싱할 최대 도서 수
+     * expireAfterWrite : 적재 후 이 시간이 지나면 다시 적재한다
+     * refreshAfterWrite : 적재 후 이 시간이 지나면 기존 값을 응답하면서 백그라운드로 다시 적재한다
+     * batchSize : cache miss를 모아서 한 번에 조회할 최대 bookId 수 (1 이하이면 bookId마다 조회)
+     *             in-process 저장소에서는 batch를 모으는 비용이 조회보다 커서 기본값은 1(끄기)이다, 원격 저장소일 때만 키운다
+     * batchWindow : batchSize만큼 모이지 않았을 때 조회를 미루는 최대 시간
+     */
+    private long maximumSize = 100_000;
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+    private Duration refreshAfterWrite = Duration.ofMinutes(1);
+    private int batchSize = 1;
+    private Duration batchWindow = Duration.ofMillis(1);
+}
@@ -0,0 +1,29 @@
+package com.around.reactive.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+@Getter
+@Setter
+@ConfigurationProperties("book.catalog")
+public class BookCatalogProperties {
+    /**
+     * EAGER : 애플리케이션 컨텍스트 생성 중에 전체 카탈로그를 동기적으로 적재
+     * LAZY : 컨텍스트 생성 후 chunk 단위로 병렬 적재하고, 적재 전인 bookId는 on-demand로 조회
+     * SNAPSHOT : snapshotPath의 스냅샷 파일을 매핑해서 조회, 파일이 없으면 한 번 적재한 후 스냅샷을 기록
+     */
+    private LoadMode loadMode = LoadMode.EAGER;
+    private int size = 2_000_000;
+    private int chunkSize = 100_000;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private Path snapshotPath = Path.of(System.getProperty("java.io.tmpdir"), "book-catalog.snapshot");
+
+    public enum LoadMode {
+        EAGER,
+        LAZY,
+        SNAPSHOT
+    }
+}
@@ -0,0 +1,11 @@
+package com.around.reactive.config;
+
+import org.springframework.boot.availability.AvailabilityState;
+
+/**
+ * 카탈로그 적재 상태, ApplicationAvailability.getState(BookCatalogState.class)로 확인할 수 있다
+ */
+public enum BookCatalogState implements AvailabilityState {
+    LOADING,
+    READY
+}
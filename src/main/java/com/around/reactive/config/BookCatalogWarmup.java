@@ -0,0 +1,66 @@
+package com.around.reactive.config;
+
+import com.around.reactive.store.BookStore;
+import com.around.reactive.store.ChunkedBookStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.PreDestroy;
+
+/**
+ * 애플리케이션이 시작되면 LAZY 모드의 카탈로그를 bounded parallel scheduler에서 chunk 단위로 적재하고
+ * 적재가 끝나면 BookCatalogState.READY를 AvailabilityChangeEvent로 발행한다
+ */
+@Slf4j
+@Component
+public class BookCatalogWarmup {
+    private final BookStore bookStore;
+    private final BookCatalogProperties properties;
+    private final ApplicationEventPublisher publisher;
+    private Disposable loading;
+
+    public BookCatalogWarmup(BookStore bookStore,
+                             BookCatalogProperties properties,
+                             ApplicationEventPublisher publisher) {
+        this.bookStore = bookStore;
+        this.properties = properties;
+        this.publisher = publisher;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void warmUp() {
+        if (!(bookStore instanceof ChunkedBookStore)) {
+            AvailabilityChangeEvent.publish(publisher, bookStore, BookCatalogState.READY);
+            return;
+        }
+
+        ChunkedBookStore store = (ChunkedBookStore) bookStore;
+        AvailabilityChangeEvent.publish(publisher, store, BookCatalogState.LOADING);
+        long startedAt = System.nanoTime();
+        Scheduler scheduler = Schedulers.newParallel("book-catalog", properties.getParallelism(), true);
+        loading = store.load(scheduler, properties.getParallelism())
+                .doFinally(signal -> scheduler.dispose())
+                .subscribe(
+                        notUse -> {},
+                        error -> log.error("# book catalog warm-up failed", error),
+                        () -> {
+                            log.info("# book catalog loaded: {} chunks in {} ms",
+                                    store.totalChunks(), (System.nanoTime() - startedAt) / 1_000_000);
+                            AvailabilityChangeEvent.publish(publisher, store, BookCatalogState.READY);
+                        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (loading != null) {
+            loading.dispose();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.around.reactive.config;
+
+import com.around.reactive.event.BookChangeFeed;
+import com.around.reactive.event.BookChangeListener;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(BookChangeFeedProperties.class)
+public class BookChangeFeedConfiguration {
+
+    /**
+     * BookChangeListener bean(BookSearchIndex, BookAuthorStats)은 도서가 생성/수정될 때마다 이벤트 발행 전에 호출된다
+     */
+    @Bean
+    public BookChangeFeed bookChangeFeed(BookChangeFeedProperties properties, List<BookChangeListener> listeners) {
+        return new BookChangeFeed(properties.getRetention(), properties.getBackpressure(), properties.getBufferSize(),
+                listeners);
+    }
+}
@@ -0,0 +1,20 @@
+package com.around.reactive.config;
+
+import com.around.reactive.event.BookChangeFeed;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties("book.changes")
+public class BookChangeFeedProperties {
+    /**
+     * retention : 이어서 받을 수 있도록 보관하는 최근 이벤트 수
+     * backpressure : 느린 구독자에 대한 처리 방식 (DROP_OLDEST, DROP_LATEST, LATEST)
+     * bufferSize : DROP_OLDEST, DROP_LATEST일 때 구독자별 buffer 크기 (이어서 받는 구독자는 retention 이상)
+     */
+    private int retention = 10_000;
+    private BookChangeFeed.Backpressure backpressure = BookChangeFeed.Backpressure.DROP_OLDEST;
+    private int bufferSize = 256;
+}
@@ -0,0 +1,57 @@
+package com.around.reactive.config;
+
+import com.around.reactive.codec.BookJsonEncoder;
+import com.around.reactive.codec.BookMediaTypes;
+import com.around.reactive.codec.BookResponseMixIn;
+import com.around.reactive.codec.CborSequenceEncoder;
+import com.around.reactive.dto.Book;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+@Slf4j
+@Configuration
+public class BookCodecConfiguration implements WebFluxConfigurer {
+    private final ObjectMapper objectMapper;
+
+    public BookCodecConfiguration(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Book 타입의 application/json 응답은 Jackson보다 먼저 BookJsonEncoder가 처리한다
+     * (spring.jackson.* 설정 때문에 Jackson 결과와 달라진다면 등록하지 않고 Jackson으로 직렬화한다)
+     * 서비스 간 통신용 application/cbor, application/x-jackson-smile codec은 Book에 BookResponseMixIn을 적용한 ObjectMapper로 등록한다
+     * - Smile : 기본 codec을 교체해서 Accept가 없거나 모든 type을 허용하는 요청은 지금처럼 JSON으로 응답한다
+     * - CBOR : 기본 codec에 포함되지 않아서 custom codec으로 등록하고, CborSequenceEncoder는 명시적으로 요청된 경우에만 사용된다
+     * mime type을 지정하지 않으면 Jackson2CborEncoder / Jackson2SmileEncoder도 application/json을 처리하기 때문에 반드시 지정한다
+     */
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        BookJsonEncoder bookJsonEncoder = new BookJsonEncoder();
+        if (bookJsonEncoder.sameAs(objectMapper)) {
+            configurer.customCodecs().register(bookJsonEncoder);
+        } else {
+            log.warn("BookJsonEncoder disabled: output differs from the configured ObjectMapper");
+        }
+
+        ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.cbor()
+                .mixIn(Book.class, BookResponseMixIn.class)
+                .build();
+        configurer.customCodecs().register(new CborSequenceEncoder(cborMapper, MediaType.APPLICATION_CBOR));
+        configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR));
+
+        ObjectMapper smileMapper = Jackson2ObjectMapperBuilder.smile()
+                .mixIn(Book.class, BookResponseMixIn.class)
+                .build();
+        configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smileMapper, BookMediaTypes.APPLICATION_SMILE));
+        configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper, BookMediaTypes.APPLICATION_SMILE));
+    }
+}
@@ -1,22 +1,58 @@
 package com.around.reactive.config;
 
-import com.around.reactive.dto.Book;
-import com.around.reactive.dto.SimpleBook;
+import com.around.reactive.store.BookSnapshot;
+import com.around.reactive.store.BookStore;
+import com.around.reactive.store.ChunkedBookStore;
+import com.around.reactive.store.GeneratedBookCatalog;
+import com.around.reactive.store.OffHeapBookStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
+@Slf4j
 @Configuration
+@EnableConfigurationProperties(BookCatalogProperties.class)
 public class BookConfiguration {
+
+    /**
+     * HashMap<Long, SimpleBook> 대신 off-heap 컬럼 저장소에 카탈로그를 적재해서 2백만 개의 Long/SimpleBook 객체가 heap에 상주하지 않도록 한다
+     * LAZY 모드에서는 비어 있는 ChunkedBookStore만 생성하고 실제 적재는 BookCatalogWarmup이 백그라운드에서 수행한다
+     * SNAPSHOT 모드에서는 매핑된 스냅샷 파일을 그대로 조회하기 때문에 재시작 시 카탈로그를 다시 만들지 않는다
+     */
     @Bean
-    public Map<Long, SimpleBook> bookMap() {
-        Map<Long, SimpleBook> bookMap = new HashMap<>();
-        for (long i = 1; i <= 2_000_000; i++) {
-            bookMap.put(i, new SimpleBook(i, "IT Book" + i, 2000));
+    public BookStore bookStore(BookCatalogProperties properties) {
+        GeneratedBookCatalog catalog = new GeneratedBookCatalog(properties.getSize());
+        switch (properties.getLoadMode()) {
+            case LAZY:
+                return new ChunkedBookStore(catalog, catalog.firstBookId(), catalog.lastBookId(), properties.getChunkSize());
+            case SNAPSHOT:
+                return snapshotStore(catalog, properties.getSnapshotPath());
+            default:
+                return OffHeapBookStore.copyOf(catalog, catalog.firstBookId(), catalog.lastBookId());
+        }
+    }
+
+    /**
+     * 스냅샷 파일이 있으면 바로 매핑하고, 없거나 카탈로그 크기가 다르면 새로 적재해서 기록한 뒤 매핑한다
+     */
+    private BookStore snapshotStore(GeneratedBookCatalog catalog, Path snapshotPath) {
+        if (Files.exists(snapshotPath)) {
+            try {
+                OffHeapBookStore snapshot = BookSnapshot.open(snapshotPath);
+                if (snapshot.size() == catalog.size()) {
+                    return snapshot;
+                }
+                log.info("# book snapshot size mismatch, rebuilding: {}", snapshotPath);
+            } catch (IllegalStateException e) {
+                log.warn("# invalid book snapshot, rebuilding: {}", snapshotPath, e);
+            }
         }
 
-        return bookMap;
+        BookSnapshot.write(OffHeapBookStore.copyOf(catalog, catalog.firstBookId(), catalog.lastBookId()), snapshotPath);
+        return BookSnapshot.open(snapshotPath);
     }
 }
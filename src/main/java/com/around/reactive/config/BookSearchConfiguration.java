@@ -0,0 +1,19 @@
+package com.around.reactive.config;
+
+import com.around.reactive.search.BookSearchIndex;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(BookSearchProperties.class)
+public class BookSearchConfiguration {
+
+    /**
+     * 카탈로그 색인은 BookSearchWarmup이 애플리케이션 시작 후 백그라운드에서 만든다
+     */
+    @Bean
+    public BookSearchIndex bookSearchIndex() {
+        return new BookSearchIndex();
+    }
+}
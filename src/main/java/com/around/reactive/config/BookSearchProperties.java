@@ -0,0 +1,16 @@
+package com.around.reactive.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties("book.search")
+public class BookSearchProperties {
+    /**
+     * 애플리케이션이 시작되면 카탈로그 도서를 백그라운드에서 색인한다
+     * false라면 생성/수정된 도서만 검색된다
+     */
+    private boolean indexCatalog = true;
+}
@@ -0,0 +1,57 @@
+package com.around.reactive.config;
+
+import com.around.reactive.search.BookSearchIndex;
+import com.around.reactive.store.BookStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.PreDestroy;
+
+/**
+ * 애플리케이션이 시작되면 카탈로그 도서를 boundedElastic scheduler에서 BookSearchIndex에 색인한다
+ * 색인이 끝나기 전에는 생성/수정된 도서만 검색된다
+ */
+@Slf4j
+@Component
+public class BookSearchWarmup {
+    private final BookSearchIndex searchIndex;
+    private final BookStore bookStore;
+    private final BookSearchProperties properties;
+    private Disposable indexing;
+
+    public BookSearchWarmup(BookSearchIndex searchIndex,
+                            BookStore bookStore,
+                            BookSearchProperties properties) {
+        this.searchIndex = searchIndex;
+        this.bookStore = bookStore;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void warmUp() {
+        if (!properties.isIndexCatalog()) {
+            return;
+        }
+        long startedAt = System.nanoTime();
+        indexing = Mono.fromRunnable(() -> searchIndex.indexCatalog(bookStore))
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(
+                        notUse -> {},
+                        error -> log.error("# book search index failed", error),
+                        () -> log.info("# book search index built: {} books, {} MB in {} ms",
+                                searchIndex.catalogDocuments(), searchIndex.catalogMemoryBytes() >> 20,
+                                (System.nanoTime() - startedAt) / 1_000_000));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (indexing != null) {
+            indexing.dispose();
+        }
+    }
+}
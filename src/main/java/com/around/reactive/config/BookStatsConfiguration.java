@@ -0,0 +1,36 @@
+package com.around.reactive.config;
+
+import com.around.reactive.stats.BookAuthorStats;
+import com.around.reactive.stats.BookStatsEngine;
+import com.around.reactive.store.BookStore;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+@EnableConfigurationProperties(BookStatsProperties.class)
+public class BookStatsConfiguration {
+
+    /**
+     * 카탈로그 전체를 scan하는 집계가 Schedulers.parallel()을 점유하지 않도록 parallelism개의 전용 스레드에서 실행한다
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler bookStatsScheduler(BookStatsProperties properties) {
+        return Schedulers.newParallel("book-stats", properties.getParallelism(), true);
+    }
+
+    @Bean
+    public BookStatsEngine bookStatsEngine(BookStatsProperties properties, Scheduler bookStatsScheduler) {
+        return new BookStatsEngine(properties.getParallelism(), bookStatsScheduler);
+    }
+
+    /**
+     * 카탈로그 도서에는 저자가 없기 때문에 빈 상태에서 시작해서 v2 BookService의 생성/수정마다 갱신한다
+     */
+    @Bean
+    public BookAuthorStats bookAuthorStats(BookStore bookStore) {
+        return new BookAuthorStats(bookStore);
+    }
+}
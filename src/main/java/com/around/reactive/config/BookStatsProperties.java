@@ -0,0 +1,16 @@
+package com.around.reactive.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import reactor.core.scheduler.Schedulers;
+
+@Getter
+@Setter
+@ConfigurationProperties("book.stats")
+public class BookStatsProperties {
+    /**
+     * parallelism : GET /v2/books/stats 집계에 사용하는 전용 스레드 수 (요청 처리와 다른 Reactor 작업이 사용하는 Schedulers.parallel()과 나눈다)
+     */
+    private int parallelism = Schedulers.DEFAULT_POOL_SIZE;
+}
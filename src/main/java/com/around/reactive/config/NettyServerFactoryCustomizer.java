@@ -0,0 +1,76 @@
+package com.around.reactive.config;
+
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.stereotype.Component;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+import javax.annotation.PreDestroy;
+
+/**
+ * book.netty.* 설정을 Reactor Netty HttpServer에 적용한다
+ * soBacklog, pooledAllocator는 설정한 경우에만 적용하고, 나머지 기본값도 Reactor Netty 기본값과 같아서 기본 설정에서는 동작이 바뀌지 않는다
+ * keep-alive(idle timeout, 최대 요청 수)와 h2c는 Spring Boot가 server.netty.*, server.http2.enabled로 적용한다
+ * HTTP/1.1 pipelining은 Reactor Netty가 연결마다 요청을 순서대로 처리하며 별도의 제한 설정은 없다
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(NettyServerProperties.class)
+public class NettyServerFactoryCustomizer implements WebServerFactoryCustomizer<NettyReactiveWebServerFactory> {
+    /**
+     * UnpooledByteBufAllocator.DEFAULT는 direct buffer를 우선하므로 heap buffer를 쓰는 allocator를 따로 만든다
+     */
+    private static final ByteBufAllocator UNPOOLED_HEAP_ALLOCATOR = new UnpooledByteBufAllocator(false);
+
+    private final NettyServerProperties properties;
+    private LoopResources loopResources;
+
+    public NettyServerFactoryCustomizer(NettyServerProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public void customize(NettyReactiveWebServerFactory factory) {
+        factory.addServerCustomizers(this::apply);
+    }
+
+    HttpServer apply(HttpServer server) {
+        server = server.childOption(ChannelOption.TCP_NODELAY, properties.isTcpNoDelay());
+        if (properties.getSoBacklog() != null) {
+            server = server.option(ChannelOption.SO_BACKLOG, properties.getSoBacklog());
+        }
+        if (properties.getPooledAllocator() != null) {
+            ByteBufAllocator allocator = properties.getPooledAllocator()
+                    ? PooledByteBufAllocator.DEFAULT
+                    : UNPOOLED_HEAP_ALLOCATOR;
+            server = server.childOption(ChannelOption.ALLOCATOR, allocator);
+        }
+
+        if (properties.getEventLoopThreads() > 0 || !properties.isNativeTransport()) {
+            int workers = properties.getEventLoopThreads() > 0
+                    ? properties.getEventLoopThreads()
+                    : LoopResources.DEFAULT_IO_WORKER_COUNT;
+            loopResources = LoopResources.create("book-http", 1, workers, true);
+            server = server.runOn(loopResources, properties.isNativeTransport());
+        }
+
+        log.info("# netty server: eventLoopThreads={}, nativeTransport={}, pooledAllocator={}, tcpNoDelay={}, soBacklog={}",
+                properties.getEventLoopThreads(), properties.isNativeTransport(), properties.getPooledAllocator(),
+                properties.isTcpNoDelay(), properties.getSoBacklog());
+        return server;
+    }
+
+    @PreDestroy
+    public void dispose() {
+        if (loopResources != null) {
+            loopResources.dispose();
+        }
+    }
+}
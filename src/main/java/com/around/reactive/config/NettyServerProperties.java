@@ -0,0 +1,25 @@
+package com.around.reactive.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties("book.netty")
+public class NettyServerProperties {
+    /**
+     * eventLoopThreads : worker event loop 스레드 수 (0이면 Reactor Netty 기본값, CPU 코어 수)
+     * nativeTransport : Linux에서 epoll native transport 사용 (사용할 수 없으면 NIO)
+     * pooledAllocator : true이면 pooled direct, false이면 unpooled heap ByteBuf allocator (null이면 Reactor Netty 기본값)
+     * tcpNoDelay : 응답을 Nagle 알고리즘으로 지연시키지 않는다
+     * soBacklog : accept 대기 queue 크기 (null이면 Reactor Netty 기본값)
+     * keep-alive 연결의 idle timeout, 최대 요청 수와 h2c는 Spring Boot의 server.netty.idle-timeout,
+     * server.netty.max-keep-alive-requests, server.http2.enabled를 사용한다
+     */
+    private int eventLoopThreads = 0;
+    private boolean nativeTransport = true;
+    private Boolean pooledAllocator;
+    private boolean tcpNoDelay = true;
+    private Integer soBacklog;
+}
@@ -0,0 +1,16 @@
+package com.around.reactive.config;
+
+import com.around.reactive.event.PriceTickFeed;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(PriceTickFeedProperties.class)
+public class PriceTickFeedConfiguration {
+
+    @Bean
+    public PriceTickFeed priceTickFeed(PriceTickFeedProperties properties) {
+        return new PriceTickFeed(properties.getBufferSize(), properties.getMaxClockSkew());
+    }
+}
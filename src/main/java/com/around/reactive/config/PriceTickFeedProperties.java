@@ -0,0 +1,20 @@
+package com.around.reactive.config;
+
+import com.around.reactive.event.PriceTickFeed;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties("price.ticks")
+public class PriceTickFeedProperties {
+    /**
+     * bufferSize : 구독자별 tick buffer 크기, 넘치면 오래된 tick부터 버린다
+     * maxClockSkew : 받아들이는 tick timestamp와 서버 시각의 최대 차이, rollup의 watermark도 그만큼 늦춘다
+     */
+    private int bufferSize = 4_096;
+    private Duration maxClockSkew = PriceTickFeed.DEFAULT_MAX_CLOCK_SKEW;
+}
@@ -0,0 +1,52 @@
+package com.around.reactive.controller;
+
+import com.around.reactive.dto.Book;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * 도서 조회 응답의 ETag / Last-Modified 헤더와 조건부 요청(If-None-Match / If-Modified-Since) 처리
+ * ETag는 process epoch와 저장된 bookId, version만으로 만들기 때문에 응답 body를 직렬화하지 않고 계산할 수 있다
+ * 저장소가 메모리에 있어서 재시작하면 같은 bookId/version이 다른 내용을 가질 수 있으므로 process마다 다른 epoch를 붙인다
+ * v1 / v2와 요청한 media type에 따라 표현이 달라질 수 있으므로 weak ETag를 사용한다
+ */
+public final class BookCacheHeaders {
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static final String EPOCH = Long.toString(System.currentTimeMillis(), 36);
+
+    private BookCacheHeaders() {
+    }
+
+    /**
+     * 응답에 ETag / Last-Modified 헤더를 설정하고, 클라이언트가 가진 표현이 최신이라면 304 Not Modified로 설정한다
+     * @return 304로 응답해야 한다면 true (body를 변환/직렬화하지 않는다)
+     */
+    public static boolean notModified(ServerWebExchange exchange, Book book) {
+        return exchange.checkNotModified(etag(book), lastModified(book));
+    }
+
+    /**
+     * Accept에 따라 JSON / CBOR / Smile로 응답하는 경우, ETag가 media type과 상관없이 같으므로
+     * 공유 캐시가 다른 형식의 표현을 돌려주지 않도록 304를 포함해서 Vary: Accept를 설정한다
+     */
+    public static boolean notModifiedByAccept(ServerWebExchange exchange, Book book) {
+        exchange.getResponse().getHeaders().setVary(List.of(HttpHeaders.ACCEPT));
+        return notModified(exchange, book);
+    }
+
+    public static String etag(Book book) {
+        return etag(book.getBookId(), book.getVersion());
+    }
+
+    public static String etag(long bookId, long version) {
+        return "W/\"" + EPOCH + "-" + bookId + "-" + version + "\"";
+    }
+
+    public static Instant lastModified(Book book) {
+        return book.getModifiedAt() == null ? Instant.EPOCH : book.getModifiedAt().atZone(ZONE).toInstant();
+    }
+}
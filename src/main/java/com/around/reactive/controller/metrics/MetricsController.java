@@ -0,0 +1,34 @@
+package com.around.reactive.controller.metrics;
+
+import com.around.reactive.cache.BookCache;
+import com.around.reactive.dto.MetricsDto;
+import com.around.reactive.metrics.BookMetrics;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * Spring Boot Actuator의 /actuator/metrics와 같은 형태로 route별 요청 metrics와 BookCache 통계를 조회한다
+ */
+@RestController
+@RequestMapping("/actuator")
+public class MetricsController {
+    private final BookMetrics bookMetrics;
+    private final BookCache bookCache;
+
+    public MetricsController(BookMetrics bookMetrics, BookCache bookCache) {
+        this.bookMetrics = bookMetrics;
+        this.bookCache = bookCache;
+    }
+
+    @GetMapping("/book-metrics")
+    public Mono<MetricsDto.Response> getMetrics() {
+        return Mono.fromSupplier(bookMetrics::snapshot);
+    }
+
+    @GetMapping("/book-cache")
+    public Mono<MetricsDto.Cache> getCacheStats() {
+        return Mono.fromSupplier(bookCache::stats);
+    }
+}
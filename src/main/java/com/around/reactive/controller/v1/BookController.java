@@ -1,6 +1,7 @@
 package com.around.reactive.controller.v1;
 
 
+import com.around.reactive.controller.BookCacheHeaders;
 import com.around.reactive.dto.BookDto;
 import com.around.reactive.mapper.v1.BookMapper;
 import com.around.reactive.service.v1.BookService;
@@ -8,6 +9,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
 
@@ -43,14 +46,20 @@ public class BookController {
     public Mono patchBook(@PathVariable("book-id") long bookId,
                           @RequestBody BookDto.Patch requestBody){
         requestBody.setBookId(bookId);
-        Mono<Book> book = bookService.updateBook(bookMapper.bookPatchToBook(requestBody));
+        Mono<Book> book = bookService.updateBook(bookMapper.bookPatchToBook(requestBody))
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)));
 
         return bookMapper.bookToBookResponse(book);
     }
 
+    /**
+     * If-None-Match / If-Modified-Since 헤더의 표현이 최신이라면 mapper를 실행하지 않고 304로 응답한다
+     */
     @GetMapping("/{book-id}")
-    public Mono getBook(@PathVariable("book-id") long bookId){
-        Mono<Book> book = bookService.findBook(bookId);
+    public Mono getBook(@PathVariable("book-id") long bookId, ServerWebExchange exchange){
+        Mono<Book> book = bookService.findBook(bookId)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)))
+                .filter(found -> !BookCacheHeaders.notModified(exchange, found));
         return bookMapper.bookToBookResponse(book);
     }
 }
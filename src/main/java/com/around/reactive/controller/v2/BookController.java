@@ -1,14 +1,23 @@
 package com.around.reactive.controller.v2;
 
 
+import com.around.reactive.codec.BookMediaTypes;
+import com.around.reactive.controller.BookCacheHeaders;
 import com.around.reactive.dto.Book;
 import com.around.reactive.dto.BookDto;
 import com.around.reactive.mapper.v2.BookMapper;
 import com.around.reactive.service.v2.BookService;
+import com.around.reactive.stats.BookStatsGroupBy;
+import com.around.reactive.stats.BookStatsMetric;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Slf4j
@@ -28,25 +37,178 @@ public class BookController {
         this.bookService = bookService;
     }
 
-    @PostMapping
+    @PostMapping(produces = {MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, BookMediaTypes.APPLICATION_SMILE_VALUE})
     @ResponseStatus(HttpStatus.CREATED)
-    public Mono postBook(@RequestBody Mono<BookDto.Post> requestBody){
+    public Mono<BookDto.Response> postBook(@RequestBody Mono<BookDto.Post> requestBody){
         Mono<Book> result = bookService.createBook(requestBody);
 
-        return result.flatMap(book -> Mono.just(bookMapper.bookToResponse(book)));
+        return result.map(bookMapper::bookToResponse);
     }
 
-    @PatchMapping("/{book-id}")
-    public Mono patchBook(@PathVariable("book-id") long bookId,
+    /**
+     * NDJSON으로 전달된 도서를 batch 단위로 저장하고, 저장이 끝난 batch마다 결과를 스트리밍으로 응답한다
+     * ISBN이 잘못되었거나 중복된 도서가 있는 batch는 저장하지 않고 error가 있는 결과로 알린 뒤 다음 batch를 계속 저장한다
+     */
+    @PostMapping(value = "/bulk",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public Flux<BookDto.BulkResponse> postBooks(@RequestBody Flux<BookDto.Post> requestBody){
+        return bookService.createBooks(requestBody);
+    }
+
+    /**
+     * JSON 배열 또는 NDJSON으로 전달된 bookId를 하나의 요청에서 조회하고, 조회가 끝난 도서부터 스트리밍으로 응답한다
+     */
+    @PostMapping(value = "/batch",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<BookDto.Response> getBooks(@RequestBody Flux<Long> bookIds,
+                                           @RequestParam(value = "ordered", defaultValue = "false") boolean ordered){
+        return bookService.findBooks(bookIds, ordered).map(bookMapper::bookToResponse);
+    }
+
+    /**
+     * 전체 도서 목록을 bookId 순서로 NDJSON 스트리밍한다
+     * 다음 페이지는 마지막으로 받은 bookId를 after로 전달해서 이어서 조회한다
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BookDto.Response> getBooks(@RequestParam(value = "after", defaultValue = "0") long afterBookId,
+                                           @RequestParam(value = "limit", required = false) Long limit){
+        return bookService.findBooksAfter(afterBookId, limit(limit))
+                .map(bookMapper::bookToResponse);
+    }
+
+    /**
+     * titleKorean, titleEnglish, author, isbn에서 q를 검색해서 점수가 높은 순서대로 NDJSON 스트리밍한다
+     */
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BookDto.Response> searchBooks(@RequestParam("q") String query,
+                                              @RequestParam(value = "limit", defaultValue = "20") int limit){
+        return bookService.searchBooks(query, limit).map(bookMapper::bookToResponse);
+    }
+
+    /**
+     * 카탈로그를 포함한 전체 도서를 groupBy(author, price)로 집계해서 metric(count, sum/min/max/avg(price)) 값이 큰 순서대로 응답한다
+     * 예) GET /v2/books/stats?groupBy=author&metric=sum(price)
+     */
+    @GetMapping(value = "/stats", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<BookDto.GroupStats> getStats(@RequestParam(value = "groupBy", defaultValue = "author") String groupBy,
+                                             @RequestParam(value = "metric", defaultValue = "count") String metric,
+                                             @RequestParam(value = "limit", defaultValue = "20") int limit){
+        BookStatsMetric statsMetric = BookStatsMetric.from(metric);
+        return bookService.findStats(BookStatsGroupBy.from(groupBy), statsMetric, limit)
+                .map(group -> bookMapper.groupToGroupStats(group, statsMetric));
+    }
+
+    /**
+     * 도서 생성/수정 시점에 갱신되는 저자별 집계를 metric 값이 큰 순서대로 응답한다 (저자가 없는 도서는 제외)
+     */
+    @GetMapping(value = "/stats/authors", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<BookDto.GroupStats> getAuthorStats(@RequestParam(value = "metric", defaultValue = "count") String metric,
+                                                   @RequestParam(value = "limit", defaultValue = "20") int limit){
+        BookStatsMetric statsMetric = BookStatsMetric.from(metric);
+        return bookService.findAuthorStats(statsMetric, limit)
+                .map(group -> bookMapper.groupToGroupStats(group, statsMetric));
+    }
+
+    /**
+     * 저자 한 명의 도서 수와 가격 통계, 저자의 도서가 없으면 404
+     */
+    @GetMapping(value = "/stats/authors/{author}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<BookDto.AuthorStats> getAuthorStats(@PathVariable("author") String author){
+        return bookService.findAuthorStats(author)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)))
+                .map(bookMapper::groupToAuthorStats);
+    }
+
+    /**
+     * ISBN으로 도서를 조회한다, 응답 형식과 304 처리는 GET /v2/books/{book-id}와 같다
+     * ISBN 형식이 아니면 400, 등록되지 않은 ISBN이면 404로 응답한다
+     */
+    @GetMapping(value = "/isbn/{isbn}", produces = {MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, BookMediaTypes.APPLICATION_SMILE_VALUE})
+    public Mono<Book> getBookByIsbn(@PathVariable("isbn") String isbn, ServerWebExchange exchange){
+        return bookService.findBookByIsbn(isbn)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)))
+                .filter(book -> !BookCacheHeaders.notModifiedByAccept(exchange, book));
+    }
+
+    /**
+     * 전체 도서 목록을 Server-Sent Events로 스트리밍한다
+     * 각 event의 id는 bookId이기 때문에 연결이 끊기면 Last-Event-ID 헤더로 이어서 받을 수 있다
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<BookDto.Response>> streamBooks(
+            @RequestParam(value = "after", required = false) Long afterBookId,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(value = "limit", required = false) Long limit){
+        long after = afterBookId != null ? afterBookId : lastEventId != null ? lastEventId : 0;
+        return bookService.findBooksAfter(after, limit(limit))
+                .map(book -> ServerSentEvent.builder(bookMapper.bookToResponse(book))
+                        .id(String.valueOf(book.getBookId()))
+                        .build());
+    }
+
+    /**
+     * 도서 생성/수정 이벤트를 NDJSON으로 스트리밍한다
+     * after로 마지막으로 받은 이벤트의 position(<epoch>-<sequence>)을 전달하면 보관된 이벤트부터 이어서 받는다
+     * 보관 범위를 벗어났거나 재시작 전의 position이라면 410 Gone
+     */
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BookDto.Change> getChanges(@RequestParam(value = "after", required = false) String afterPosition){
+        return bookService.findChanges(afterPosition);
+    }
+
+    /**
+     * 도서 생성/수정 이벤트를 Server-Sent Events로 스트리밍한다
+     * 각 event의 id는 position이기 때문에 연결이 끊기면 Last-Event-ID 헤더로 이어서 받을 수 있다
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<BookDto.Change>> streamChanges(
+            @RequestParam(value = "after", required = false) String afterPosition,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId){
+        return bookService.findChanges(afterPosition != null ? afterPosition : lastEventId)
+                .map(change -> ServerSentEvent.builder(change)
+                        .id(change.getPosition())
+                        .event(change.getType().name())
+                        .build());
+    }
+
+    @PatchMapping(value = "/{book-id}", produces = {MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, BookMediaTypes.APPLICATION_SMILE_VALUE})
+    public Mono<BookDto.Response> patchBook(@PathVariable("book-id") long bookId,
                           @RequestBody Mono<BookDto.Patch> requestBody){
 
-        Mono<Book> result = bookService.updateBook(bookId, requestBody);
+        Mono<Book> result = bookService.updateBook(bookId, requestBody)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)));
+
+        return result.map(bookMapper::bookToResponse);
+    }
 
-        return result.flatMap(book -> Mono.just(bookMapper.bookToResponse(book)));
+    /**
+     * 저장된 Book을 BookDto.Response로 변환하지 않고 BookJsonEncoder가 pooled DataBuffer에 바로 JSON으로 기록한다
+     * If-None-Match / If-Modified-Since 헤더의 표현이 최신이라면 직렬화하지 않고 304로 응답한다
+     * 서비스 간 통신은 Accept 헤더로 CBOR / Smile을 요청할 수 있다 (BookResponseMixIn으로 응답 필드는 JSON과 같다)
+     */
+    @GetMapping(value = "/{book-id}", produces = {MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, BookMediaTypes.APPLICATION_SMILE_VALUE})
+    public Mono<Book> getBook(@PathVariable("book-id") long bookId, ServerWebExchange exchange){
+        return bookService.findBook(bookId)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)))
+                .filter(book -> !BookCacheHeaders.notModifiedByAccept(exchange, book));
     }
 
-    @GetMapping("/{book-id}")
-    public Mono getBook(@PathVariable("book-id") long bookId){
-        return bookService.findBook(bookId).flatMap(book -> Mono.just(bookMapper.bookToResponse(book)));
+    /**
+     * @return limit이 없으면 Long.MAX_VALUE, 음수라면 400
+     */
+    private static long limit(Long limit){
+        if (limit == null) {
+            return Long.MAX_VALUE;
+        }
+        if (limit < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must not be negative");
+        }
+        return limit;
     }
 }
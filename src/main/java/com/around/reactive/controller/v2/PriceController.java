@@ -0,0 +1,72 @@
+package com.around.reactive.controller.v2;
+
+import com.around.reactive.dto.PriceDto;
+import com.around.reactive.service.v2.PriceService;
+import com.around.reactive.stats.PriceRollup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+@RestController("priceControllerV2")
+@RequestMapping("/v2/prices")
+public class PriceController {
+
+    private final PriceService priceService;
+
+    public PriceController(PriceService priceService){
+        this.priceService = priceService;
+    }
+
+    /**
+     * NDJSON으로 전달된 tick을 symbol의 구독자에게 발행한다 (timestamp가 0이면 수신 시각)
+     * price가 유한하지 않거나 volume이 음수이거나 timestamp가 현재 시각과 price.ticks.max-clock-skew 넘게 차이나는 tick이 있으면 400
+     * (그 전까지의 tick은 이미 발행되었다)
+     */
+    @PostMapping(value = "/{symbol}/ticks", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public Mono<Void> postTicks(@PathVariable("symbol") String symbol,
+                                @RequestBody Flux<PriceDto.Tick> requestBody){
+        return priceService.publishTicks(symbol, requestBody.doOnNext(this::validate));
+    }
+
+    /**
+     * 구독 이후에 발행되는 tick의 windowMillis 구간 집계를 Server-Sent Events로 스트리밍한다
+     * SLIDING은 slideMillis마다, TUMBLING은 windowMillis마다 닫힌 window를 보낸다 (type을 생략하면 둘 다)
+     * 각 event의 id는 window의 end, event는 window type이다
+     * 예) GET /v2/prices/AAPL/rollups?windowMillis=60000&slideMillis=10000&type=sliding
+     */
+    @GetMapping(value = "/{symbol}/rollups", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<PriceDto.Window>> streamRollups(
+            @PathVariable("symbol") String symbol,
+            @RequestParam(value = "windowMillis", defaultValue = "60000") long windowMillis,
+            @RequestParam(value = "slideMillis", defaultValue = "10000") long slideMillis,
+            @RequestParam(value = "type", required = false) List<String> types){
+        return priceService.findRollups(symbol, windowMillis, slideMillis, PriceRollup.types(types))
+                .map(window -> ServerSentEvent.builder(window)
+                        .id(String.valueOf(window.getEnd()))
+                        .event(window.getType().name())
+                        .build());
+    }
+
+    private void validate(PriceDto.Tick tick) {
+        if (!Double.isFinite(tick.getPrice())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "price must be finite: " + tick.getPrice());
+        }
+        if (tick.getVolume() < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "volume must not be negative: " + tick.getVolume());
+        }
+        Duration maxClockSkew = priceService.maxClockSkew();
+        if (tick.getTimestamp() != 0
+                && Math.abs(tick.getTimestamp() - System.currentTimeMillis()) > maxClockSkew.toMillis()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "timestamp must be within " + maxClockSkew + " of the server clock: " + tick.getTimestamp());
+        }
+    }
+}
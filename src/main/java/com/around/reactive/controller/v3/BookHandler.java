@@ -0,0 +1,81 @@
+package com.around.reactive.controller.v3;
+
+import com.around.reactive.controller.BookCacheHeaders;
+import com.around.reactive.dto.Book;
+import com.around.reactive.dto.BookDto;
+import com.around.reactive.mapper.v2.BookMapper;
+import com.around.reactive.service.v2.BookService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * /v3/books 함수형 endpoint의 HandlerFunction 모음
+ * 애너테이션 기반 컨트롤러처럼 reflection으로 handler method를 호출하고 argument resolver로 파라미터를 만드는 대신
+ * ServerRequest에서 필요한 값만 직접 꺼내서 v2 BookService를 호출한다
+ */
+@Component
+public class BookHandler {
+    private final BookService bookService;
+    private final BookMapper bookMapper;
+
+    public BookHandler(BookService bookService, BookMapper bookMapper) {
+        this.bookService = bookService;
+        this.bookMapper = bookMapper;
+    }
+
+    public Mono<ServerResponse> getBook(ServerRequest request) {
+        return bookService.findBook(bookId(request))
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)))
+                .flatMap(book -> {
+                    String etag = BookCacheHeaders.etag(book);
+                    Instant lastModified = BookCacheHeaders.lastModified(book);
+                    return request.checkNotModified(lastModified, etag)
+                            .switchIfEmpty(Mono.defer(() -> ServerResponse.ok()
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .eTag(etag)
+                                    .lastModified(lastModified)
+                                    .bodyValue(book)));
+                });
+    }
+
+    public Mono<ServerResponse> postBook(ServerRequest request) {
+        return bookService.createBook(request.bodyToMono(BookDto.Post.class))
+                .flatMap(book -> ServerResponse.status(HttpStatus.CREATED)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(bookMapper.bookToResponse(book)));
+    }
+
+    public Mono<ServerResponse> patchBook(ServerRequest request) {
+        return bookService.updateBook(bookId(request), request.bodyToMono(BookDto.Patch.class))
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)))
+                .flatMap(book -> ServerResponse.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(bookMapper.bookToResponse(book)));
+    }
+
+    /**
+     * JSON 배열 또는 NDJSON으로 전달된 bookId를 조회해서 NDJSON으로 스트리밍한다
+     */
+    public Mono<ServerResponse> getBooks(ServerRequest request) {
+        boolean ordered = request.queryParam("ordered").map(Boolean::parseBoolean).orElse(false);
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(bookService.findBooks(request.bodyToFlux(Long.class), ordered).map(bookMapper::bookToResponse),
+                        BookDto.Response.class);
+    }
+
+    private static long bookId(ServerRequest request) {
+        try {
+            return Long.parseLong(request.pathVariable("book-id"));
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid book-id");
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.around.reactive.controller.v3;
+
+import com.around.reactive.filter.BookRouterFunctionFilter;
+import com.around.reactive.log.AccessLog;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+@Configuration
+public class BookRouter {
+
+    /**
+     * /v3/books 함수형 endpoint, 요청 로그는 WebFilter 대신 BookRouterFunctionFilter가 남긴다
+     */
+    @Bean
+    public RouterFunction<ServerResponse> bookRouterV3(BookHandler bookHandler, AccessLog accessLog) {
+        return route()
+                .path("/v3/books", builder -> builder
+                        .POST("/batch", bookHandler::getBooks)
+                        .GET("/{book-id}", bookHandler::getBook)
+                        .PATCH("/{book-id}", bookHandler::patchBook)
+                        .POST(bookHandler::postBook))
+                .filter(new BookRouterFunctionFilter(accessLog))
+                .build();
+    }
+}
@@ -18,4 +18,5 @@ public class Book {
     private String publishDate;
     private LocalDateTime createdAt;
     private LocalDateTime modifiedAt;
+    private long version;
 }
\ No newline at end of file
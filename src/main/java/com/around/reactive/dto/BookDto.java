@@ -4,6 +4,8 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.LocalDateTime;
+
 public class BookDto {
     @Getter
     public static class Post {
@@ -38,4 +40,66 @@ public class BookDto {
         private String isbn;
         private String publishDate;
     }
+
+    /**
+     * POST /v2/books/bulk의 batch별 결과, 요청의 firstRecord번째(0부터)부터 count개의 도서
+     * error가 있으면 그 batch는 하나도 저장되지 않았다 (firstBookId, lastBookId는 0)
+     */
+    @Builder
+    @Getter
+    public static class BulkResponse {
+        private long batch;
+        private long firstRecord;
+        private int count;
+        private long firstBookId;
+        private long lastBookId;
+        private String error;
+    }
+
+    /**
+     * GET /v2/books/stats의 group별 집계 결과, value는 metric의 값 (가격이 있는 도서가 없다면 min/max/avg는 null)
+     */
+    @Builder
+    @Getter
+    public static class GroupStats {
+        private String group;
+        private String metric;
+        private Number value;
+        private long count;
+    }
+
+    /**
+     * 저자 한 명의 도서 수와 가격 통계, 가격이 있는 도서가 없다면 min/max/averagePrice는 null
+     */
+    @Builder
+    @Getter
+    public static class AuthorStats {
+        private String author;
+        private long count;
+        private long pricedCount;
+        private long priceSum;
+        private Integer minPrice;
+        private Integer maxPrice;
+        private Double averagePrice;
+    }
+
+    /**
+     * 도서 생성/수정 이벤트, sequence는 feed가 만들어질 때마다 1부터 1씩 증가한다
+     * position(<epoch>-<sequence>)을 이어서 받을 위치로 사용한다
+     */
+    @Builder
+    @Getter
+    public static class Change {
+        private String position;
+        private long sequence;
+        private ChangeType type;
+        private long bookId;
+        private long version;
+        private LocalDateTime modifiedAt;
+    }
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED
+    }
 }
@@ -0,0 +1,48 @@
+package com.around.reactive.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+public class MetricsDto {
+    @Getter
+    @AllArgsConstructor
+    public static class Response {
+        private long inFlight;
+        private List<Route> routes;
+    }
+
+    /**
+     * route template과 status class(2xx, 4xx ...) 단위의 집계, latency는 마이크로초 단위
+     */
+    @Builder
+    @Getter
+    public static class Route {
+        private String route;
+        private String status;
+        private long count;
+        private long bytes;
+        private long unknownLengthCount;
+        private long p50Micros;
+        private long p99Micros;
+        private long p999Micros;
+    }
+
+    @Builder
+    @Getter
+    public static class Cache {
+        private long size;
+        private long hits;
+        private long misses;
+        /**
+         * 진행 중인 적재에 합류해서 저장소를 조회하지 않은 요청 수
+         */
+        private long coalesced;
+        private long loads;
+        private long loadFailures;
+        private long refreshes;
+        private long evictions;
+    }
+}
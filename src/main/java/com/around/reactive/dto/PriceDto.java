@@ -0,0 +1,43 @@
+package com.around.reactive.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+public class PriceDto {
+    /**
+     * 가격 tick, timestamp(epoch millis)가 0이면 수신 시각을 사용한다
+     */
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Tick {
+        private long timestamp;
+        private double price;
+        private long volume;
+    }
+
+    /**
+     * [start, end) 구간의 집계, vwap은 sum(price * volume) / sum(volume) (volume이 모두 0이면 평균 가격)
+     */
+    @Builder
+    @Getter
+    public static class Window {
+        private String symbol;
+        private WindowType type;
+        private long start;
+        private long end;
+        private long count;
+        private double sum;
+        private double min;
+        private double max;
+        private double vwap;
+        private long volume;
+    }
+
+    public enum WindowType {
+        TUMBLING,
+        SLIDING
+    }
+}
@@ -0,0 +1,23 @@
+package com.around.reactive.event;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.GONE)
+public class BookChangeExpiredException extends RuntimeException {
+    public BookChangeExpiredException(long afterSequence, long oldestSequence) {
+        super("changes after " + afterSequence + " are no longer retained, oldest sequence is " + oldestSequence);
+    }
+
+    private BookChangeExpiredException(String message) {
+        super(message);
+    }
+
+    /**
+     * 재시작 전의 feed(epoch가 다름)에서 받은 position이거나 현재 sequence보다 앞선 position인 경우
+     */
+    public static BookChangeExpiredException restarted(String position, String currentPosition) {
+        return new BookChangeExpiredException("position " + position + " does not belong to the current feed at "
+                + currentPosition + ", the feed has restarted");
+    }
+}
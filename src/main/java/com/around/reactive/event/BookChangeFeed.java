@@ -0,0 +1,162 @@
+package com.around.reactive.event;
+
+import com.around.reactive.dto.Book;
+import com.around.reactive.dto.BookDto;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 도서 생성/수정 이벤트를 Sinks.many().replay().limit()으로 발행하는 change feed
+ * - 생성/수정의 후속 처리가 모이는 곳이다, 등록된 BookChangeListener(검색 색인, 저자별 집계)를 먼저 호출하고 이벤트를 발행한다
+ * - 최근 retention개의 이벤트를 보관하기 때문에 구독자는 마지막으로 받은 sequence 다음부터 이어서 받을 수 있다
+ * - Sinks.Many는 동시에 emit할 수 없으므로 sequence 할당과 emit을 함께 동기화해서 sequence 순서대로 발행한다
+ * - 구독자마다 onBackpressureBuffer()/onBackpressureLatest()를 적용하기 때문에 느린 구독자는 이벤트를 잃을 뿐 발행 쪽은 기다리지 않는다
+ * - 이어서 받는 구독자는 보관된 이벤트가 한 번에 replay되므로 buffer를 retention 이상으로 잡아서 replay 중에 버려지지 않게 한다
+ * - sequence는 메모리에만 있어서 재시작하면 0부터 다시 시작한다, 그래서 이어서 받을 위치(position)는 feed마다 임의로 정한 epoch를 붙인 <epoch>-<sequence>이고
+ *   epoch가 다르거나 현재 sequence보다 앞선 position은 재시작 전의 것이므로 410으로 다시 동기화하게 한다
+ */
+public class BookChangeFeed {
+    private final Sinks.Many<BookDto.Change> sink;
+    private final long epoch = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+    private final int retention;
+    private final Backpressure backpressure;
+    private final int bufferSize;
+    private final List<BookChangeListener> listeners;
+    private final LongAdder dropped = new LongAdder();
+    private long sequence;
+
+    public BookChangeFeed(int retention, Backpressure backpressure, int bufferSize) {
+        this(retention, backpressure, bufferSize, List.of());
+    }
+
+    public BookChangeFeed(int retention, Backpressure backpressure, int bufferSize, List<BookChangeListener> listeners) {
+        this.sink = Sinks.many().replay().limit(retention);
+        this.retention = retention;
+        this.backpressure = backpressure;
+        this.bufferSize = bufferSize;
+        this.listeners = List.copyOf(listeners);
+    }
+
+    public void publishCreated(Book book) {
+        for (BookChangeListener listener : listeners) {
+            listener.created(book);
+        }
+        publish(BookDto.ChangeType.CREATED, book);
+    }
+
+    /**
+     * @param previous 수정 전 도서 (listener에만 전달된다)
+     */
+    public void publishUpdated(Book previous, Book updated) {
+        for (BookChangeListener listener : listeners) {
+            listener.updated(previous, updated);
+        }
+        publish(BookDto.ChangeType.UPDATED, updated);
+    }
+
+    private synchronized void publish(BookDto.ChangeType type, Book book) {
+        sequence++;
+        BookDto.Change change = BookDto.Change.builder()
+                .position(position(sequence))
+                .sequence(sequence)
+                .type(type)
+                .bookId(book.getBookId())
+                .version(book.getVersion())
+                .modifiedAt(book.getModifiedAt())
+                .build();
+        sink.tryEmitNext(change);
+    }
+
+    /**
+     * afterPosition 다음 이벤트부터 보관된 것을 emit하고 이후 발행되는 이벤트를 이어서 emit한다
+     * @param afterPosition 마지막으로 받은 이벤트의 position(<epoch>-<sequence>), null이면 구독 이후에 발행되는 이벤트만 받는다
+     * @throws InvalidChangePositionException afterPosition의 형식이 잘못된 경우
+     * @throws BookChangeExpiredException afterPosition 다음 이벤트가 이미 보관 범위를 벗어났거나 afterPosition이 재시작 전의 것인 경우
+     */
+    public Flux<BookDto.Change> changes(String afterPosition) {
+        return Flux.defer(() -> {
+            long current;
+            synchronized (this) {
+                current = sequence;
+            }
+            if (afterPosition == null) {
+                return applyBackpressure(sink.asFlux().filter(change -> change.getSequence() > current), bufferSize);
+            }
+            long after = sequenceOf(afterPosition);
+            if (after > current) {
+                return Flux.error(BookChangeExpiredException.restarted(afterPosition, position(current)));
+            }
+            long oldest = Math.max(1, current - retention + 1);
+            if (after + 1 < oldest) {
+                return Flux.error(new BookChangeExpiredException(after, oldest));
+            }
+            return applyBackpressure(sink.asFlux().filter(change -> change.getSequence() > after),
+                    Math.max(bufferSize, retention));
+        });
+    }
+
+    /**
+     * 이 feed에서 sequence의 position
+     */
+    public String position(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    public synchronized long sequence() {
+        return sequence;
+    }
+
+    /**
+     * 느린 구독자 때문에 버려진 이벤트 수
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * 다른 epoch의 position은 현재 sequence보다 앞선 것으로 보고 Long.MAX_VALUE를 돌려준다
+     */
+    private long sequenceOf(String position) {
+        int separator = position.indexOf('-');
+        try {
+            long positionEpoch = Long.parseLong(position.substring(0, Math.max(separator, 0)));
+            long sequence = Long.parseLong(position.substring(separator + 1));
+            if (sequence < 0) {
+                throw new InvalidChangePositionException(position);
+            }
+            return positionEpoch == epoch ? sequence : Long.MAX_VALUE;
+        } catch (NumberFormatException e) {
+            throw new InvalidChangePositionException(position);
+        }
+    }
+
+    private Flux<BookDto.Change> applyBackpressure(Flux<BookDto.Change> changes, int bufferSize) {
+        switch (backpressure) {
+            case DROP_LATEST:
+                return changes.onBackpressureBuffer(bufferSize, change -> dropped.increment(),
+                        BufferOverflowStrategy.DROP_LATEST);
+            case LATEST:
+                return changes.onBackpressureLatest();
+            case DROP_OLDEST:
+            default:
+                return changes.onBackpressureBuffer(bufferSize, change -> dropped.increment(),
+                        BufferOverflowStrategy.DROP_OLDEST);
+        }
+    }
+
+    /**
+     * DROP_OLDEST : 구독자별 buffer가 가득 차면 가장 오래된 이벤트를 버린다
+     * DROP_LATEST : 구독자별 buffer가 가득 차면 새 이벤트를 버린다
+     * LATEST : buffer 없이 구독자가 요청했을 때 가장 최근 이벤트 하나만 전달한다 (이어서 받을 때도 보관된 이벤트를 건너뛸 수 있다)
+     */
+    public enum Backpressure {
+        DROP_OLDEST,
+        DROP_LATEST,
+        LATEST
+    }
+}
@@ -0,0 +1,17 @@
+package com.around.reactive.event;
+
+import com.around.reactive.dto.Book;
+
+/**
+ * BookChangeFeed가 이벤트를 발행하기 전에 저장한 스레드에서 바로 호출하는 listener (검색 색인, 저자별 집계)
+ * change feed 구독자가 이벤트를 받은 시점에는 listener의 갱신이 이미 끝나 있다
+ */
+public interface BookChangeListener {
+
+    void created(Book book);
+
+    /**
+     * @param previous 수정 전 도서 (version이 일치해서 updated로 교체된 도서)
+     */
+    void updated(Book previous, Book updated);
+}
@@ -0,0 +1,11 @@
+package com.around.reactive.event;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidChangePositionException extends RuntimeException {
+    public InvalidChangePositionException(String position) {
+        super("change position must be <epoch>-<sequence>: " + position);
+    }
+}
@@ -0,0 +1,109 @@
+package com.around.reactive.event;
+
+import com.around.reactive.dto.PriceDto;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 종목(symbol)별 가격 tick을 Sinks.many().multicast().directBestEffort()로 발행하는 feed
+ * - tick은 보관하지 않는다, 구독 이후에 발행된 tick만 받는다
+ * - Sinks.Many는 동시에 emit할 수 없으므로 종목 sink 단위로 동기화한다
+ * - 구독자마다 bufferSize개를 buffer하고 넘치면 오래된 tick부터 버리기 때문에 느린 구독자가 발행 쪽을 막지 않는다
+ * - 종목 sink는 첫 구독자가 만들고 마지막 구독자가 떠나면 지운다 (구독자가 없는 종목의 tick은 sink를 만들지 않고 버린다)
+ */
+public class PriceTickFeed {
+    public static final Duration DEFAULT_MAX_CLOCK_SKEW = Duration.ofMinutes(5);
+
+    private final ConcurrentMap<String, Channel> channels = new ConcurrentHashMap<>();
+    private final int bufferSize;
+    private final Duration maxClockSkew;
+    private final LongAdder dropped = new LongAdder();
+
+    public PriceTickFeed(int bufferSize) {
+        this(bufferSize, DEFAULT_MAX_CLOCK_SKEW);
+    }
+
+    public PriceTickFeed(int bufferSize, Duration maxClockSkew) {
+        this.bufferSize = bufferSize;
+        this.maxClockSkew = maxClockSkew;
+    }
+
+    /**
+     * timestamp가 0인 tick은 발행 시각으로 채운다
+     */
+    public void publish(String symbol, PriceDto.Tick tick) {
+        PriceDto.Tick stamped = tick.getTimestamp() != 0 ? tick
+                : new PriceDto.Tick(System.currentTimeMillis(), tick.getPrice(), tick.getVolume());
+        Channel channel = channels.get(symbol);
+        if (channel == null) {
+            return;
+        }
+        synchronized (channel.sink) {
+            channel.sink.tryEmitNext(stamped);
+        }
+    }
+
+    public Flux<PriceDto.Tick> ticks(String symbol) {
+        return Flux.defer(() -> {
+            Channel channel = acquire(symbol);
+            return channel.sink.asFlux()
+                    .onBackpressureBuffer(bufferSize, tick -> dropped.increment(), BufferOverflowStrategy.DROP_OLDEST)
+                    .doFinally(signal -> release(symbol, channel));
+        });
+    }
+
+    /**
+     * 받아들이는 tick timestamp와 서버 시각의 최대 차이
+     */
+    public Duration maxClockSkew() {
+        return maxClockSkew;
+    }
+
+    /**
+     * 느린 구독자 때문에 버려진 tick 수
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * sink가 남아 있는 종목 수
+     */
+    public int symbols() {
+        return channels.size();
+    }
+
+    /**
+     * sink를 구독하기 전에 구독자 수를 올려 두기 때문에 구독 중인 sink를 다른 구독자의 release가 지우지 않는다
+     */
+    private Channel acquire(String symbol) {
+        return channels.compute(symbol, (notUse, channel) -> {
+            Channel acquired = channel != null ? channel : new Channel();
+            acquired.subscribers++;
+            return acquired;
+        });
+    }
+
+    private void release(String symbol, Channel channel) {
+        channels.computeIfPresent(symbol, (notUse, current) -> {
+            if (current != channel) {
+                return current;
+            }
+            return --current.subscribers == 0 ? null : current;
+        });
+    }
+
+    /**
+     * subscribers는 channels.compute 안에서만 바꾼다
+     */
+    private static final class Channel {
+        private final Sinks.Many<PriceDto.Tick> sink = Sinks.many().multicast().directBestEffort();
+        private int subscribers;
+    }
+}
@@ -1,6 +1,10 @@
 package com.around.reactive.filter;
 
+import com.around.reactive.log.AccessLog;
+import com.around.reactive.metrics.BookMetrics;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.RouterFunctions;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
@@ -8,21 +12,44 @@ import reactor.core.publisher.Mono;
 
 @Component
 public class BookLogFilter implements WebFilter {
+    private final AccessLog accessLog;
+    private final BookMetrics bookMetrics;
 
+    public BookLogFilter(AccessLog accessLog, BookMetrics bookMetrics) {
+        this.accessLog = accessLog;
+        this.bookMetrics = bookMetrics;
+    }
 
     /**
-     * doAtferTerminate() OPErator를 이용해 종료 이벤트 발생 시 요청 URI path에 "books"가 포함되어 있다면 Book 리소스에 대한 요청이라고 간주하고 로그 출력
+     * 요청이 끝나면(취소 포함) route template별 metrics를 기록하고, 애너테이션 기반 Book 리소스 route라면 access log를 남긴다
+     * route는 HandlerMapping이 매칭한 결과를 그대로 사용하기 때문에 요청 URI path를 다시 검사하지 않는다
+     * 핸들러가 던진 예외의 status는 이 filter 밖에서 설정되기 때문에 status는 종료 signal로 정한다 (ExchangeStatus)
      * @param exchange the current server exchange
      * @param chain provides a way to delegate to the next filter
      * @return
      */
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
-        String path = exchange.getRequest().getURI().getPath();
-        return chain.filter(exchange).doAfterTerminate( () -> {
-            if(path.contains("books")){
-                System.out.println("path: "+ path + ", status: " + exchange.getResponse().getStatusCode());
-            }
-        });
+        long startedAt = System.nanoTime();
+        bookMetrics.requestStarted();
+        ServerHttpResponse response = exchange.getResponse();
+        return chain.filter(exchange)
+                .doOnSuccess(notUse -> finished(exchange, startedAt, ExchangeStatus.completed(response)))
+                .doOnError(error -> finished(exchange, startedAt, ExchangeStatus.failed(response, error)))
+                .doOnCancel(() -> finished(exchange, startedAt, ExchangeStatus.cancelled(response)));
+    }
+
+    private void finished(ServerWebExchange exchange, long startedAt, int status) {
+        long latency = System.nanoTime() - startedAt;
+        if(bookMetrics.requestFinished(exchange, status, latency) && !isRouterFunction(exchange)){
+            accessLog.record(exchange.getRequest().getPath().value(), exchange.getResponse(), status, latency);
+        }
+    }
+
+    /**
+     * 함수형 endpoint 요청의 로그는 BookRouterFunctionFilter가 남긴다
+     */
+    private static boolean isRouterFunction(ServerWebExchange exchange) {
+        return exchange.getAttribute(RouterFunctions.REQUEST_ATTRIBUTE) != null;
     }
 }
@@ -1,26 +1,42 @@
 package com.around.reactive.filter;
 
+import com.around.reactive.log.AccessLog;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.web.reactive.function.server.HandlerFilterFunction;
 import org.springframework.web.reactive.function.server.HandlerFunction;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
 import reactor.core.publisher.Mono;
 
-public class BookRouterFunctionFilter implements HandlerFilterFunction {
+public class BookRouterFunctionFilter implements HandlerFilterFunction<ServerResponse, ServerResponse> {
+    private final AccessLog accessLog;
+
+    public BookRouterFunctionFilter(AccessLog accessLog) {
+        this.accessLog = accessLog;
+    }
+
     /**
      * WebFilter 구현체는 Spring Bean으로 등록되는 반면 HandlerFilterFunction 구현체는 애너테이션 기반의 핸드러가 아닌 함수형 기반의 요ㅕ청 핸들러에서 함수 형태로 사용되기 때문에 Spring Bean으로 등록되지 않는다는 차이점이 있다
+     * 따라서 AccessLog는 RouterFunction을 구성하는 쪽에서 생성자로 전달한다
+     * next.handle()이 끝나는 시점에는 ServerResponse를 만들었을 뿐 아직 응답을 쓰지 않았기 때문에
+     * 응답을 보내기 직전(beforeCommit)에 status와 Content-Length를 기록하고, 핸들러가 던진 예외(동기적으로 던진 예외 포함)는 예외의 status로 기록한다
      * @param request the request
      * @param next the next handler or filter function in the chain
      * @return
      */
     @Override
-    public Mono<ServerResponse> filter(ServerRequest request, HandlerFunction next) {
+    public Mono<ServerResponse> filter(ServerRequest request, HandlerFunction<ServerResponse> next) {
         String path = request.requestPath().value();
+        long startedAt = System.nanoTime();
+        ServerHttpResponse response = request.exchange().getResponse();
 
-        return next.handle(request).doAfterTerminate(() ->{
-            System.out.println("path: "+ path + ", status: "+ request.exchange().getResponse().getStatusCode());
-        });
+        return Mono.defer(() -> next.handle(request))
+                .doOnNext(serverResponse -> response.beforeCommit(() -> {
+                    accessLog.record(path, response, serverResponse.rawStatusCode(), System.nanoTime() - startedAt);
+                    return Mono.empty();
+                }))
+                .doOnError(error -> accessLog.record(path, response, ExchangeStatus.status(error),
+                        System.nanoTime() - startedAt));
     }
 
 }
-
@@ -0,0 +1,57 @@
+package com.around.reactive.filter;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * WebFilter / HandlerFilterFunction이 기록할 응답 status를 요청 처리의 종료 signal로 정한다
+ * 핸들러가 던진 예외는 filter chain 밖의 WebExceptionHandler가 status를 설정하기 때문에
+ * 종료 시점의 response status는 비어 있다, 예외의 status는 WebFluxResponseStatusExceptionHandler와 같은 규칙으로 정한다
+ */
+public final class ExchangeStatus {
+    /**
+     * 응답을 보내기 전에 client가 연결을 끊은 요청 (nginx의 499 관례)
+     */
+    public static final int CLIENT_CLOSED_REQUEST = 499;
+
+    private ExchangeStatus() {
+    }
+
+    /**
+     * status를 설정하지 않고 정상 종료한 응답은 서버가 200으로 보낸다
+     */
+    public static int completed(ServerHttpResponse response) {
+        Integer status = response.getRawStatusCode();
+        return status != null ? status : HttpStatus.OK.value();
+    }
+
+    /**
+     * 이미 응답을 보내기 시작했다면(스트리밍 도중 오류) 보낸 status를 사용한다
+     */
+    public static int failed(ServerHttpResponse response, Throwable error) {
+        Integer status = response.getRawStatusCode();
+        if (response.isCommitted() && status != null) {
+            return status;
+        }
+        return status(error);
+    }
+
+    public static int cancelled(ServerHttpResponse response) {
+        Integer status = response.getRawStatusCode();
+        return response.isCommitted() && status != null ? status : CLIENT_CLOSED_REQUEST;
+    }
+
+    /**
+     * ResponseStatusException, @ResponseStatus 예외는 해당 status, 나머지는 500
+     */
+    public static int status(Throwable error) {
+        if (error instanceof ResponseStatusException) {
+            return ((ResponseStatusException) error).getRawStatusCode();
+        }
+        ResponseStatus responseStatus = AnnotatedElementUtils.findMergedAnnotation(error.getClass(), ResponseStatus.class);
+        return responseStatus != null ? responseStatus.code().value() : HttpStatus.INTERNAL_SERVER_ERROR.value();
+    }
+}
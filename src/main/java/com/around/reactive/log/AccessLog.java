@@ -0,0 +1,116 @@
+package com.around.reactive.log;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 요청 처리 스레드(event loop)에서는 AccessLogBuffer에 레코드만 넣고, 전용 drainer 스레드가 주기적으로 모아서 한 번에 기록하는 access log
+ * - 정상 응답은 sampleRate 중 1건만 기록하고, 5xx 응답은 항상 기록한다
+ * - 버퍼가 가득 차면 기다리지 않고 버리며 dropped로 센다
+ */
+@Slf4j
+public class AccessLog {
+    private final AccessLogBuffer buffer;
+    private final int sampleRate;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder sampledOut = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final StringBuilder batch = new StringBuilder();
+    private long reportedDropped;
+    private Scheduler scheduler;
+    private Disposable drainer;
+
+    public AccessLog(int capacity, int sampleRate, int batchSize, Duration flushInterval) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        this.buffer = new AccessLogBuffer(capacity);
+        this.sampleRate = Math.max(sampleRate, 1);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+    }
+
+    /**
+     * 응답 bytes는 Content-Length 헤더 값을 사용한다 (스트리밍 응답처럼 헤더가 없다면 -1)
+     * @param status 요청 처리의 종료 signal로 정한 status (ExchangeStatus), 예외 응답은 아직 response에 설정되지 않았다
+     */
+    public void record(String path, ServerHttpResponse response, int status, long latencyNanos) {
+        record(path, status, latencyNanos, response.getHeaders().getContentLength());
+    }
+
+    public void record(String path, int status, long latencyNanos, long bodyBytes) {
+        if (status < 500 && sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            sampledOut.increment();
+            return;
+        }
+        if (buffer.offer(path, status, latencyNanos, bodyBytes)) {
+            recorded.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    public void start() {
+        scheduler = Schedulers.newSingle("access-log", true);
+        long intervalMillis = flushInterval.toMillis();
+        drainer = scheduler.schedulePeriodically(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        if (drainer != null) {
+            drainer.dispose();
+            scheduler.dispose();
+            flush();
+        }
+    }
+
+    public long recorded() {
+        return recorded.sum();
+    }
+
+    public long sampledOut() {
+        return sampledOut.sum();
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * drainer 스레드에서만 실행된다
+     */
+    synchronized void flush() {
+        int drained;
+        do {
+            batch.setLength(0);
+            drained = buffer.drain(this::append, batchSize);
+            if (drained > 0) {
+                log.info("{} access log(s){}", drained, batch);
+            }
+        } while (drained == batchSize);
+
+        long totalDropped = dropped.sum();
+        if (totalDropped != reportedDropped) {
+            log.warn("# access log dropped: {} (total {})", totalDropped - reportedDropped, totalDropped);
+            reportedDropped = totalDropped;
+        }
+    }
+
+    private void append(String path, int status, long latencyNanos, long bodyBytes) {
+        batch.append(System.lineSeparator())
+                .append("path: ").append(path)
+                .append(", status: ").append(status)
+                .append(", latency: ").append(latencyNanos / 1_000).append("us")
+                .append(", bytes: ").append(bodyBytes);
+    }
+}
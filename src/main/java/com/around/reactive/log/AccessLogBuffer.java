@@ -0,0 +1,79 @@
+package com.around.reactive.log;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 여러 event loop 스레드가 동시에 기록하고 하나의 drainer 스레드가 읽는 고정 크기 lock-free ring buffer
+ * 각 슬롯의 sequence 값으로 기록/읽기 가능 여부를 판단하며(Vyukov bounded queue), 레코드는 primitive 배열에 나누어 저장한다
+ */
+final class AccessLogBuffer {
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final String[] paths;
+    private final int[] statuses;
+    private final long[] latencies;
+    private final long[] bytes;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;
+
+    AccessLogBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        this.paths = new String[size];
+        this.statuses = new int[size];
+        this.latencies = new long[size];
+        this.bytes = new long[size];
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @return 버퍼가 가득 차서 기록하지 못했다면 false
+     */
+    boolean offer(String path, int status, long latencyNanos, long bodyBytes) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    paths[index] = path;
+                    statuses[index] = status;
+                    latencies[index] = latencyNanos;
+                    bytes[index] = bodyBytes;
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * drainer 스레드에서만 호출한다
+     * @return 읽은 레코드 수
+     */
+    int drain(AccessLogWriter writer, int limit) {
+        int drained = 0;
+        while (drained < limit) {
+            int index = (int) head & mask;
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+            writer.write(paths[index], statuses[index], latencies[index], bytes[index]);
+            paths[index] = null;
+            sequences.lazySet(index, head + mask + 1);
+            head++;
+            drained++;
+        }
+        return drained;
+    }
+
+    interface AccessLogWriter {
+        void write(String path, int status, long latencyNanos, long bodyBytes);
+    }
+}
@@ -11,6 +11,6 @@ public interface BookMapper {
     Book bookPatchToBook(BookDto.Patch requestBody);
     BookDto.Response bookToResponse(Book book);
     default Mono<BookDto.Response> bookToBookResponse(Mono<Book> mono){
-        return mono.flatMap(book -> Mono.just(bookToResponse(book)));
+        return mono.map(this::bookToResponse);
     }
 }
@@ -2,9 +2,12 @@ package com.around.reactive.mapper.v2;
 
 import com.around.reactive.dto.Book;
 import com.around.reactive.dto.BookDto;
+import com.around.reactive.stats.BookStats;
+import com.around.reactive.stats.BookStatsMetric;
 import org.mapstruct.Mapper;
 import org.mapstruct.MappingConstants;
-import reactor.core.publisher.Mono;
+
+import java.util.List;
 
 @Mapper(componentModel = MappingConstants.ComponentModel.SPRING,
         implementationName = "bookMapperV2")
@@ -12,4 +15,41 @@ public interface BookMapper {
     Book bookPostToBook(BookDto.Post requestBody);
     Book bookPatchToBook(BookDto.Patch requestBody);
     BookDto.Response bookToResponse(Book book);
+    default BookDto.BulkResponse booksToBulkResponse(long batch, long firstRecord, List<Book> books){
+        return BookDto.BulkResponse.builder()
+                .batch(batch)
+                .firstRecord(firstRecord)
+                .count(books.size())
+                .firstBookId(books.isEmpty() ? 0 : books.get(0).getBookId())
+                .lastBookId(books.isEmpty() ? 0 : books.get(books.size() - 1).getBookId())
+                .build();
+    }
+    default BookDto.BulkResponse rejectedBatchToBulkResponse(long batch, long firstRecord, int count, String error){
+        return BookDto.BulkResponse.builder()
+                .batch(batch)
+                .firstRecord(firstRecord)
+                .count(count)
+                .error(error)
+                .build();
+    }
+    default BookDto.GroupStats groupToGroupStats(BookStats.Group group, BookStatsMetric metric){
+        return BookDto.GroupStats.builder()
+                .group(group.getGroup())
+                .metric(metric.expression())
+                .value(group.value(metric))
+                .count(group.getCount())
+                .build();
+    }
+    default BookDto.AuthorStats groupToAuthorStats(BookStats.Group group){
+        boolean priced = group.getPricedCount() > 0;
+        return BookDto.AuthorStats.builder()
+                .author(group.getGroup())
+                .count(group.getCount())
+                .pricedCount(group.getPricedCount())
+                .priceSum(group.getSum())
+                .minPrice(priced ? group.getMin() : null)
+                .maxPrice(priced ? group.getMax() : null)
+                .averagePrice(priced ? (double) group.getSum() / group.getPricedCount() : null)
+                .build();
+    }
 }
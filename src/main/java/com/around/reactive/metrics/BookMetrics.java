@@ -0,0 +1,77 @@
+package com.around.reactive.metrics;
+
+import com.around.reactive.dto.MetricsDto;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * route template(/v1/books/{book-id})별 요청 metrics 저장소
+ * route는 HandlerMapping이 요청을 매칭하면서 exchange attribute에 남긴 PathPattern을 그대로 사용하기 때문에 다시 매칭하지 않는다
+ */
+@Component
+public class BookMetrics {
+    static final String UNMATCHED = "UNMATCHED";
+    private static final double[] PERCENTILES = {50, 99, 99.9};
+
+    private final ConcurrentMap<String, RouteMetrics> routes = new ConcurrentHashMap<>();
+    private final LongAdder inFlight = new LongAdder();
+
+    public void requestStarted() {
+        inFlight.increment();
+    }
+
+    /**
+     * @param status 요청 처리의 종료 signal로 정한 status, 예외 응답은 아직 response에 설정되지 않았다
+     * @return Book 리소스 route라면 true
+     */
+    public boolean requestFinished(ServerWebExchange exchange, int status, long latencyNanos) {
+        inFlight.decrement();
+        PathPattern pattern = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        RouteMetrics metrics = route(pattern == null ? UNMATCHED : pattern.getPatternString());
+        metrics.record(status, latencyNanos, exchange.getResponse().getHeaders().getContentLength());
+        return metrics.books;
+    }
+
+    public long inFlight() {
+        return inFlight.sum();
+    }
+
+    public MetricsDto.Response snapshot() {
+        List<MetricsDto.Route> snapshots = new ArrayList<>();
+        for (RouteMetrics metrics : routes.values()) {
+            for (int statusClass = 0; statusClass < RouteMetrics.STATUS_CLASSES; statusClass++) {
+                RouteMetrics.StatusMetrics statusMetrics = metrics.get(statusClass);
+                if (statusMetrics == null) {
+                    continue;
+                }
+                long[] latency = statusMetrics.latency.percentiles(PERCENTILES);
+                snapshots.add(MetricsDto.Route.builder()
+                        .route(metrics.route)
+                        .status((statusClass + 1) + "xx")
+                        .count(statusMetrics.count.sum())
+                        .bytes(statusMetrics.bytes.sum())
+                        .unknownLengthCount(statusMetrics.unknownLength.sum())
+                        .p50Micros(latency[0])
+                        .p99Micros(latency[1])
+                        .p999Micros(latency[2])
+                        .build());
+            }
+        }
+        snapshots.sort(Comparator.comparing(MetricsDto.Route::getRoute).thenComparing(MetricsDto.Route::getStatus));
+        return new MetricsDto.Response(inFlight(), snapshots);
+    }
+
+    private RouteMetrics route(String route) {
+        RouteMetrics metrics = routes.get(route);
+        return metrics != null ? metrics : routes.computeIfAbsent(route, RouteMetrics::new);
+    }
+}
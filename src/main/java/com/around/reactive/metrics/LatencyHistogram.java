@@ -0,0 +1,71 @@
+package com.around.reactive.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * HdrHistogram과 같은 log-linear 구간으로 latency(마이크로초)를 세는 고정 크기 histogram
+ * - 0 ~ 127us는 1us 단위, 그 이상은 2의 거듭제곱 구간마다 64개의 하위 구간으로 나누기 때문에 상대 오차는 1/64 이하이다
+ * - 기록은 배열 원소 하나의 increment뿐이라 요청마다 객체를 할당하지 않는다
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT >> 1;
+    private static final long MAX_TRACKABLE = (1L << 40) - 1;
+    private static final int BUCKET_COUNT = index(MAX_TRACKABLE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    public void record(long micros) {
+        counts.incrementAndGet(index(Math.min(Math.max(micros, 0), MAX_TRACKABLE)));
+    }
+
+    /**
+     * 현재까지의 count를 복사해서 percentile을 계산한다 (조회 시에만 할당)
+     * @param percentiles 0 ~ 100 사이의 값
+     * @return percentile마다 해당 구간의 최댓값(us), 기록이 없다면 0
+     */
+    public long[] percentiles(double... percentiles) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+
+        long[] values = new long[percentiles.length];
+        if (total == 0) {
+            return values;
+        }
+        for (int p = 0; p < percentiles.length; p++) {
+            long rank = Math.max(1, (long) Math.ceil(percentiles[p] / 100 * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) {
+                    values[p] = highestEquivalentValue(i);
+                    break;
+                }
+            }
+        }
+        return values;
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+        int subBucket = (int) (value >>> shift);
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF + (subBucket - SUB_BUCKET_HALF);
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF + 1;
+        long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
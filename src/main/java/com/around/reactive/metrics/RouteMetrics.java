@@ -0,0 +1,61 @@
+package com.around.reactive.metrics;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * route template 하나에 대한 status class(1xx ~ 5xx)별 요청 수, 응답 bytes, latency histogram
+ */
+final class RouteMetrics {
+    static final int STATUS_CLASSES = 5;
+
+    final String route;
+    /**
+     * Book 리소스 route 여부, route가 처음 등록될 때 한 번만 계산한다
+     */
+    final boolean books;
+    private final AtomicReferenceArray<StatusMetrics> statusMetrics = new AtomicReferenceArray<>(STATUS_CLASSES);
+
+    RouteMetrics(String route) {
+        this.route = route;
+        this.books = route.contains("books");
+    }
+
+    void record(int status, long latencyNanos, long bodyBytes) {
+        StatusMetrics metrics = statusMetrics(statusClass(status));
+        metrics.count.increment();
+        if (bodyBytes >= 0) {
+            metrics.bytes.add(bodyBytes);
+        } else {
+            metrics.unknownLength.increment();
+        }
+        metrics.latency.record(latencyNanos / 1_000);
+    }
+
+    StatusMetrics get(int statusClass) {
+        return statusMetrics.get(statusClass);
+    }
+
+    private StatusMetrics statusMetrics(int statusClass) {
+        StatusMetrics metrics = statusMetrics.get(statusClass);
+        if (metrics == null) {
+            statusMetrics.compareAndSet(statusClass, null, new StatusMetrics());
+            metrics = statusMetrics.get(statusClass);
+        }
+        return metrics;
+    }
+
+    private static int statusClass(int status) {
+        return Math.min(Math.max(status / 100, 1), STATUS_CLASSES) - 1;
+    }
+
+    static final class StatusMetrics {
+        final LongAdder count = new LongAdder();
+        final LongAdder bytes = new LongAdder();
+        /**
+         * Content-Length 없이 스트리밍된 응답 수 (bytes에 포함되지 않는다)
+         */
+        final LongAdder unknownLength = new LongAdder();
+        final LatencyHistogram latency = new LatencyHistogram();
+    }
+}
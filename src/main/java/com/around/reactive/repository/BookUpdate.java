@@ -0,0 +1,15 @@
+package com.around.reactive.repository;
+
+import com.around.reactive.dto.Book;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * ReactiveBookRepository.patch()로 저장된 도서와 그 직전 version의 도서
+ */
+@Getter
+@AllArgsConstructor
+public class BookUpdate {
+    private final Book previous;
+    private final Book updated;
+}
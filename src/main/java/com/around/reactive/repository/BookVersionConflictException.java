@@ -0,0 +1,11 @@
+package com.around.reactive.repository;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class BookVersionConflictException extends RuntimeException {
+    public BookVersionConflictException(long bookId, long expectedVersion) {
+        super("book " + bookId + " is no longer at version " + expectedVersion);
+    }
+}
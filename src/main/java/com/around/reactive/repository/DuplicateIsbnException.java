@@ -0,0 +1,11 @@
+package com.around.reactive.repository;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class DuplicateIsbnException extends RuntimeException {
+    public DuplicateIsbnException(String isbn, long bookId) {
+        super("isbn " + isbn + " is already registered to book " + bookId);
+    }
+}
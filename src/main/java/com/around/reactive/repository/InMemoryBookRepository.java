@@ -0,0 +1,284 @@
+package com.around.reactive.repository;
+
+import com.around.reactive.cache.SingleFlight;
+import com.around.reactive.dto.Book;
+import com.around.reactive.stats.BookStats;
+import com.around.reactive.stats.BookStatsEngine;
+import com.around.reactive.stats.BookStatsGroupBy;
+import com.around.reactive.store.BookStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * BookStore 카탈로그 위에 생성/수정된 도서를 ConcurrentHashMap으로 덮어쓰는 in-memory 저장소
+ * 한 번도 수정되지 않은 카탈로그 도서는 map에 복사하지 않고 조회 시점에 카탈로그에서 만든다 (version 1)
+ * 수정은 lock 없이 version 비교 후 putIfAbsent/replace로 반영한다
+ * ISBN은 IsbnIndex에 먼저 등록(putIfAbsent)해서 중복을 막고, 저장에 실패하면 등록을 되돌린다 (중복으로 실패한 생성 요청의 bookId는 재사용하지 않는다)
+ * 할당한 bookId는 저장하거나 포기할 때까지 pendingBookIds에 남겨서 findAllAfter()가 아직 저장되지 않은 bookId를 건너뛰지 않게 한다
+ */
+@Repository
+public class InMemoryBookRepository implements ReactiveBookRepository {
+    static final long INITIAL_VERSION = 1;
+    private static final long NO_ISBN = -1;
+
+    private final BookStore catalog;
+    private final ConcurrentMap<Long, Book> books = new ConcurrentHashMap<>();
+    private final AtomicLong sequence;
+    private final TreeSet<Long> pendingBookIds = new TreeSet<>();
+    private final IsbnIndex isbnIndex = new IsbnIndex();
+    private final BookStatsEngine statsEngine;
+    private final SingleFlight<BookStats> aggregations = new SingleFlight<>();
+    private final LocalDateTime catalogLoadedAt = LocalDateTime.now();
+
+    /**
+     * 테스트/벤치마크용, 집계는 Schedulers.parallel()에서 실행한다
+     */
+    public InMemoryBookRepository(BookStore catalog) {
+        this(catalog, new BookStatsEngine(Schedulers.DEFAULT_POOL_SIZE, Schedulers.parallel()));
+    }
+
+    @Autowired
+    public InMemoryBookRepository(BookStore catalog, BookStatsEngine statsEngine) {
+        this.catalog = catalog;
+        this.sequence = new AtomicLong(catalog.size());
+        this.statsEngine = statsEngine;
+    }
+
+    @Override
+    public Mono<Book> findById(long bookId) {
+        return Mono.fromSupplier(() -> get(bookId));
+    }
+
+    @Override
+    public Mono<Book> findByIsbn(String isbn) {
+        return Mono.fromSupplier(() -> {
+            long bookId = isbnIndex.get(Isbn.parse(isbn));
+            return bookId == IsbnIndex.NOT_FOUND ? null : get(bookId);
+        });
+    }
+
+    @Override
+    public Mono<Map<Long, Book>> findAllById(long[] bookIds) {
+        return Mono.fromSupplier(() -> {
+            Map<Long, Book> found = new HashMap<>(bookIds.length * 2);
+            for (long bookId : bookIds) {
+                Book book = get(bookId);
+                if (book != null) {
+                    found.put(bookId, book);
+                }
+            }
+            return found;
+        });
+    }
+
+    /**
+     * Flux.generate()는 request(n)이 들어온 만큼만 generator를 호출하기 때문에 클라이언트가 읽는 속도에 맞춰 조회한다
+     * 카탈로그와 생성된 도서의 bookId는 1부터 sequence까지 이어져 있으므로 cursor 다음 bookId부터 순서대로 찾는다
+     * 할당만 되고 아직 저장되지 않은 bookId 뒤의 도서는 emit하지 않는다 (이어서 조회할 때 그 도서를 놓치지 않도록)
+     */
+    @Override
+    public Flux<Book> findAllAfter(long afterBookId) {
+        return Flux.generate(() -> new long[]{Math.max(afterBookId, 0)}, (cursor, sink) -> {
+            long lastBookId = committedBookId();
+            for (long bookId = cursor[0] + 1; bookId <= lastBookId; bookId++) {
+                Book book = get(bookId);
+                if (book != null) {
+                    cursor[0] = bookId;
+                    sink.next(book);
+                    return cursor;
+                }
+            }
+            cursor[0] = lastBookId;
+            sink.complete();
+            return cursor;
+        });
+    }
+
+    @Override
+    public Mono<Book> insert(Book book) {
+        return Mono.fromSupplier(() -> {
+            long isbn = parseIsbn(book.getIsbn());
+            long[] bookIds = reserveBookIds(1);
+            try {
+                reserveIsbn(isbn, book.getIsbn(), bookIds[0]);
+                LocalDateTime now = LocalDateTime.now();
+                Book inserted = copy(bookIds[0], book, now, now, INITIAL_VERSION);
+                books.put(bookIds[0], inserted);
+                return inserted;
+            } finally {
+                releaseBookIds(bookIds);
+            }
+        });
+    }
+
+    @Override
+    public Mono<List<Book>> insertAll(List<Book> books) {
+        return Mono.fromSupplier(() -> {
+            long[] isbns = new long[books.size()];
+            for (int i = 0; i < isbns.length; i++) {
+                isbns[i] = parseIsbn(books.get(i).getIsbn());
+            }
+            long[] bookIds = reserveBookIds(isbns.length);
+            try {
+                // batch 안에 중복 ISBN이 하나라도 있으면 아무것도 저장하지 않는다
+                for (int i = 0; i < isbns.length; i++) {
+                    try {
+                        reserveIsbn(isbns[i], books.get(i).getIsbn(), bookIds[i]);
+                    } catch (DuplicateIsbnException e) {
+                        for (int j = 0; j < i; j++) {
+                            releaseIsbn(isbns[j], bookIds[j]);
+                        }
+                        throw e;
+                    }
+                }
+
+                LocalDateTime now = LocalDateTime.now();
+                List<Book> inserted = new ArrayList<>(books.size());
+                for (int i = 0; i < bookIds.length; i++) {
+                    Book copied = copy(bookIds[i], books.get(i), now, now, INITIAL_VERSION);
+                    this.books.put(bookIds[i], copied);
+                    inserted.add(copied);
+                }
+                return inserted;
+            } finally {
+                releaseBookIds(bookIds);
+            }
+        });
+    }
+
+    @Override
+    public Mono<Book> update(Book book) {
+        return Mono.fromSupplier(() -> {
+            long bookId = book.getBookId();
+            Book stored = get(bookId);
+            if (stored == null) {
+                return null;
+            }
+            if (stored.getVersion() != book.getVersion()) {
+                throw new BookVersionConflictException(bookId, book.getVersion());
+            }
+
+            long previousIsbn = parseIsbn(stored.getIsbn());
+            long isbn = parseIsbn(book.getIsbn());
+            boolean isbnChanged = isbn != previousIsbn;
+            if (isbnChanged) {
+                reserveIsbn(isbn, book.getIsbn(), bookId);
+            }
+
+            Book updated = copy(bookId, book, stored.getCreatedAt(), LocalDateTime.now(), stored.getVersion() + 1);
+            boolean replaced = books.containsKey(bookId)
+                    ? books.replace(bookId, stored, updated)
+                    : books.putIfAbsent(bookId, updated) == null;
+            if (!replaced) {
+                if (isbnChanged) {
+                    releaseIsbn(isbn, bookId);
+                }
+                throw new BookVersionConflictException(bookId, book.getVersion());
+            }
+            if (isbnChanged) {
+                releaseIsbn(previousIsbn, bookId);
+            }
+            return updated;
+        });
+    }
+
+    /**
+     * 카탈로그는 bookId 범위별 shard로 나눠서 BookStatsEngine의 scheduler(book-stats)에서 집계한다
+     * 같은 groupBy의 집계가 진행 중이면 새로 scan하지 않고 진행 중인 집계 결과를 함께 받는다 (동시에 실행되는 집계는 groupBy 수 이하)
+     */
+    @Override
+    public Mono<BookStats> aggregate(BookStatsGroupBy groupBy) {
+        return aggregations.execute(groupBy.ordinal(), notUse -> statsEngine.aggregate(catalog, books.values(), groupBy));
+    }
+
+    private Book get(long bookId) {
+        Book book = books.get(bookId);
+        if (book != null) {
+            return book;
+        }
+        String name = catalog.name(bookId);
+        if (name == null) {
+            return null;
+        }
+        return new Book(bookId, name, name, null, null, null, null, catalogLoadedAt, catalogLoadedAt, INITIAL_VERSION);
+    }
+
+    /**
+     * @return ISBN이 없으면 NO_ISBN
+     */
+    private static long parseIsbn(String isbn) {
+        return isbn == null || isbn.isBlank() ? NO_ISBN : Isbn.parse(isbn);
+    }
+
+    private void reserveIsbn(long isbn, String value, long bookId) {
+        if (isbn == NO_ISBN) {
+            return;
+        }
+        long registered = isbnIndex.putIfAbsent(isbn, bookId);
+        if (registered != IsbnIndex.NOT_FOUND && registered != bookId) {
+            throw new DuplicateIsbnException(value, registered);
+        }
+    }
+
+    private void releaseIsbn(long isbn, long bookId) {
+        if (isbn != NO_ISBN) {
+            isbnIndex.remove(isbn, bookId);
+        }
+    }
+
+    /**
+     * sequence 증가와 pendingBookIds 등록을 함께 동기화해서 committedBookId()가 등록 전의 bookId를 보지 않게 한다
+     */
+    private long[] reserveBookIds(int count) {
+        long[] bookIds = new long[count];
+        synchronized (pendingBookIds) {
+            for (int i = 0; i < count; i++) {
+                long bookId;
+                do {
+                    bookId = sequence.incrementAndGet();
+                } while (catalog.contains(bookId));
+                bookIds[i] = bookId;
+                pendingBookIds.add(bookId);
+            }
+        }
+        return bookIds;
+    }
+
+    /**
+     * 저장했거나 (ISBN 중복 등으로) 포기한 bookId를 pendingBookIds에서 뺀다
+     */
+    private void releaseBookIds(long[] bookIds) {
+        synchronized (pendingBookIds) {
+            for (long bookId : bookIds) {
+                pendingBookIds.remove(bookId);
+            }
+        }
+    }
+
+    /**
+     * 이 bookId까지는 모두 저장되었거나 포기되었다
+     */
+    private long committedBookId() {
+        synchronized (pendingBookIds) {
+            return pendingBookIds.isEmpty() ? sequence.get() : pendingBookIds.first() - 1;
+        }
+    }
+
+    private static Book copy(long bookId, Book book, LocalDateTime createdAt, LocalDateTime modifiedAt, long version) {
+        return new Book(bookId, book.getTitleKorean(), book.getTitleEnglish(), book.getDescription(),
+                book.getAuthor(), book.getIsbn(), book.getPublishDate(), createdAt, modifiedAt, version);
+    }
+}
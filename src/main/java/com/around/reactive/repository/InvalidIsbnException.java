@@ -0,0 +1,11 @@
+package com.around.reactive.repository;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidIsbnException extends RuntimeException {
+    public InvalidIsbnException(String isbn) {
+        super("invalid isbn: " + isbn);
+    }
+}
@@ -0,0 +1,59 @@
+package com.around.reactive.repository;
+
+/**
+ * ISBN 문자열을 IsbnIndex의 long key(ISBN-13 숫자)로 변환한다
+ * 하이픈과 공백은 무시하고, ISBN-10은 978 prefix를 붙인 ISBN-13으로 바꿔서 두 형식이 같은 key가 되도록 한다
+ * 기존 데이터와의 호환을 위해 입력된 check digit은 검증하지 않는다
+ */
+public final class Isbn {
+    private Isbn() {
+    }
+
+    /**
+     * @throws InvalidIsbnException 숫자가 10자리(마지막은 X 가능) 또는 13자리가 아닌 경우
+     */
+    public static long parse(String isbn) {
+        long digits = 0;
+        int length = 0;
+        boolean checkX = false;
+        for (int i = 0; i < isbn.length(); i++) {
+            char c = isbn.charAt(i);
+            if (c == '-' || c == ' ') {
+                continue;
+            }
+            if (checkX || length == 13) {
+                throw new InvalidIsbnException(isbn);
+            }
+            if (c >= '0' && c <= '9') {
+                digits = digits * 10 + (c - '0');
+            } else if ((c == 'X' || c == 'x') && length == 9) {
+                checkX = true;
+            } else {
+                throw new InvalidIsbnException(isbn);
+            }
+            length++;
+        }
+
+        if (length == 13) {
+            return digits;
+        }
+        if (length == 10) {
+            long body = 978_000_000_000L + (checkX ? digits : digits / 10);
+            return body * 10 + checkDigit(body);
+        }
+        throw new InvalidIsbnException(isbn);
+    }
+
+    /**
+     * ISBN-13 앞 12자리의 check digit (1, 3 가중치 합)
+     */
+    private static int checkDigit(long body) {
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            int digit = (int) (body % 10);
+            sum += (i % 2 == 0) ? digit * 3 : digit;
+            body /= 10;
+        }
+        return (10 - sum % 10) % 10;
+    }
+}
@@ -0,0 +1,220 @@
+package com.around.reactive.repository;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * ISBN(long key) -> bookId secondary index
+ * - hash 상위 bit로 나눈 SEGMENTS개의 segment가 각각 long[] open addressing table과 StampedLock을 가진다 (lock striping)
+ * - 조회는 optimistic read로 lock 없이 수행하고, 그 사이에 같은 segment에 쓰기가 있었을 때만 read lock으로 다시 조회한다
+ * - putIfAbsent/remove는 해당 segment의 write lock 안에서 확인과 변경을 함께 수행하기 때문에 같은 ISBN의 중복 등록은 원자적으로 거부된다
+ * Long boxing과 entry 객체가 없어서 2백만 개 이상의 ISBN도 key/value 배열 두 개로 유지된다
+ */
+public final class IsbnIndex {
+    public static final long NOT_FOUND = -1;
+    private static final int SEGMENT_BITS = 6;
+    private static final int SEGMENTS = 1 << SEGMENT_BITS;
+    private static final long EMPTY = 0;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    public IsbnIndex() {
+        this(1 << 10);
+    }
+
+    public IsbnIndex(int expectedSize) {
+        int segmentSize = Math.max(16, expectedSize / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentSize);
+        }
+    }
+
+    /**
+     * @return bookId, 없으면 NOT_FOUND
+     */
+    public long get(long isbn) {
+        long hash = hash(isbn);
+        return segment(hash).get(isbn + 1, hash);
+    }
+
+    /**
+     * isbn이 등록되어 있지 않을 때만 bookId로 등록한다
+     * @return 이미 등록된 bookId, 새로 등록했다면 NOT_FOUND
+     */
+    public long putIfAbsent(long isbn, long bookId) {
+        long hash = hash(isbn);
+        return segment(hash).putIfAbsent(isbn + 1, bookId, hash);
+    }
+
+    /**
+     * isbn이 bookId로 등록되어 있을 때만 삭제한다
+     */
+    public boolean remove(long isbn, long bookId) {
+        long hash = hash(isbn);
+        return segment(hash).remove(isbn + 1, bookId, hash);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private Segment segment(long hash) {
+        return segments[(int) (hash >>> (Long.SIZE - SEGMENT_BITS))];
+    }
+
+    private static long hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    /**
+     * key는 isbn + 1로 저장해서 0을 빈 슬롯으로 사용한다, load factor 0.5를 넘으면 두 배로 늘린다
+     * 삭제는 tombstone 없이 backward shift로 probe 경로를 유지한다
+     */
+    private static final class Segment {
+        private final StampedLock lock = new StampedLock();
+        private long[] keys;
+        private long[] values;
+        private int size;
+
+        Segment(int expectedSize) {
+            int tableSize = Integer.highestOneBit(expectedSize) << 2;
+            keys = new long[tableSize];
+            values = new long[tableSize];
+        }
+
+        long get(long key, long hash) {
+            long stamp = lock.tryOptimisticRead();
+            long value = find(keys, values, key, hash);
+            if (lock.validate(stamp)) {
+                return value;
+            }
+            stamp = lock.readLock();
+            try {
+                return find(keys, values, key, hash);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        long putIfAbsent(long key, long value, long hash) {
+            long stamp = lock.writeLock();
+            try {
+                long existing = find(keys, values, key, hash);
+                if (existing != NOT_FOUND) {
+                    return existing;
+                }
+                if (size + 1 > keys.length >>> 1) {
+                    resize(keys.length << 1);
+                }
+                int mask = keys.length - 1;
+                int slot = (int) hash & mask;
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                values[slot] = value;
+                keys[slot] = key;
+                size++;
+                return NOT_FOUND;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        boolean remove(long key, long value, long hash) {
+            long stamp = lock.writeLock();
+            try {
+                int mask = keys.length - 1;
+                int slot = (int) hash & mask;
+                while (keys[slot] != key) {
+                    if (keys[slot] == EMPTY) {
+                        return false;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+                if (values[slot] != value) {
+                    return false;
+                }
+                shiftBack(slot, mask);
+                size--;
+                return true;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        /**
+         * optimistic read 중에는 배열이 교체되거나 변경될 수 있으므로 길이가 다르면 바로 돌려주고 (validate 실패로 재조회된다)
+         * probe 횟수도 table 크기로 제한한다
+         */
+        private static long find(long[] keys, long[] values, long key, long hash) {
+            if (keys.length != values.length) {
+                return NOT_FOUND;
+            }
+            int mask = keys.length - 1;
+            int slot = (int) hash & mask;
+            for (int probes = 0; probes <= mask; probes++) {
+                long current = keys[slot];
+                if (current == key) {
+                    return values[slot];
+                }
+                if (current == EMPTY) {
+                    return NOT_FOUND;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return NOT_FOUND;
+        }
+
+        private void shiftBack(int hole, int mask) {
+            int next = (hole + 1) & mask;
+            while (keys[next] != EMPTY) {
+                int ideal = (int) hash(keys[next] - 1) & mask;
+                if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+                    keys[hole] = keys[next];
+                    values[hole] = values[next];
+                    hole = next;
+                }
+                next = (next + 1) & mask;
+            }
+            keys[hole] = EMPTY;
+            values[hole] = 0;
+        }
+
+        private void resize(int tableSize) {
+            long[] oldKeys = keys;
+            long[] oldValues = values;
+            long[] newKeys = new long[tableSize];
+            long[] newValues = new long[tableSize];
+            int mask = tableSize - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    int slot = (int) hash(oldKeys[i] - 1) & mask;
+                    while (newKeys[slot] != EMPTY) {
+                        slot = (slot + 1) & mask;
+                    }
+                    newKeys[slot] = oldKeys[i];
+                    newValues[slot] = oldValues[i];
+                }
+            }
+            keys = newKeys;
+            values = newValues;
+        }
+    }
+}
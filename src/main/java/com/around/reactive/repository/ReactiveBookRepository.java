@@ -0,0 +1,93 @@
+package com.around.reactive.repository;
+
+import com.around.reactive.dto.Book;
+import com.around.reactive.stats.BookStats;
+import com.around.reactive.stats.BookStatsGroupBy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+public interface ReactiveBookRepository {
+    int MAX_CONFLICT_RETRIES = 3;
+
+    /**
+     * @return 도서가 없으면 empty
+     */
+    Mono<Book> findById(long bookId);
+
+    /**
+     * ISBN-10/ISBN-13 (하이픈 무관)으로 도서를 조회한다
+     * @return 도서가 없으면 empty, ISBN 형식이 아니면 InvalidIsbnException
+     */
+    Mono<Book> findByIsbn(String isbn);
+
+    /**
+     * 여러 bookId를 한 번에 조회한다 (bulk lookup)
+     * @return bookId -> 도서, 존재하지 않는 bookId는 포함되지 않는다
+     */
+    Mono<Map<Long, Book>> findAllById(long[] bookIds);
+
+    /**
+     * afterBookId보다 큰 bookId의 도서를 bookId 오름차순으로 emit한다 (keyset pagination)
+     * Subscriber가 요청한 개수만큼만 조회하기 때문에 전체 카탈로그를 메모리에 올리지 않는다
+     */
+    Flux<Book> findAllAfter(long afterBookId);
+
+    /**
+     * 새로운 bookId를 할당하고 createdAt/modifiedAt, version(1)을 채워서 저장한다
+     */
+    Mono<Book> insert(Book book);
+
+    /**
+     * 여러 도서를 한 번에 저장한다, 같은 batch의 도서는 createdAt이 같다
+     */
+    Mono<List<Book>> insertAll(List<Book> books);
+
+    /**
+     * 저장된 version이 book.getVersion()과 같을 때만 version을 1 증가시켜 저장한다 (optimistic versioning)
+     * @return 도서가 없으면 empty, version이 다르면 BookVersionConflictException
+     */
+    Mono<Book> update(Book book);
+
+    /**
+     * 현재 도서를 조회해서 changes의 null이 아닌 필드만 덮어쓴 후 update()로 저장한다
+     * 그 사이에 다른 요청이 먼저 수정했다면 다시 조회해서 최대 MAX_CONFLICT_RETRIES번 재시도한다
+     * @return 도서가 없으면 empty, 재시도 후에도 충돌하면 BookVersionConflictException
+     */
+    default Mono<BookUpdate> patch(long bookId, Book changes) {
+        return patch(bookId, changes, MAX_CONFLICT_RETRIES);
+    }
+
+    /**
+     * 카탈로그를 포함한 전체 도서를 groupBy 기준으로 집계한다
+     */
+    Mono<BookStats> aggregate(BookStatsGroupBy groupBy);
+
+    /**
+     * retryWhen()은 구독마다 재시도용 Flux를 만들기 때문에 충돌이 발생했을 때만 onErrorResume()으로 다시 시도한다
+     */
+    private Mono<BookUpdate> patch(long bookId, Book changes, int retries) {
+        // 저장된 version이 current와 같을 때만 수정되기 때문에 current가 수정 전 도서이다
+        Mono<BookUpdate> updated = findById(bookId)
+                .flatMap(current -> update(merge(current, changes)).map(book -> new BookUpdate(current, book)));
+        return retries == 0
+                ? updated
+                : updated.onErrorResume(BookVersionConflictException.class, e -> patch(bookId, changes, retries - 1));
+    }
+
+    private static Book merge(Book current, Book changes) {
+        return new Book(
+                current.getBookId(),
+                changes.getTitleKorean() != null ? changes.getTitleKorean() : current.getTitleKorean(),
+                changes.getTitleEnglish() != null ? changes.getTitleEnglish() : current.getTitleEnglish(),
+                changes.getDescription() != null ? changes.getDescription() : current.getDescription(),
+                changes.getAuthor() != null ? changes.getAuthor() : current.getAuthor(),
+                changes.getIsbn() != null ? changes.getIsbn() : current.getIsbn(),
+                changes.getPublishDate() != null ? changes.getPublishDate() : current.getPublishDate(),
+                current.getCreatedAt(),
+                current.getModifiedAt(),
+                current.getVersion());
+    }
+}
@@ -0,0 +1,246 @@
+package com.around.reactive.search;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * 도서 검색용 tokenizer, 문자열 대신 64bit hash(term)만 만들어서 색인과 검색에 사용한다
+ * - 한글 : 음절 bigram으로 나눈다 (형태소 분석 없이 "자바를"이 "자바"로 검색되도록), 색인할 때는 unigram과 띄어쓰기를 건너뛴 bigram도 함께 만든다
+ * - 영문/숫자 : 문자와 숫자 경계에서 나눈 단어 ("Book123" -> "book", "123")
+ * - ISBN : 숫자(와 X)만 이어 붙인 term을 추가로 만들어서 하이픈 유무와 관계없이 검색되도록 한다
+ * term의 하위 FIELD_BITS는 0으로 비워 두고 색인에서는 필드 mask를 채워서 사용한다
+ */
+final class BookSearchAnalyzer {
+    static final int TITLE_KOREAN = 1;
+    static final int TITLE_ENGLISH = 1 << 1;
+    static final int AUTHOR = 1 << 2;
+    static final int ISBN = 1 << 3;
+    static final int FIELD_BITS = 4;
+    static final long FIELD_MASK = (1L << FIELD_BITS) - 1;
+
+    private static final long[] NO_TERMS = new long[0];
+
+    private BookSearchAnalyzer() {
+    }
+
+    /**
+     * 도서의 필드를 term | field mask 형태로 변환해서 term 오름차순으로 정렬하고, 같은 term의 field mask는 합친다
+     */
+    static long[] documentTerms(String titleKorean, String titleEnglish, String author, String isbn) {
+        TermBuffer buffer = new TermBuffer();
+        analyze(titleKorean, true, TITLE_KOREAN, buffer);
+        analyze(titleEnglish, true, TITLE_ENGLISH, buffer);
+        analyze(author, true, AUTHOR, buffer);
+        analyze(isbn, true, ISBN, buffer);
+        if (isbn != null) {
+            long term = isbnTerm(isbn);
+            if (term != 0) {
+                buffer.add(term | ISBN);
+            }
+        }
+        return buffer.merge();
+    }
+
+    /**
+     * 검색어를 term 오름차순으로 중복 없이 변환한다 (field mask는 0)
+     */
+    static long[] queryTerms(String query) {
+        if (query == null || query.isEmpty()) {
+            return NO_TERMS;
+        }
+        TermBuffer buffer = new TermBuffer();
+        analyze(query, false, 0, buffer);
+        // 숫자만으로 이루어진 ISBN 형태의 검색어는 하이픈이 있어도 ISBN term 하나로 검색한다
+        long isbn = looksLikeIsbn(query) ? isbnTerm(query) : 0;
+        return isbn != 0 ? new long[]{isbn} : buffer.merge();
+    }
+
+    static long term(long entry) {
+        return entry & ~FIELD_MASK;
+    }
+
+    static int fields(long entry) {
+        return (int) (entry & FIELD_MASK);
+    }
+
+    /**
+     * 정렬된 entries에서 term을 찾는다
+     * @return term의 field mask, 없으면 0
+     */
+    static int fieldsOf(long[] entries, long term) {
+        int index = Arrays.binarySearch(entries, term);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return index < entries.length && term(entries[index]) == term ? fields(entries[index]) : 0;
+    }
+
+    private static void analyze(String text, boolean index, int field, TermBuffer buffer) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        String normalized = normalize(text);
+        int length = normalized.length();
+        int i = 0;
+        int previousHangulEnd = -1;
+        while (i < length) {
+            char c = normalized.charAt(i);
+            int start = i;
+            if (isHangul(c)) {
+                while (i < length && isHangul(normalized.charAt(i))) {
+                    i++;
+                }
+                hangul(normalized, start, i, index, field, buffer);
+                // 띄어쓰기 없이 검색해도 찾을 수 있도록 공백으로만 나뉜 앞 단어의 마지막 음절과 첫 음절의 bigram도 색인한다
+                if (index && previousHangulEnd >= 0 && isBlank(normalized, previousHangulEnd, start)) {
+                    buffer.add(hash(normalized.charAt(previousHangulEnd - 1), c) | field);
+                }
+                previousHangulEnd = i;
+            } else if (Character.isDigit(c)) {
+                while (i < length && Character.isDigit(normalized.charAt(i))) {
+                    i++;
+                }
+                buffer.add(hash(normalized, start, i) | field);
+            } else if (Character.isLetter(c)) {
+                while (i < length && isWordLetter(normalized.charAt(i))) {
+                    i++;
+                }
+                buffer.add(hash(normalized, start, i) | field);
+            } else {
+                i++;
+            }
+        }
+    }
+
+    /**
+     * 색인 : 음절 unigram + bigram, 검색 : 한 음절이면 unigram, 두 음절 이상이면 bigram
+     */
+    private static void hangul(String text, int start, int end, boolean index, int field, TermBuffer buffer) {
+        if (index || end - start == 1) {
+            for (int i = start; i < end; i++) {
+                buffer.add(hash(text, i, i + 1) | field);
+            }
+        }
+        for (int i = start; i + 1 < end; i++) {
+            buffer.add(hash(text, i, i + 2) | field);
+        }
+    }
+
+    private static boolean looksLikeIsbn(String query) {
+        int digits = 0;
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+            } else if (c != '-' && c != ' ' && c != 'x' && c != 'X') {
+                return false;
+            }
+        }
+        return digits >= 10;
+    }
+
+    /**
+     * ISBN의 숫자와 X만 이어 붙인 term, "isbn:" prefix를 hash에 섞어서 일반 숫자 term과 구분한다
+     */
+    private static long isbnTerm(String isbn) {
+        long h = hashStart("isbn:");
+        int length = 0;
+        for (int i = 0; i < isbn.length(); i++) {
+            char c = isbn.charAt(i);
+            if (c >= '0' && c <= '9' || c == 'x' || c == 'X') {
+                h = hashStep(h, Character.toLowerCase(c));
+                length++;
+            }
+        }
+        return length == 0 ? 0 : finish(h, length);
+    }
+
+    private static String normalize(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                return Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+            }
+        }
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isHangul(char c) {
+        return c >= 0xAC00 && c <= 0xD7A3;
+    }
+
+    private static boolean isWordLetter(char c) {
+        return Character.isLetter(c) && !isHangul(c);
+    }
+
+    private static boolean isBlank(String text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!Character.isWhitespace(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hash(char first, char second) {
+        return finish(hashStep(hashStep(hashStart(""), first), second), 2);
+    }
+
+    private static long hash(String text, int from, int to) {
+        long h = hashStart("");
+        for (int i = from; i < to; i++) {
+            h = hashStep(h, text.charAt(i));
+        }
+        return finish(h, to - from);
+    }
+
+    private static long hashStart(String prefix) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < prefix.length(); i++) {
+            h = hashStep(h, prefix.charAt(i));
+        }
+        return h;
+    }
+
+    private static long hashStep(long h, char c) {
+        return (h ^ c) * 0x100000001b3L;
+    }
+
+    private static long finish(long h, int length) {
+        h ^= length;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h & ~FIELD_MASK;
+    }
+
+    private static final class TermBuffer {
+        private long[] entries = new long[16];
+        private int size;
+
+        void add(long entry) {
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size << 1);
+            }
+            entries[size++] = entry;
+        }
+
+        long[] merge() {
+            if (size == 0) {
+                return NO_TERMS;
+            }
+            Arrays.sort(entries, 0, size);
+            int merged = 0;
+            for (int i = 0; i < size; i++) {
+                if (merged > 0 && term(entries[merged - 1]) == term(entries[i])) {
+                    entries[merged - 1] |= entries[i];
+                } else {
+                    entries[merged++] = entries[i];
+                }
+            }
+            return Arrays.copyOf(entries, merged);
+        }
+    }
+}
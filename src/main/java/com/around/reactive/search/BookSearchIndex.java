@@ -0,0 +1,482 @@
+package com.around.reactive.search;
+
+import com.around.reactive.dto.Book;
+import com.around.reactive.event.BookChangeListener;
+import com.around.reactive.store.BookStore;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongPredicate;
+
+/**
+ * titleKorean, titleEnglish, author, isbn을 색인하는 in-memory inverted index
+ * - 카탈로그 도서 : indexCatalog()로 한 번 만드는 CatalogSegment (primitive 배열)
+ * - 생성/수정된 도서 : index()가 도서마다 generation을 올리고 현재 term 전체를 term별 posting에 (bookId, generation)으로 추가한다
+ *   term별 posting은 카탈로그처럼 bookId 오름차순으로 유지하고, 검색할 때는 최신 generation의 posting만 사용한다
+ *   이전 내용의 posting은 stale로 세다가 절반을 넘으면 compaction으로 지운다
+ * - version이 이미 색인한 것보다 새롭지 않은 도서는 무시한다 (늦게 도착한 이전 수정이 최신 내용을 덮어쓰지 않는다)
+ * 검색어의 모든 term을 포함하는 도서를 BM25 idf x 필드 가중치 합으로 정렬해서 상위 limit개의 bookId를 돌려준다
+ * 쓰기는 synchronized로 직렬화하고 검색은 lock 없이 수행한다
+ */
+public class BookSearchIndex implements BookChangeListener {
+    private static final int TITLE_WEIGHT = 3;
+    private static final int AUTHOR_WEIGHT = 2;
+    private static final int ISBN_WEIGHT = 1;
+    private static final long[] NO_RESULTS = new long[0];
+
+    private volatile CatalogSegment catalog = CatalogSegment.EMPTY;
+    private final ConcurrentMap<Long, Document> documents = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Postings> postings = new ConcurrentHashMap<>();
+
+    /**
+     * 카탈로그 색인을 만들어서 교체한다, 그 사이에 생성/수정된 도서는 카탈로그 posting 대신 최신 term을 사용하도록 표시한다
+     */
+    public void indexCatalog(BookStore store) {
+        CatalogSegment segment = CatalogSegment.build(store);
+        synchronized (this) {
+            documents.keySet().forEach(bookId -> segment.override(Math.toIntExact(bookId)));
+            catalog = segment;
+        }
+    }
+
+    /**
+     * 생성/수정된 도서를 색인한다, 같은 bookId의 이전 내용은 더 이상 검색되지 않는다
+     * 이미 색인한 version보다 새롭지 않은 도서는 무시한다
+     */
+    public synchronized void index(Book book) {
+        Document previous = documents.get(book.getBookId());
+        if (previous != null && book.getVersion() <= previous.version) {
+            return;
+        }
+        int doc = Math.toIntExact(book.getBookId());
+        long[] entries = BookSearchAnalyzer.documentTerms(book.getTitleKorean(), book.getTitleEnglish(),
+                book.getAuthor(), book.getIsbn());
+        int generation = previous == null ? 1 : previous.generation + 1;
+        // posting보다 document를 먼저 교체해야 검색 중에 새 posting을 만나면 항상 새 generation으로 검증된다
+        documents.put(book.getBookId(), new Document(book.getVersion(), generation, entries));
+        catalog.override(doc);
+        if (previous != null) {
+            for (long entry : previous.entries) {
+                long term = BookSearchAnalyzer.term(entry);
+                Postings stale = postings.get(term);
+                if (stale != null && stale.markStale(this::live) == 0) {
+                    postings.remove(term);
+                }
+            }
+        }
+        long posting = posting(doc, generation);
+        for (long entry : entries) {
+            postings.computeIfAbsent(BookSearchAnalyzer.term(entry), notUse -> new Postings()).add(posting, this::live);
+        }
+    }
+
+    @Override
+    public void created(Book book) {
+        index(book);
+    }
+
+    @Override
+    public void updated(Book previous, Book updated) {
+        index(updated);
+    }
+
+    /**
+     * @return 점수가 높은 순서(같으면 bookId 오름차순)의 bookId, 최대 limit개
+     */
+    public long[] search(String query, int limit) {
+        long[] terms = BookSearchAnalyzer.queryTerms(query);
+        if (terms.length == 0 || limit <= 0) {
+            return NO_RESULTS;
+        }
+
+        CatalogSegment catalog = this.catalog;
+        int termCount = terms.length;
+        int[] termIndexes = new int[termCount];
+        Run[] overlays = new Run[termCount];
+        double[] idf = new double[termCount];
+        double documentCount = catalog.documents() + documents.size();
+        int rarest = 0;
+        long rarestCount = Long.MAX_VALUE;
+        for (int t = 0; t < termCount; t++) {
+            termIndexes[t] = catalog.find(terms[t]);
+            Postings overlay = postings.get(terms[t]);
+            overlays[t] = overlay == null ? Run.EMPTY : overlay.run();
+            long count = (catalog.to(termIndexes[t]) - catalog.from(termIndexes[t]))
+                    + (overlay == null ? 0 : overlay.live());
+            if (count == 0) {
+                return NO_RESULTS;
+            }
+            idf[t] = Math.log(1 + (documentCount - count + 0.5) / (count + 0.5));
+            if (count < rarestCount) {
+                rarest = t;
+                rarestCount = count;
+            }
+        }
+
+        TopDocs top = new TopDocs(limit);
+        double maxScore = maxScore(idf);
+        searchCatalog(catalog, termIndexes, idf, rarest, maxScore, top);
+        searchOverlay(terms, overlays, idf, maxScore, top);
+        return top.bookIds();
+    }
+
+    /**
+     * 색인된 카탈로그 도서 수와 생성/수정된 도서 수
+     */
+    public int catalogDocuments() {
+        return catalog.documents();
+    }
+
+    public int indexedDocuments() {
+        return documents.size();
+    }
+
+    public long catalogMemoryBytes() {
+        return catalog.memoryBytes();
+    }
+
+    /**
+     * 생성/수정된 도서의 posting 수 (아직 compaction하지 않은 이전 내용의 posting 포함)
+     */
+    public long overlayPostings() {
+        return postings.values().stream().mapToLong(overlay -> overlay.run().size).sum();
+    }
+
+    /**
+     * 가장 posting이 적은 term의 카탈로그 posting을 순회하면서 나머지 term은 bookId 오름차순 cursor로 교집합을 구한다
+     * 후보가 bookId 오름차순으로 나오기 때문에 상위 limit개가 모두 가능한 최대 점수라면 뒤의 후보는 순위에 들 수 없어서 중단한다
+     */
+    private static void searchCatalog(CatalogSegment catalog, int[] termIndexes, double[] idf, int rarest,
+                                      double maxScore, TopDocs top) {
+        int termCount = termIndexes.length;
+        int[] cursors = new int[termCount];
+        for (int t = 0; t < termCount; t++) {
+            if (termIndexes[t] < 0) {
+                return;
+            }
+            cursors[t] = catalog.from(termIndexes[t]);
+        }
+
+        int end = catalog.to(termIndexes[rarest]);
+        candidates:
+        for (int position = catalog.from(termIndexes[rarest]); position < end; position++) {
+            int doc = catalog.doc(position);
+            double score = idf[rarest] * weight(catalog.fields(position));
+            for (int t = 0; t < termCount; t++) {
+                if (t == rarest) {
+                    continue;
+                }
+                int to = catalog.to(termIndexes[t]);
+                int cursor = catalog.advance(cursors[t], to, doc);
+                cursors[t] = cursor;
+                if (cursor == to) {
+                    return;
+                }
+                if (catalog.doc(cursor) != doc) {
+                    continue candidates;
+                }
+                score += idf[t] * weight(catalog.fields(cursor));
+            }
+            if (!catalog.overridden(doc)) {
+                top.offer(doc, score);
+                if (top.full() && top.lowestScore() >= maxScore) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 카탈로그와 같은 방식으로 overlay posting이 가장 적은 term의 posting을 bookId 오름차순으로 순회하면서
+     * 나머지 term은 cursor로 교집합을 구하고, 교집합에 든 후보만 최신 generation인지와 현재 term 목록으로 점수를 확인한다
+     */
+    private void searchOverlay(long[] terms, Run[] overlays, double[] idf, double maxScore, TopDocs top) {
+        int termCount = terms.length;
+        int rarest = 0;
+        for (int t = 0; t < termCount; t++) {
+            if (overlays[t].size == 0) {
+                return;
+            }
+            if (overlays[t].size < overlays[rarest].size) {
+                rarest = t;
+            }
+        }
+
+        int[] cursors = new int[termCount];
+        Run candidates = overlays[rarest];
+        candidates:
+        for (int i = 0; i < candidates.size; i++) {
+            long bookId = candidates.entries[i] >>> 32;
+            for (int t = 0; t < termCount; t++) {
+                if (t == rarest) {
+                    continue;
+                }
+                int cursor = overlays[t].advance(cursors[t], bookId << 32);
+                cursors[t] = cursor;
+                if (cursor == overlays[t].size) {
+                    return;
+                }
+                if (overlays[t].entries[cursor] >>> 32 != bookId) {
+                    continue candidates;
+                }
+            }
+            Document document = documents.get(bookId);
+            if (document == null || document.generation != (int) candidates.entries[i]) {
+                continue;
+            }
+            double score = 0;
+            for (int t = 0; t < termCount; t++) {
+                int fields = BookSearchAnalyzer.fieldsOf(document.entries, terms[t]);
+                if (fields == 0) {
+                    continue candidates;
+                }
+                score += idf[t] * weight(fields);
+            }
+            top.offer((int) bookId, score);
+            // 카탈로그에서 찾은 bookId가 더 클 수 있으므로 가장 낮은 순위의 bookId를 지난 뒤에만 중단한다
+            if (top.full() && top.lowestScore() >= maxScore && bookId >= top.lowestDoc()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 모든 term이 제목에서 나온 경우의 점수, 이보다 높은 점수는 없다
+     */
+    private static double maxScore(double[] idf) {
+        double maxScore = 0;
+        for (double termIdf : idf) {
+            maxScore += termIdf * TITLE_WEIGHT;
+        }
+        return maxScore;
+    }
+
+    /**
+     * posting의 generation이 도서의 최신 generation이면 true, index()의 lock 안에서만 호출한다
+     */
+    private boolean live(long posting) {
+        Document document = documents.get(posting >>> 32);
+        return document != null && document.generation == (int) posting;
+    }
+
+    private static int weight(int fields) {
+        if ((fields & (BookSearchAnalyzer.TITLE_KOREAN | BookSearchAnalyzer.TITLE_ENGLISH)) != 0) {
+            return TITLE_WEIGHT;
+        }
+        return (fields & BookSearchAnalyzer.AUTHOR) != 0 ? AUTHOR_WEIGHT : ISBN_WEIGHT;
+    }
+
+    private static long posting(int doc, int generation) {
+        return ((long) doc << 32) | (generation & 0xFFFFFFFFL);
+    }
+
+    private static final class Document {
+        private final long version;
+        private final int generation;
+        private final long[] entries;
+
+        Document(long version, int generation, long[] entries) {
+            this.version = version;
+            this.generation = generation;
+            this.entries = entries;
+        }
+    }
+
+    /**
+     * 한 term의 (bookId, generation) posting, 쓰기는 BookSearchIndex의 lock 안에서만 수행한다
+     * - 마지막 posting보다 큰 posting은 배열 뒤에 채우고 size를 늘린 새 Run을 발행한다 (새 도서는 bookId가 증가하므로 대부분 이 경우)
+     * - 중간에 들어가야 하는 posting(기존 도서의 수정)은 stale posting을 지우면서 새 배열로 다시 만든다 (compaction)
+     * - stale posting이 절반을 넘으면 compaction한다
+     * 검색은 Run 하나를 읽기 때문에 항상 size개가 채워진 정렬된 배열을 본다
+     */
+    private static final class Postings {
+        private volatile Run run = Run.EMPTY;
+        private volatile int stale;
+
+        void add(long posting, LongPredicate live) {
+            Run current = run;
+            int size = current.size;
+            if (size > 0 && posting < current.entries[size - 1]) {
+                compact(live, posting);
+                return;
+            }
+            long[] entries = current.entries;
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, Math.max(4, size << 1));
+            }
+            entries[size] = posting;
+            run = new Run(entries, size + 1);
+        }
+
+        /**
+         * 도서가 다시 색인되어 이 term의 posting 하나가 stale이 되었다
+         * @return compaction 후 남은 posting 수
+         */
+        int markStale(LongPredicate live) {
+            stale = stale + 1;
+            if (stale * 2 > run.size) {
+                compact(live, Long.MIN_VALUE);
+            }
+            return run.size;
+        }
+
+        /**
+         * 검색 점수(idf)에 사용하는 최신 posting 수
+         */
+        int live() {
+            return Math.max(run.size - stale, 0);
+        }
+
+        Run run() {
+            return run;
+        }
+
+        /**
+         * @param insert 정렬 위치에 추가할 posting, Long.MIN_VALUE이면 추가하지 않는다
+         */
+        private void compact(LongPredicate live, long insert) {
+            Run current = run;
+            long[] entries = new long[Math.max(4, current.size + 1)];
+            int size = 0;
+            for (int i = 0; i < current.size; i++) {
+                long posting = current.entries[i];
+                if (insert != Long.MIN_VALUE && insert < posting) {
+                    entries[size++] = insert;
+                    insert = Long.MIN_VALUE;
+                }
+                if (live.test(posting)) {
+                    entries[size++] = posting;
+                }
+            }
+            if (insert != Long.MIN_VALUE) {
+                entries[size++] = insert;
+            }
+            run = new Run(size < entries.length >> 1 ? Arrays.copyOf(entries, Math.max(4, size)) : entries, size);
+            stale = 0;
+        }
+    }
+
+    /**
+     * 발행된 posting 배열과 채워진 크기, 발행 이후 [0, size) 구간은 바뀌지 않는다
+     */
+    private static final class Run {
+        private static final Run EMPTY = new Run(new long[0], 0);
+
+        private final long[] entries;
+        private final int size;
+
+        Run(long[] entries, int size) {
+            this.entries = entries;
+            this.size = size;
+        }
+
+        /**
+         * from부터 posting이 target 이상인 첫 위치를 galloping 후 binary search로 찾는다, 없으면 size
+         */
+        int advance(int from, long target) {
+            int bound = 1;
+            while (from + bound < size && entries[from + bound] < target) {
+                bound <<= 1;
+            }
+            int index = Arrays.binarySearch(entries, from, Math.min(from + bound + 1, size), target);
+            return index < 0 ? -index - 1 : index;
+        }
+    }
+
+    /**
+     * 점수 상위 limit개를 유지하는 min-heap (root가 가장 낮은 순위)
+     */
+    private static final class TopDocs {
+        private final int[] docs;
+        private final double[] scores;
+        private int size;
+
+        TopDocs(int limit) {
+            docs = new int[limit];
+            scores = new double[limit];
+        }
+
+        void offer(int doc, double score) {
+            if (size < docs.length) {
+                docs[size] = doc;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (lowerRank(docs[0], scores[0], doc, score)) {
+                docs[0] = doc;
+                scores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        boolean full() {
+            return size == docs.length;
+        }
+
+        double lowestScore() {
+            return scores[0];
+        }
+
+        int lowestDoc() {
+            return docs[0];
+        }
+
+        long[] bookIds() {
+            long[] result = new long[size];
+            for (int i = size - 1; i >= 0; i--) {
+                result[i] = docs[0];
+                docs[0] = docs[i];
+                scores[0] = scores[i];
+                size = i;
+                siftDown(0);
+            }
+            return result;
+        }
+
+        /**
+         * a가 b보다 순위가 낮으면 true (점수가 낮거나, 같으면 bookId가 큰 쪽)
+         */
+        private static boolean lowerRank(int aDoc, double aScore, int bDoc, double bScore) {
+            return aScore < bScore || (aScore == bScore && aDoc > bDoc);
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (!lowerRank(docs[index], scores[index], docs[parent], scores[parent])) {
+                    return;
+                }
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int lowest = index;
+                int left = (index << 1) + 1;
+                int right = left + 1;
+                if (left < size && lowerRank(docs[left], scores[left], docs[lowest], scores[lowest])) {
+                    lowest = left;
+                }
+                if (right < size && lowerRank(docs[right], scores[right], docs[lowest], scores[lowest])) {
+                    lowest = right;
+                }
+                if (lowest == index) {
+                    return;
+                }
+                swap(index, lowest);
+                index = lowest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int doc = docs[a];
+            docs[a] = docs[b];
+            docs[b] = doc;
+            double score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.around.reactive.search;
+
+import com.around.reactive.store.BookStore;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 카탈로그 도서의 읽기 전용 inverted index (CSR 형태의 primitive 배열)
+ * - terms : 정렬된 term, binary search로 찾는다
+ * - offsets : terms[i]의 posting은 docs[offsets[i]] ~ docs[offsets[i + 1] - 1] (bookId 오름차순)
+ * - fields : posting마다 term이 포함된 필드 mask
+ * 생성/수정된 카탈로그 도서는 overridden bit를 세워서 카탈로그 posting 대신 BookSearchIndex의 최신 term을 사용한다
+ */
+final class CatalogSegment {
+    static final CatalogSegment EMPTY = new CatalogSegment(new long[0], new int[1], new int[0], new byte[0], 0, 0);
+
+    private final long[] terms;
+    private final int[] offsets;
+    private final int[] docs;
+    private final byte[] fields;
+    private final int documents;
+    private final int lastDoc;
+    private final AtomicLongArray overridden;
+
+    private CatalogSegment(long[] terms, int[] offsets, int[] docs, byte[] fields, int documents, int lastDoc) {
+        this.terms = terms;
+        this.offsets = offsets;
+        this.docs = docs;
+        this.fields = fields;
+        this.documents = documents;
+        this.lastDoc = lastDoc;
+        this.overridden = new AtomicLongArray((lastDoc >>> 6) + 1);
+    }
+
+    /**
+     * bookId 1 ~ catalog.size()의 도서명을 InMemoryBookRepository와 같이 titleKorean, titleEnglish로 색인한다
+     * term별 posting 개수를 먼저 센 후 두 번째 순회에서 배열을 채우기 때문에 posting 객체를 만들지 않는다
+     */
+    static CatalogSegment build(BookStore catalog) {
+        int lastDoc = catalog.size();
+        TermCounts counts = new TermCounts(Math.max(16, lastDoc));
+        int documents = 0;
+        for (int doc = 1; doc <= lastDoc; doc++) {
+            long[] entries = terms(catalog, doc);
+            if (entries == null) {
+                continue;
+            }
+            documents++;
+            for (long entry : entries) {
+                counts.increment(BookSearchAnalyzer.term(entry));
+            }
+        }
+
+        long[] terms = counts.keys();
+        Arrays.sort(terms);
+        int[] offsets = new int[terms.length + 1];
+        for (int i = 0; i < terms.length; i++) {
+            int count = counts.get(terms[i]);
+            offsets[i + 1] = offsets[i] + count;
+            counts.put(terms[i], offsets[i]);
+        }
+
+        int[] docs = new int[offsets[terms.length]];
+        byte[] fields = new byte[docs.length];
+        for (int doc = 1; doc <= lastDoc; doc++) {
+            long[] entries = terms(catalog, doc);
+            if (entries == null) {
+                continue;
+            }
+            for (long entry : entries) {
+                int position = counts.getAndIncrement(BookSearchAnalyzer.term(entry));
+                docs[position] = doc;
+                fields[position] = (byte) BookSearchAnalyzer.fields(entry);
+            }
+        }
+        return new CatalogSegment(terms, offsets, docs, fields, documents, lastDoc);
+    }
+
+    int documents() {
+        return documents;
+    }
+
+    int lastDoc() {
+        return lastDoc;
+    }
+
+    /**
+     * @return terms 배열의 위치, 없으면 -1
+     */
+    int find(long term) {
+        int index = Arrays.binarySearch(terms, term);
+        return index < 0 ? -1 : index;
+    }
+
+    int from(int termIndex) {
+        return termIndex < 0 ? 0 : offsets[termIndex];
+    }
+
+    int to(int termIndex) {
+        return termIndex < 0 ? 0 : offsets[termIndex + 1];
+    }
+
+    int doc(int position) {
+        return docs[position];
+    }
+
+    int fields(int position) {
+        return fields[position];
+    }
+
+    /**
+     * from 이후에서 doc 이상인 첫 번째 posting 위치를 exponential search로 찾는다 (bookId 오름차순으로 교집합을 구할 때 사용)
+     */
+    int advance(int from, int to, int doc) {
+        int bound = 1;
+        while (from + bound < to && docs[from + bound] < doc) {
+            bound <<= 1;
+        }
+        int index = Arrays.binarySearch(docs, from, Math.min(from + bound + 1, to), doc);
+        return index < 0 ? -index - 1 : index;
+    }
+
+    boolean overridden(int doc) {
+        return doc <= lastDoc && (overridden.get(doc >>> 6) & (1L << doc)) != 0;
+    }
+
+    void override(int doc) {
+        if (doc <= lastDoc) {
+            overridden.getAndAccumulate(doc >>> 6, 1L << doc, (current, bit) -> current | bit);
+        }
+    }
+
+    long memoryBytes() {
+        return (long) terms.length * Long.BYTES + (long) offsets.length * Integer.BYTES
+                + (long) docs.length * Integer.BYTES + fields.length + (long) overridden.length() * Long.BYTES;
+    }
+
+    private static long[] terms(BookStore catalog, int doc) {
+        String name = catalog.name(doc);
+        return name == null ? null : BookSearchAnalyzer.documentTerms(name, name, null, null);
+    }
+
+    /**
+     * 색인 생성 중에만 사용하는 term -> int open addressing map (Long boxing 없이 term별 posting 개수와 쓰기 위치를 관리한다)
+     */
+    private static final class TermCounts {
+        private long[] keys;
+        private int[] values;
+        private boolean[] used;
+        private int size;
+        private int mask;
+
+        TermCounts(int expectedSize) {
+            allocate(Integer.highestOneBit(expectedSize) << 2);
+        }
+
+        void increment(long key) {
+            int slot = slot(key);
+            if (!used[slot]) {
+                used[slot] = true;
+                keys[slot] = key;
+                if (++size > (mask >>> 1)) {
+                    rehash();
+                    slot = slot(key);
+                }
+            }
+            values[slot]++;
+        }
+
+        int get(long key) {
+            return values[slot(key)];
+        }
+
+        void put(long key, int value) {
+            values[slot(key)] = value;
+        }
+
+        int getAndIncrement(long key) {
+            return values[slot(key)]++;
+        }
+
+        long[] keys() {
+            long[] result = new long[size];
+            int index = 0;
+            for (int slot = 0; slot < used.length; slot++) {
+                if (used[slot]) {
+                    result[index++] = keys[slot];
+                }
+            }
+            return result;
+        }
+
+        private int slot(long key) {
+            int slot = (int) (key >>> BookSearchAnalyzer.FIELD_BITS) & mask;
+            while (used[slot] && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void allocate(int tableSize) {
+            keys = new long[tableSize];
+            values = new int[tableSize];
+            used = new boolean[tableSize];
+            mask = tableSize - 1;
+        }
+
+        private void rehash() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            boolean[] oldUsed = used;
+            allocate(oldKeys.length << 1);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) {
+                    int slot = slot(oldKeys[i]);
+                    used[slot] = true;
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+    }
+}
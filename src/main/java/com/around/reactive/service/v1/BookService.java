@@ -1,24 +1,49 @@
 package com.around.reactive.service.v1;
 
+import com.around.reactive.cache.BookCache;
 import com.around.reactive.dto.Book;
+import com.around.reactive.event.BookChangeFeed;
+import com.around.reactive.repository.BookUpdate;
+import com.around.reactive.repository.ReactiveBookRepository;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-
 @Service
 public class BookService {
+    private final ReactiveBookRepository bookRepository;
+    private final BookCache bookCache;
+    private final BookChangeFeed changeFeed;
+
+    /**
+     * 검색 색인과 저자별 집계는 BookChangeFeed의 listener로 갱신된다
+     */
+    public BookService(ReactiveBookRepository bookRepository, BookCache bookCache, BookChangeFeed changeFeed){
+        this.bookRepository = bookRepository;
+        this.bookCache = bookCache;
+        this.changeFeed = changeFeed;
+    }
 
     public Mono<Book> createBook(Book book){
-        return Mono.just(book);
+        return bookRepository.insert(book)
+                .doOnNext(changeFeed::publishCreated);
     }
 
+    /**
+     * ReactiveBookRepository.patch()로 변경된 필드만 덮어써서 저장한다 (version이 충돌하면 다시 조회해서 재시도)
+     */
     public Mono<Book> updateBook(Book book){
-        return Mono.just(book);
+        return bookRepository.patch(book.getBookId(), book)
+                .doOnNext(update -> {
+                    bookCache.invalidate(book.getBookId());
+                    changeFeed.publishUpdated(update.getPrevious(), update.getUpdated());
+                })
+                .map(BookUpdate::getUpdated);
     }
 
+    /**
+     * BookCache를 거쳐서 조회하기 때문에 같은 bookId의 동시 조회는 저장소를 한 번만 조회한다
+     */
     public Mono<Book> findBook(long bookId){
-        return Mono.just(new Book(bookId, "Java 고급", "Advanced Java", "Kevin", "111-11-1111-111-1", "Java 중급 프로그래밍 마스터", "2022-03-22", LocalDateTime.now(), LocalDateTime.now()));
+        return bookCache.get(bookId);
     }
 }
@@ -1,41 +1,205 @@
 package com.around.reactive.service.v2;
 
+import com.around.reactive.cache.BookCache;
 import com.around.reactive.dto.Book;
 import com.around.reactive.dto.BookDto;
+import com.around.reactive.event.BookChangeFeed;
 import com.around.reactive.mapper.v2.BookMapper;
+import com.around.reactive.repository.BookUpdate;
+import com.around.reactive.repository.DuplicateIsbnException;
+import com.around.reactive.repository.InvalidIsbnException;
+import com.around.reactive.repository.ReactiveBookRepository;
+import com.around.reactive.search.BookSearchIndex;
+import com.around.reactive.stats.BookAuthorStats;
+import com.around.reactive.stats.BookStats;
+import com.around.reactive.stats.BookStatsGroupBy;
+import com.around.reactive.stats.BookStatsMetric;
+import com.around.reactive.stats.InvalidStatsQueryException;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.time.LocalDateTime;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.LongStream;
 
 @Service("bookServiceV2")
 public class BookService {
+    private static final int BATCH_CONCURRENCY = 64;
+    private static final int BULK_BATCH_SIZE = 1_000;
+    private static final Duration BULK_BATCH_TIMEOUT = Duration.ofMillis(100);
+
+    private static final int MAX_SEARCH_LIMIT = 100;
+    private static final int MAX_STATS_LIMIT = 1_000;
+
     private final BookMapper bookMapper;
+    private final ReactiveBookRepository bookRepository;
+    private final BookCache bookCache;
+    private final BookChangeFeed changeFeed;
+    private final BookSearchIndex searchIndex;
+    private final BookAuthorStats authorStats;
+
+    /**
+     * searchIndex, authorStats는 조회에만 사용한다, 생성/수정 시의 갱신은 BookChangeFeed의 listener로 수행된다
+     */
     public BookService(
-            BookMapper bookMapper
+            BookMapper bookMapper,
+            ReactiveBookRepository bookRepository,
+            BookCache bookCache,
+            BookChangeFeed changeFeed,
+            BookSearchIndex searchIndex,
+            BookAuthorStats authorStats
     ){
         this.bookMapper = bookMapper;
+        this.bookRepository = bookRepository;
+        this.bookCache = bookCache;
+        this.changeFeed = changeFeed;
+        this.searchIndex = searchIndex;
+        this.authorStats = authorStats;
     }
 
     public Mono<Book> createBook(Mono<BookDto.Post> book){
-        return book.flatMap(post -> Mono.just(bookMapper.bookPostToBook(post)));
+        return book
+                .map(bookMapper::bookPostToBook)
+                .flatMap(bookRepository::insert)
+                .doOnNext(changeFeed::publishCreated);
     }
 
-    public Mono<Book> updateBook(final long bookId, Mono<BookDto.Patch> book){
-        return book.flatMap(patch -> {
-            patch.setBookId(bookId);
-            return Mono.just(bookMapper.bookPatchToBook(patch));
+    /**
+     * bufferTimeout()으로 BULK_BATCH_SIZE개가 모이거나 BULK_BATCH_TIMEOUT이 지나면 하나의 batch로 묶어서 저장한다
+     * concatMap()으로 batch를 순서대로 저장하고 저장된 batch 단위로 결과를 emit한다
+     * ISBN이 잘못되었거나 중복된 batch는 저장하지 않고 error를 채운 결과를 emit한 뒤 다음 batch를 계속 저장한다
+     * (앞의 batch 결과를 이미 응답했기 때문에 stream을 에러로 끝내면 클라이언트가 어느 도서가 저장되지 않았는지 알 수 없다)
+     */
+    public Flux<BookDto.BulkResponse> createBooks(Flux<BookDto.Post> books){
+        return Flux.defer(() -> {
+            long[] records = {0};
+            return books
+                    .map(bookMapper::bookPostToBook)
+                    .bufferTimeout(BULK_BATCH_SIZE, BULK_BATCH_TIMEOUT)
+                    .index()
+                    .concatMap(batch -> {
+                        long index = batch.getT1();
+                        List<Book> batchBooks = batch.getT2();
+                        long firstRecord = records[0];
+                        records[0] += batchBooks.size();
+                        return bookRepository.insertAll(batchBooks)
+                                .doOnNext(created -> created.forEach(changeFeed::publishCreated))
+                                .map(created -> bookMapper.booksToBulkResponse(index, firstRecord, created))
+                                .onErrorResume(BookService::isRejectedBatch, e -> Mono.just(
+                                        bookMapper.rejectedBatchToBulkResponse(index, firstRecord, batchBooks.size(),
+                                                e.getMessage())));
+                    });
         });
     }
 
-    public Mono<Book> findBook(Long bookId){
-        return Mono.just(
-                new Book(bookId, "Java 고급", "Advanced Java", "Kevin", "111-11-1111-111-1", "Java 중급 프로그래밍 마스터", "2022-03-22", LocalDateTime.now(), LocalDateTime.now())
-        );
+    /**
+     * ReactiveBookRepository.patch()로 변경된 필드만 덮어써서 저장한다 (version이 충돌하면 다시 조회해서 재시도)
+     */
+    public Mono<Book> updateBook(final long bookId, Mono<BookDto.Patch> book){
+        return book
+                .map(patch -> {
+                    patch.setBookId(bookId);
+                    return bookMapper.bookPatchToBook(patch);
+                })
+                .flatMap(changes -> bookRepository.patch(bookId, changes))
+                .doOnNext(update -> {
+                    bookCache.invalidate(bookId);
+                    changeFeed.publishUpdated(update.getPrevious(), update.getUpdated());
+                })
+                .map(BookUpdate::getUpdated);
+    }
+
+    /**
+     * BookCache를 거쳐서 조회하기 때문에 같은 bookId의 동시 조회는 저장소를 한 번만 조회한다
+     */
+    public Mono<Book> findBook(long bookId){
+        return bookCache.get(bookId);
+    }
+
+    /**
+     * 저장소의 IsbnIndex에서 bookId를 찾아서 조회한다 (ISBN-10/ISBN-13, 하이픈 무관)
+     */
+    public Mono<Book> findBookByIsbn(String isbn){
+        return bookRepository.findByIsbn(isbn);
+    }
+
+    /**
+     * 전달받은 bookId를 최대 BATCH_CONCURRENCY개씩 동시에 조회한다
+     * ordered가 true이면 flatMapSequential()로 요청 순서를 유지하고, false이면 조회가 끝나는 순서대로 emit한다
+     * 존재하지 않는 bookId는 결과에서 제외된다
+     */
+    public Flux<Book> findBooks(Flux<Long> bookIds, boolean ordered){
+        return ordered
+                ? bookIds.flatMapSequential(this::findBook, BATCH_CONCURRENCY)
+                : bookIds.flatMap(this::findBook, BATCH_CONCURRENCY);
     }
 
+    /**
+     * afterBookId 다음 도서부터 최대 limit개를 조회한다
+     * take(limit, true)로 upstream 요청 개수도 limit으로 제한한다
+     */
+    public Flux<Book> findBooksAfter(long afterBookId, long limit){
+        return bookRepository.findAllAfter(afterBookId).take(limit, true);
+    }
+
+    /**
+     * BookSearchIndex에서 점수 순서로 찾은 bookId를 flatMapSequential()로 조회해서 순위 순서대로 emit한다
+     * limit은 최대 MAX_SEARCH_LIMIT개로 제한하고, 0 이하이면 InvalidStatsQueryException(400)
+     */
+    public Flux<Book> searchBooks(String query, int limit){
+        if (limit <= 0) {
+            return Flux.error(invalidLimit(limit));
+        }
+        return Flux.defer(() -> {
+                    long[] bookIds = searchIndex.search(query, Math.min(limit, MAX_SEARCH_LIMIT));
+                    return Flux.fromStream(LongStream.of(bookIds).boxed());
+                })
+                .flatMapSequential(this::findBook, BATCH_CONCURRENCY);
+    }
 
+    /**
+     * 전체 도서를 groupBy로 집계해서 metric 값이 큰 순서대로 최대 limit개(MAX_STATS_LIMIT 이하)의 group을 emit한다
+     * limit이 0 이하이면 InvalidStatsQueryException(400)
+     */
+    public Flux<BookStats.Group> findStats(BookStatsGroupBy groupBy, BookStatsMetric metric, int limit){
+        if (limit <= 0) {
+            return Flux.error(invalidLimit(limit));
+        }
+        return bookRepository.aggregate(groupBy)
+                .flatMapIterable(stats -> stats.top(metric, Math.min(limit, MAX_STATS_LIMIT)));
+    }
 
+    /**
+     * afterPosition 다음부터 도서 생성/수정 이벤트를 emit한다 (null이면 구독 이후의 이벤트만)
+     */
+    public Flux<BookDto.Change> findChanges(String afterPosition){
+        return changeFeed.changes(afterPosition);
+    }
 
+    /**
+     * 저자별 materialized 집계를 metric 값이 큰 순서대로 최대 limit개 emit한다 (저장소를 scan하지 않는다)
+     * limit이 0 이하이면 InvalidStatsQueryException(400)
+     */
+    public Flux<BookStats.Group> findAuthorStats(BookStatsMetric metric, int limit){
+        if (limit <= 0) {
+            return Flux.error(invalidLimit(limit));
+        }
+        return Flux.defer(() -> Flux.fromIterable(authorStats.snapshot().top(metric, Math.min(limit, MAX_STATS_LIMIT))));
+    }
 
+    /**
+     * 저자 한 명의 materialized 집계, 도서가 없으면 empty
+     */
+    public Mono<BookStats.Group> findAuthorStats(String author){
+        return Mono.fromSupplier(() -> authorStats.find(author));
+    }
+
+    private static boolean isRejectedBatch(Throwable e) {
+        return e instanceof DuplicateIsbnException || e instanceof InvalidIsbnException;
+    }
+
+    private static InvalidStatsQueryException invalidLimit(int limit) {
+        return new InvalidStatsQueryException("limit must be positive: " + limit);
+    }
 }
@@ -0,0 +1,49 @@
+package com.around.reactive.service.v2;
+
+import com.around.reactive.dto.PriceDto;
+import com.around.reactive.event.PriceTickFeed;
+import com.around.reactive.stats.PriceRollup;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Set;
+
+@Service("priceServiceV2")
+public class PriceService {
+    private final PriceTickFeed tickFeed;
+
+    public PriceService(PriceTickFeed tickFeed) {
+        this.tickFeed = tickFeed;
+    }
+
+    /**
+     * 받아들이는 tick timestamp와 서버 시각의 최대 차이
+     */
+    public Duration maxClockSkew() {
+        return tickFeed.maxClockSkew();
+    }
+
+    /**
+     * 전달받은 tick을 순서대로 발행하고 모두 발행하면 완료한다
+     */
+    public Mono<Void> publishTicks(String symbol, Flux<PriceDto.Tick> ticks) {
+        return ticks.doOnNext(tick -> tickFeed.publish(symbol, tick)).then();
+    }
+
+    /**
+     * 구독 이후에 발행되는 tick을 구독자마다 PriceRollup 하나로 집계해서 닫힌 window를 emit한다
+     * slideMillis마다 (현재 시각 - maxClockSkew)를 watermark로 넘기기 때문에 tick이 끊긴 종목도 지난 window를 emit한다
+     * maxClockSkew만큼 늦게 찍힌 tick까지는 받아들이므로 watermark도 그만큼 늦춘다
+     * window 설정이 잘못되었다면 InvalidPriceWindowException으로 종료한다
+     */
+    public Flux<PriceDto.Window> findRollups(String symbol, long windowMillis, long slideMillis,
+                                             Set<PriceDto.WindowType> types) {
+        long allowedLateness = tickFeed.maxClockSkew().toMillis();
+        Flux<Long> watermarks = Flux.defer(() -> Flux.interval(Duration.ofMillis(slideMillis))
+                .map(notUse -> System.currentTimeMillis() - allowedLateness));
+        return PriceRollup.windows(tickFeed.ticks(symbol), watermarks,
+                () -> new PriceRollup(symbol, windowMillis, slideMillis, types));
+    }
+}
@@ -0,0 +1,160 @@
+package com.around.reactive.stats;
+
+import com.around.reactive.dto.Book;
+import com.around.reactive.event.BookChangeListener;
+import com.around.reactive.store.BookStore;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 저자별 도서 수와 가격 count/sum/min/max를 도서 생성/수정 시점에 갱신하는 materialized view
+ * - count / pricedCount / priceSum : LongAdder, 쓰기 경합은 cell로 분산되고 조회는 sum()으로 합친다
+ * - min / max : 저자별 가격 histogram을 저자 단위 lock 안에서 갱신해서 volatile로 공개한다, 가격이 있는 도서가 바뀔 때만 lock을 잡는다
+ * 가격은 카탈로그(BookStore)의 price 컬럼이고 bookId로 정해지기 때문에 수정은 저자가 바뀐 경우에만 반영한다
+ * 저자가 없는 도서는 집계하지 않는다, 전체 재계산은 verify()로 결과를 확인할 때만 사용한다
+ * 조회는 LongAdder.sum()처럼 동시에 진행 중인 갱신의 일부만 반영될 수 있다 (weakly consistent)
+ */
+public class BookAuthorStats implements BookChangeListener {
+    private final BookStore catalog;
+    private final ConcurrentMap<String, AuthorStats> authors = new ConcurrentHashMap<>();
+
+    public BookAuthorStats(BookStore catalog) {
+        this.catalog = catalog;
+    }
+
+    @Override
+    public void created(Book book) {
+        add(book.getAuthor(), price(book), 1);
+    }
+
+    @Override
+    public void updated(Book previous, Book updated) {
+        if (Objects.equals(previous.getAuthor(), updated.getAuthor())) {
+            return;
+        }
+        add(previous.getAuthor(), price(previous), -1);
+        add(updated.getAuthor(), price(updated), 1);
+    }
+
+    /**
+     * @return 저자의 도서가 없으면 null
+     */
+    public BookStats.Group find(String author) {
+        AuthorStats stats = authors.get(author);
+        return stats == null ? null : stats.toGroup(author);
+    }
+
+    public BookStats snapshot() {
+        List<BookStats.Group> groups = new ArrayList<>(authors.size());
+        authors.forEach((author, stats) -> {
+            BookStats.Group group = stats.toGroup(author);
+            if (group != null) {
+                groups.add(group);
+            }
+        });
+        return new BookStats(groups);
+    }
+
+    /**
+     * groupBy=AUTHOR로 전체 재계산한 결과와 비교한다 (저자가 없는 group은 제외)
+     * @return 값이 다른 저자별 설명, 같다면 빈 목록
+     */
+    public List<String> verify(BookStats recomputed) {
+        Map<String, BookStats.Group> expected = new HashMap<>();
+        for (BookStats.Group group : recomputed.groups()) {
+            if (group.getGroup() != null) {
+                expected.put(group.getGroup(), group);
+            }
+        }
+        List<String> differences = new ArrayList<>();
+        for (BookStats.Group actual : snapshot().groups()) {
+            BookStats.Group group = expected.remove(actual.getGroup());
+            if (!same(group, actual)) {
+                differences.add(actual.getGroup() + ": expected " + describe(group) + " but " + describe(actual));
+            }
+        }
+        expected.values().forEach(group -> differences.add(group.getGroup() + ": expected " + describe(group) + " but missing"));
+        return differences;
+    }
+
+    private void add(String author, int price, int delta) {
+        if (author != null) {
+            authors.computeIfAbsent(author, notUse -> new AuthorStats()).add(price, delta);
+        }
+    }
+
+    private int price(Book book) {
+        int price = catalog.price(book.getBookId());
+        return price == BookStore.NOT_FOUND ? GroupAccumulator.NO_PRICE : price;
+    }
+
+    private static boolean same(BookStats.Group expected, BookStats.Group actual) {
+        return expected != null && expected.getCount() == actual.getCount()
+                && expected.getPricedCount() == actual.getPricedCount() && expected.getSum() == actual.getSum()
+                && (expected.getPricedCount() == 0
+                || expected.getMin() == actual.getMin() && expected.getMax() == actual.getMax());
+    }
+
+    private static String describe(BookStats.Group group) {
+        return group == null ? "none" : String.format("count=%d, priced=%d, sum=%d, min=%d, max=%d",
+                group.getCount(), group.getPricedCount(), group.getSum(), group.getMin(), group.getMax());
+    }
+
+    /**
+     * 저자 한 명의 집계, 도서가 모두 다른 저자로 옮겨져도 동시에 추가되는 도서를 잃지 않도록 map에서 제거하지 않는다
+     */
+    private static final class AuthorStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder pricedCount = new LongAdder();
+        private final LongAdder priceSum = new LongAdder();
+        /**
+         * 가격 -> 도서 수, this로 보호한다
+         * 생성 이벤트보다 수정 이벤트가 먼저 반영되면 잠시 음수가 될 수 있다
+         */
+        private final TreeMap<Integer, Long> prices = new TreeMap<>();
+        private volatile int min;
+        private volatile int max;
+
+        void add(int price, int delta) {
+            count.add(delta);
+            if (price == GroupAccumulator.NO_PRICE) {
+                return;
+            }
+            pricedCount.add(delta);
+            priceSum.add((long) price * delta);
+            synchronized (this) {
+                prices.merge(price, (long) delta, (a, b) -> a + b == 0 ? null : a + b);
+                min = firstPositive(prices);
+                max = firstPositive(prices.descendingMap());
+            }
+        }
+
+        /**
+         * @return 도서가 없으면 null
+         */
+        BookStats.Group toGroup(String author) {
+            long count = this.count.sum();
+            if (count <= 0) {
+                return null;
+            }
+            return new BookStats.Group(author, count, pricedCount.sum(), priceSum.sum(), min, max);
+        }
+
+        private static int firstPositive(Map<Integer, Long> prices) {
+            for (Map.Entry<Integer, Long> entry : prices.entrySet()) {
+                if (entry.getValue() > 0) {
+                    return entry.getKey();
+                }
+            }
+            return 0;
+        }
+    }
+}
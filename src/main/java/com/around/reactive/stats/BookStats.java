@@ -0,0 +1,68 @@
+package com.around.reactive.stats;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 집계 결과, group별 도서 수와 가격 통계
+ */
+public final class BookStats {
+    private final List<Group> groups;
+
+    BookStats(List<Group> groups) {
+        this.groups = groups;
+    }
+
+    public List<Group> groups() {
+        return groups;
+    }
+
+    /**
+     * metric 값이 큰 순서(같으면 group 이름 순서, 값이 없는 group은 마지막)로 최대 limit개
+     */
+    public List<Group> top(BookStatsMetric metric, int limit) {
+        Comparator<Group> byValue = Comparator.comparing(group -> group.value(metric),
+                Comparator.nullsFirst(Comparator.comparingDouble(Number::doubleValue)));
+        return groups.stream()
+                .sorted(byValue.reversed().thenComparing(Group::getGroup, Comparator.nullsLast(Comparator.naturalOrder())))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Group {
+        private final String group;
+        private final long count;
+        /**
+         * 가격이 있는 도서 수, 가격 통계는 이 도서들로만 계산한다
+         */
+        private final long pricedCount;
+        private final long sum;
+        private final int min;
+        private final int max;
+
+        /**
+         * @return 가격이 있는 도서가 없다면 min/max/avg는 null
+         */
+        public Number value(BookStatsMetric metric) {
+            switch (metric) {
+                case COUNT:
+                    return count;
+                case SUM_PRICE:
+                    return sum;
+                default:
+                    if (pricedCount == 0) {
+                        return null;
+                    }
+                    return metric == BookStatsMetric.MIN_PRICE ? (Number) min
+                            : metric == BookStatsMetric.MAX_PRICE ? (Number) max
+                            : (Number) ((double) sum / pricedCount);
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.around.reactive.stats;
+
+import com.around.reactive.dto.Book;
+import com.around.reactive.store.BookStore;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 카탈로그 전체와 생성/수정된 도서를 group별로 집계한다
+ * - 카탈로그 : bookId 범위를 shard로 나누고 parallel(parallelism).runOn(scheduler)로 shard마다 GroupAccumulator를 채운 뒤 reduce()로 합친다
+ * - 생성/수정된 도서 : 저자 이름을 group key(long)로 바꾸면서 한 번 순회한다, 수정된 카탈로그 도서는 카탈로그 shard에서 건너뛴다
+ * shard는 parallelism보다 많이 만들어서 rail 사이의 처리량 차이를 줄인다
+ */
+public final class BookStatsEngine {
+    private static final int SHARDS_PER_RAIL = 4;
+    private static final int MIN_SHARD_SIZE = 1 << 14;
+
+    private final int parallelism;
+    private final Scheduler scheduler;
+
+    public BookStatsEngine(int parallelism, Scheduler scheduler) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        this.parallelism = parallelism;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * @param books catalog 위에 덮어쓴 생성/수정된 도서 (같은 bookId의 카탈로그 도서 대신 집계된다)
+     */
+    public Mono<BookStats> aggregate(BookStore catalog, Collection<Book> books, BookStatsGroupBy groupBy) {
+        // 생성/수정된 도서 전체를 복사하고 순회하므로 구독한 스레드(event loop)가 아니라 scheduler에서 만든다
+        return Mono.fromCallable(() -> new Overlay(catalog, books, groupBy))
+                .subscribeOn(scheduler)
+                .flatMap(overlay -> {
+                    int catalogSize = catalog.size();
+                    int targetShards = parallelism * SHARDS_PER_RAIL;
+                    int shardSize = Math.max(MIN_SHARD_SIZE, (catalogSize + targetShards - 1) / targetShards);
+                    int shards = (catalogSize + shardSize - 1) / shardSize;
+
+                    return Flux.range(0, shards)
+                            .parallel(parallelism)
+                            .runOn(scheduler)
+                            .map(shard -> scan(catalog, overlay.overriddenBookIds, groupBy,
+                                    (long) shard * shardSize + 1, Math.min((long) (shard + 1) * shardSize, catalogSize)))
+                            .reduce(GroupAccumulator::merge)
+                            .defaultIfEmpty(new GroupAccumulator())
+                            .map(accumulator -> overlay.toStats(accumulator.merge(overlay.accumulator)));
+                });
+    }
+
+    /**
+     * fromBookId ~ toBookId의 카탈로그 도서를 집계한다, overriddenBookIds(오름차순)의 도서는 건너뛴다
+     */
+    private static GroupAccumulator scan(BookStore catalog, long[] overriddenBookIds, BookStatsGroupBy groupBy,
+                                         long fromBookId, long toBookId) {
+        ShardScan scan = new ShardScan(overriddenBookIds, groupBy, fromBookId);
+        catalog.forEachPrice(fromBookId, toBookId, scan);
+        return scan.accumulator;
+    }
+
+    /**
+     * forEachPrice()는 bookId 오름차순으로 전달하기 때문에 overriddenBookIds는 cursor 하나로 따라가면서 확인한다
+     */
+    private static final class ShardScan implements BookStore.PriceConsumer {
+        private final GroupAccumulator accumulator = new GroupAccumulator();
+        private final long[] overriddenBookIds;
+        private final BookStatsGroupBy groupBy;
+        private int cursor;
+
+        ShardScan(long[] overriddenBookIds, BookStatsGroupBy groupBy, long fromBookId) {
+            this.overriddenBookIds = overriddenBookIds;
+            this.groupBy = groupBy;
+            int cursor = Arrays.binarySearch(overriddenBookIds, fromBookId);
+            this.cursor = cursor < 0 ? -cursor - 1 : cursor;
+        }
+
+        @Override
+        public void accept(long bookId, int price) {
+            while (cursor < overriddenBookIds.length && overriddenBookIds[cursor] < bookId) {
+                cursor++;
+            }
+            if (cursor < overriddenBookIds.length && overriddenBookIds[cursor] == bookId) {
+                return;
+            }
+            // 카탈로그 도서에는 저자가 없다
+            accumulator.add(groupBy == BookStatsGroupBy.PRICE ? price : GroupAccumulator.NO_GROUP, price);
+        }
+    }
+
+    /**
+     * 생성/수정된 도서의 집계 결과와 저자 이름 -> group key 사전
+     */
+    private static final class Overlay {
+        private final BookStatsGroupBy groupBy;
+        private final long[] overriddenBookIds;
+        private final GroupAccumulator accumulator = new GroupAccumulator();
+        private final List<String> authors = new ArrayList<>();
+
+        Overlay(BookStore catalog, Collection<Book> books, BookStatsGroupBy groupBy) {
+            this.groupBy = groupBy;
+            // 집계 중에 추가되는 도서 때문에 크기가 달라지지 않도록 먼저 복사한다
+            Book[] snapshot = books.toArray(new Book[0]);
+            Map<String, Integer> authorKeys = new HashMap<>();
+            long[] overridden = new long[snapshot.length];
+            int overriddenCount = 0;
+            for (Book book : snapshot) {
+                int price = catalog.price(book.getBookId());
+                if (price == BookStore.NOT_FOUND) {
+                    price = GroupAccumulator.NO_PRICE;
+                } else {
+                    overridden[overriddenCount++] = book.getBookId();
+                }
+                long key;
+                if (groupBy == BookStatsGroupBy.PRICE) {
+                    key = price == GroupAccumulator.NO_PRICE ? GroupAccumulator.NO_GROUP : price;
+                } else if (book.getAuthor() == null) {
+                    key = GroupAccumulator.NO_GROUP;
+                } else {
+                    key = authorKeys.computeIfAbsent(book.getAuthor(), author -> {
+                        authors.add(author);
+                        return authors.size() - 1;
+                    });
+                }
+                accumulator.add(key, price);
+            }
+            overriddenBookIds = Arrays.copyOf(overridden, overriddenCount);
+            Arrays.sort(overriddenBookIds);
+        }
+
+        BookStats toStats(GroupAccumulator merged) {
+            List<BookStats.Group> groups = new ArrayList<>(merged.size());
+            merged.forEach((key, count, pricedCount, sum, min, max) ->
+                    groups.add(new BookStats.Group(group(key), count, pricedCount, sum, min, max)));
+            return new BookStats(groups);
+        }
+
+        private String group(long key) {
+            if (key == GroupAccumulator.NO_GROUP) {
+                return null;
+            }
+            return groupBy == BookStatsGroupBy.PRICE ? String.valueOf(key) : authors.get((int) key);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.around.reactive.stats;
+
+import java.util.Locale;
+
+/**
+ * GET /v2/books/stats의 groupBy
+ * - AUTHOR : 저자별 (카탈로그 도서처럼 저자가 없는 도서는 group이 null)
+ * - PRICE : 카탈로그 가격별 (가격이 없는 생성된 도서는 group이 null)
+ */
+public enum BookStatsGroupBy {
+    AUTHOR,
+    PRICE;
+
+    public static BookStatsGroupBy from(String groupBy) {
+        try {
+            return valueOf(groupBy.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidStatsQueryException("unsupported groupBy: " + groupBy);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.around.reactive.stats;
+
+import java.util.Locale;
+
+/**
+ * GET /v2/books/stats의 metric, 가격은 카탈로그(BookStore)의 price 컬럼이다
+ * 저장소에 재고(stock) 컬럼이 없기 때문에 price * stock 같은 식은 지원하지 않는다
+ */
+public enum BookStatsMetric {
+    COUNT("count"),
+    SUM_PRICE("sum(price)"),
+    MIN_PRICE("min(price)"),
+    MAX_PRICE("max(price)"),
+    AVG_PRICE("avg(price)");
+
+    private final String expression;
+
+    BookStatsMetric(String expression) {
+        this.expression = expression;
+    }
+
+    public String expression() {
+        return expression;
+    }
+
+    /**
+     * 공백과 대소문자는 무시한다 ("SUM( price )" -> SUM_PRICE)
+     */
+    public static BookStatsMetric from(String metric) {
+        String normalized = metric.replace(" ", "").toLowerCase(Locale.ROOT);
+        for (BookStatsMetric value : values()) {
+            if (value.expression.equals(normalized)) {
+                return value;
+            }
+        }
+        throw new InvalidStatsQueryException("unsupported metric: " + metric
+                + ", supported: count, sum(price), min(price), max(price), avg(price)");
+    }
+}
@@ -0,0 +1,148 @@
+package com.around.reactive.stats;
+
+/**
+ * group key(long)별 도서 수와 가격 count/sum/min/max를 primitive 배열에 누적하는 open addressing 테이블
+ * count가 0인 slot을 빈 slot으로 사용하기 때문에 key는 음수(NO_GROUP)를 포함한 모든 long 값을 쓸 수 있다
+ * shard 하나를 한 thread가 채우고, 채운 뒤에는 merge()로만 합치기 때문에 동기화하지 않는다
+ */
+final class GroupAccumulator {
+    static final long NO_GROUP = -1;
+    static final int NO_PRICE = -1;
+
+    private long[] keys;
+    private long[] counts;
+    private long[] pricedCounts;
+    private long[] sums;
+    private int[] mins;
+    private int[] maxs;
+    private int size;
+    /**
+     * 카탈로그 scan은 같은 key가 연속되기 때문에 직전 slot을 먼저 확인한다
+     */
+    private int lastSlot = -1;
+
+    GroupAccumulator() {
+        allocate(16);
+    }
+
+    /**
+     * @param price 가격이 없는 도서라면 NO_PRICE (count에만 포함된다)
+     */
+    void add(long key, int price) {
+        int slot = slot(key);
+        counts[slot]++;
+        if (price != NO_PRICE) {
+            addPrice(slot, 1, price, price, price);
+        }
+    }
+
+    GroupAccumulator merge(GroupAccumulator other) {
+        for (int i = 0; i < other.keys.length; i++) {
+            if (other.counts[i] == 0) {
+                continue;
+            }
+            int slot = slot(other.keys[i]);
+            counts[slot] += other.counts[i];
+            if (other.pricedCounts[i] > 0) {
+                addPrice(slot, other.pricedCounts[i], other.sums[i], other.mins[i], other.maxs[i]);
+            }
+        }
+        return this;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void forEach(GroupConsumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (counts[i] != 0) {
+                consumer.accept(keys[i], counts[i], pricedCounts[i], sums[i], mins[i], maxs[i]);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface GroupConsumer {
+        void accept(long key, long count, long pricedCount, long sum, int min, int max);
+    }
+
+    private void addPrice(int slot, long pricedCount, long sum, int min, int max) {
+        if (pricedCounts[slot] == 0) {
+            mins[slot] = min;
+            maxs[slot] = max;
+        } else {
+            mins[slot] = Math.min(mins[slot], min);
+            maxs[slot] = Math.max(maxs[slot], max);
+        }
+        pricedCounts[slot] += pricedCount;
+        sums[slot] += sum;
+    }
+
+    /**
+     * key의 slot, 없으면 새로 만든다 (load factor 0.5를 넘으면 두 배로 늘린다)
+     */
+    private int slot(long key) {
+        if (lastSlot >= 0 && keys[lastSlot] == key) {
+            return lastSlot;
+        }
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (counts[slot] != 0) {
+            if (keys[slot] == key) {
+                lastSlot = slot;
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size + 1 > keys.length >>> 1) {
+            grow();
+            return slot(key);
+        }
+        keys[slot] = key;
+        size++;
+        lastSlot = slot;
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldCounts = counts;
+        long[] oldPricedCounts = pricedCounts;
+        long[] oldSums = sums;
+        int[] oldMins = mins;
+        int[] oldMaxs = maxs;
+        allocate(oldKeys.length << 1);
+        lastSlot = -1;
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldCounts[i] == 0) {
+                continue;
+            }
+            int slot = mix(oldKeys[i]) & mask;
+            while (counts[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            counts[slot] = oldCounts[i];
+            pricedCounts[slot] = oldPricedCounts[i];
+            sums[slot] = oldSums[i];
+            mins[slot] = oldMins[i];
+            maxs[slot] = oldMaxs[i];
+        }
+    }
+
+    private void allocate(int tableSize) {
+        keys = new long[tableSize];
+        counts = new long[tableSize];
+        pricedCounts = new long[tableSize];
+        sums = new long[tableSize];
+        mins = new int[tableSize];
+        maxs = new int[tableSize];
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
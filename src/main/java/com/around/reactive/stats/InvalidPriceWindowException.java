@@ -0,0 +1,11 @@
+package com.around.reactive.stats;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidPriceWindowException extends RuntimeException {
+    public InvalidPriceWindowException(String message) {
+        super(message);
+    }
+}
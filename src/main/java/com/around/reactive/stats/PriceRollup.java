@@ -0,0 +1,268 @@
+package com.around.reactive.stats;
+
+import com.around.reactive.dto.PriceDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * 가격 tick을 slideMillis 크기의 bucket으로 누적하고 windowMillis 구간의 count/sum/min/max/VWAP을 계산하는 rollup
+ * - bucket은 windowMillis / slideMillis개의 slot을 가진 ring buffer이고, slot마다 primitive 배열 컬럼에 누적한다 (window마다 Flux를 만들지 않는다)
+ * - SLIDING : bucket이 닫힐 때마다 최근 windowMillis 구간을 emit한다
+ * - TUMBLING : windowMillis 경계(epoch 기준)에서 닫힌 구간을 emit한다
+ * tick의 timestamp(event time) 기준이기 때문에 다음 bucket의 tick이 도착하거나, watermark가 경계를 지나거나, stream이 끝나야 window가 닫힌다
+ * 이미 닫힌 bucket이나 이미 emit한 window에 속하는 tick(늦게 도착한 tick)은 버리고 lateTicks()로 센다
+ * 한 구독(한 thread가 순서대로 호출)에서만 사용한다
+ */
+public final class PriceRollup {
+    public static final int MAX_BUCKETS = 10_000;
+    private static final long NONE = Long.MIN_VALUE;
+    private static final List<PriceDto.Window> NO_WINDOWS = Collections.emptyList();
+    private static final Object END = new Object();
+
+    private final String symbol;
+    private final long windowMillis;
+    private final long slideMillis;
+    private final boolean tumbling;
+    private final boolean sliding;
+
+    private final long[] starts;
+    private final long[] counts;
+    private final double[] sums;
+    private final double[] mins;
+    private final double[] maxs;
+    private final double[] notionals;
+    private final long[] volumes;
+    private long current = NONE;
+    private long emitted = NONE;
+    private long lateTicks;
+
+    public PriceRollup(String symbol, long windowMillis, long slideMillis, Set<PriceDto.WindowType> types) {
+        if (slideMillis <= 0 || windowMillis < slideMillis || windowMillis % slideMillis != 0
+                || windowMillis / slideMillis > MAX_BUCKETS) {
+            throw new InvalidPriceWindowException("window(" + windowMillis + "ms) must be a positive multiple of slide("
+                    + slideMillis + "ms), at most " + MAX_BUCKETS + " slides");
+        }
+        this.symbol = symbol;
+        this.windowMillis = windowMillis;
+        this.slideMillis = slideMillis;
+        this.tumbling = types.contains(PriceDto.WindowType.TUMBLING);
+        this.sliding = types.contains(PriceDto.WindowType.SLIDING);
+
+        int buckets = (int) (windowMillis / slideMillis);
+        starts = new long[buckets];
+        Arrays.fill(starts, NONE);
+        counts = new long[buckets];
+        sums = new double[buckets];
+        mins = new double[buckets];
+        maxs = new double[buckets];
+        notionals = new double[buckets];
+        volumes = new long[buckets];
+    }
+
+    /**
+     * @param types window type 이름 (대소문자 무관), null이거나 비어 있으면 모든 type
+     */
+    public static Set<PriceDto.WindowType> types(List<String> types) {
+        if (types == null || types.isEmpty()) {
+            return EnumSet.allOf(PriceDto.WindowType.class);
+        }
+        Set<PriceDto.WindowType> windowTypes = EnumSet.noneOf(PriceDto.WindowType.class);
+        for (String type : types) {
+            try {
+                windowTypes.add(PriceDto.WindowType.valueOf(type.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidPriceWindowException("unsupported window type: " + type);
+            }
+        }
+        return windowTypes;
+    }
+
+    /**
+     * ticks를 구독할 때마다 rollups가 만든 새 PriceRollup으로 집계해서 닫힌 window를 emit한다
+     * ticks가 완료되면 마지막 tick을 포함하는 나머지 window도 emit한다
+     */
+    public static Flux<PriceDto.Window> windows(Flux<PriceDto.Tick> ticks, Supplier<PriceRollup> rollups) {
+        return Flux.defer(() -> {
+            PriceRollup rollup = rollups.get();
+            return ticks
+                    .concatMapIterable(tick -> rollup.add(tick.getTimestamp(), tick.getPrice(), tick.getVolume()))
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(rollup.flush())));
+        });
+    }
+
+    /**
+     * windows(ticks, rollups)에 watermark(epoch millis)를 합친다, watermark가 지난 window는 tick이 더 오지 않아도 emit한다
+     * tick과 watermark는 merge로 한 줄로 세운 뒤 PriceRollup에 순서대로 전달하기 때문에 PriceRollup은 한 번에 한 thread만 호출한다
+     * ticks가 완료되면 watermarks 구독을 취소하고 나머지 window를 emit한다
+     */
+    public static Flux<PriceDto.Window> windows(Flux<PriceDto.Tick> ticks, Flux<Long> watermarks,
+                                                Supplier<PriceRollup> rollups) {
+        return Flux.defer(() -> {
+            PriceRollup rollup = rollups.get();
+            return Flux.merge(Flux.<Object>concat(ticks, Mono.just(END)), watermarks)
+                    .takeUntil(event -> event == END)
+                    .concatMapIterable(event -> {
+                        if (event == END) {
+                            return rollup.flush();
+                        }
+                        if (event instanceof PriceDto.Tick) {
+                            PriceDto.Tick tick = (PriceDto.Tick) event;
+                            return rollup.add(tick.getTimestamp(), tick.getPrice(), tick.getVolume());
+                        }
+                        return rollup.advance((Long) event);
+                    });
+        });
+    }
+
+    /**
+     * @return tick 때문에 닫힌 window, 대부분의 tick은 bucket을 넘기지 않기 때문에 빈 목록(공유 객체)을 돌려준다
+     */
+    public List<PriceDto.Window> add(long timestamp, double price, long volume) {
+        long bucket = timestamp - Math.floorMod(timestamp, slideMillis);
+        if (bucket < emitted) {
+            lateTicks++;
+            return NO_WINDOWS;
+        }
+        List<PriceDto.Window> closed = NO_WINDOWS;
+        if (current == NONE) {
+            open(bucket);
+        } else if (bucket > current) {
+            closed = close(bucket);
+            open(bucket);
+        } else if (bucket < current) {
+            lateTicks++;
+            return NO_WINDOWS;
+        }
+
+        int slot = slot(current);
+        if (counts[slot] == 0) {
+            mins[slot] = price;
+            maxs[slot] = price;
+        } else {
+            mins[slot] = Math.min(mins[slot], price);
+            maxs[slot] = Math.max(maxs[slot], price);
+        }
+        counts[slot]++;
+        sums[slot] += price;
+        notionals[slot] += price * volume;
+        volumes[slot] += volume;
+        return closed;
+    }
+
+    /**
+     * 마지막 tick을 포함하는 window 중 아직 emit하지 않은 window를 닫는다 (stream 종료 시점)
+     */
+    public List<PriceDto.Window> flush() {
+        if (current == NONE) {
+            return NO_WINDOWS;
+        }
+        List<PriceDto.Window> closed = close(current + windowMillis);
+        current = NONE;
+        return closed;
+    }
+
+    /**
+     * watermark 이전에 끝나는 window를 닫는다, 이후에 도착한 그 window의 tick은 늦게 도착한 tick으로 버린다
+     */
+    public List<PriceDto.Window> advance(long watermark) {
+        if (current == NONE) {
+            return NO_WINDOWS;
+        }
+        return close(watermark);
+    }
+
+    public long lateTicks() {
+        return lateTicks;
+    }
+
+    /**
+     * current bucket이 끝나는 경계(이미 emit한 경계 다음)부터 until까지의 경계에서 끝나는 window를 emit한다
+     * current bucket을 포함하지 않게 되는 경계 이후는 모두 비어 있으므로 순회하지 않는다
+     */
+    private List<PriceDto.Window> close(long until) {
+        List<PriceDto.Window> closed = NO_WINDOWS;
+        long lastBoundary = Math.min(until, current + windowMillis);
+        long end = Math.max(current, emitted) + slideMillis;
+        for (; end <= lastBoundary; end += slideMillis) {
+            if (tumbling && Math.floorMod(end, windowMillis) == 0) {
+                closed = append(closed, window(PriceDto.WindowType.TUMBLING, end));
+            }
+            if (sliding) {
+                closed = append(closed, window(PriceDto.WindowType.SLIDING, end));
+            }
+        }
+        emitted = end - slideMillis;
+        return closed;
+    }
+
+    private void open(long bucket) {
+        current = bucket;
+        int slot = slot(bucket);
+        starts[slot] = bucket;
+        counts[slot] = 0;
+        sums[slot] = 0;
+        notionals[slot] = 0;
+        volumes[slot] = 0;
+    }
+
+    /**
+     * [end - windowMillis, end) 구간의 bucket을 합친다, 비어 있으면 null
+     */
+    private PriceDto.Window window(PriceDto.WindowType type, long end) {
+        long start = end - windowMillis;
+        long count = 0;
+        double sum = 0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double notional = 0;
+        long volume = 0;
+        for (int slot = 0; slot < starts.length; slot++) {
+            if (counts[slot] == 0 || starts[slot] < start || starts[slot] >= end) {
+                continue;
+            }
+            count += counts[slot];
+            sum += sums[slot];
+            min = Math.min(min, mins[slot]);
+            max = Math.max(max, maxs[slot]);
+            notional += notionals[slot];
+            volume += volumes[slot];
+        }
+        if (count == 0) {
+            return null;
+        }
+        return PriceDto.Window.builder()
+                .symbol(symbol)
+                .type(type)
+                .start(start)
+                .end(end)
+                .count(count)
+                .sum(sum)
+                .min(min)
+                .max(max)
+                .vwap(volume == 0 ? sum / count : notional / volume)
+                .volume(volume)
+                .build();
+    }
+
+    private int slot(long bucket) {
+        return (int) Math.floorMod(bucket / slideMillis, (long) starts.length);
+    }
+
+    private static List<PriceDto.Window> append(List<PriceDto.Window> closed, PriceDto.Window window) {
+        if (window == null) {
+            return closed;
+        }
+        List<PriceDto.Window> windows = closed == NO_WINDOWS ? new ArrayList<>(2) : closed;
+        windows.add(window);
+        return windows;
+    }
+}
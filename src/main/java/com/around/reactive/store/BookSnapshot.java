@@ -0,0 +1,121 @@
+package com.around.reactive.store;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * OffHeapBookStore의 컬럼을 그대로 파일에 기록하고 FileChannel.map()으로 다시 여는 카탈로그 스냅샷
+ *
+ * 파일 구조 (little endian)
+ * - header (32 bytes) : magic, version, size, indexSlots, namesLength
+ * - ids (size * 8) / prices (size * 4) / nameOffsets (size * 4) / index (indexSlots * 4) / names (namesLength)
+ *
+ * 매핑된 파일은 page cache를 통해 읽기 때문에 같은 호스트의 여러 JVM이 하나의 스냅샷을 공유할 수 있다
+ */
+public final class BookSnapshot {
+    static final int MAGIC = 0x424B5331; // "BKS1"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+
+    private BookSnapshot() {
+    }
+
+    /**
+     * 임시 파일에 기록한 뒤 rename하기 때문에 다른 JVM이 기록 중인 스냅샷을 열지 않는다
+     * 기록이나 rename에 실패하면 임시 파일을 지운다
+     */
+    public static void write(OffHeapBookStore store, Path path) {
+        Path parent = path.toAbsolutePath().getParent();
+        Path temp;
+        try {
+            Files.createDirectories(parent);
+            temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to write book snapshot: " + path, e);
+        }
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer index = store.index();
+                ByteBuffer names = store.names();
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(OffHeapBookStore.ORDER)
+                        .putInt(MAGIC)
+                        .putInt(VERSION)
+                        .putInt(store.size())
+                        .putInt(index.remaining() / Integer.BYTES)
+                        .putInt(names.remaining())
+                        .position(HEADER_BYTES)
+                        .flip();
+                writeFully(channel, header);
+                writeFully(channel, store.ids());
+                writeFully(channel, store.prices());
+                writeFully(channel, store.nameOffsets());
+                writeFully(channel, index);
+                writeFully(channel, names);
+                channel.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            deleteTemp(temp, e);
+            throw new UncheckedIOException("failed to write book snapshot: " + path, e);
+        } catch (RuntimeException | Error e) {
+            deleteTemp(temp, e);
+            throw e;
+        }
+    }
+
+    public static OffHeapBookStore open(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES || fileSize > Integer.MAX_VALUE) {
+                throw new IllegalStateException("invalid book snapshot size: " + fileSize);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            mapped.order(OffHeapBookStore.ORDER);
+            if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION) {
+                throw new IllegalStateException("not a book snapshot: " + path);
+            }
+            int size = mapped.getInt(8);
+            int indexSlots = mapped.getInt(12);
+            int namesLength = mapped.getInt(16);
+            if (Integer.bitCount(indexSlots) != 1
+                    || fileSize != HEADER_BYTES + (long) size * 16 + (long) indexSlots * 4 + namesLength) {
+                throw new IllegalStateException("corrupted book snapshot: " + path);
+            }
+
+            int offset = HEADER_BYTES;
+            ByteBuffer ids = section(mapped, offset, size << 3);
+            ByteBuffer prices = section(mapped, offset += size << 3, size << 2);
+            ByteBuffer nameOffsets = section(mapped, offset += size << 2, size << 2);
+            ByteBuffer index = section(mapped, offset += size << 2, indexSlots << 2);
+            ByteBuffer names = section(mapped, offset + (indexSlots << 2), namesLength);
+            return new OffHeapBookStore(size, ids, prices, nameOffsets, index, names);
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to open book snapshot: " + path, e);
+        }
+    }
+
+    private static ByteBuffer section(MappedByteBuffer mapped, int offset, int length) {
+        return mapped.slice(offset, length).order(OffHeapBookStore.ORDER);
+    }
+
+    private static void deleteTemp(Path temp, Throwable cause) {
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
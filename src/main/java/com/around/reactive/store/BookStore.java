@@ -0,0 +1,51 @@
+package com.around.reactive.store;
+
+import com.around.reactive.dto.SimpleBook;
+
+/**
+ * 도서 카탈로그(bookId, name, price) 조회용 저장소
+ * long 타입의 bookId를 그대로 사용하기 때문에 조회 시 Long boxing이 발생하지 않는다
+ */
+public interface BookStore {
+    int NOT_FOUND = -1;
+
+    int size();
+
+    boolean contains(long bookId);
+
+    /**
+     * @return 도서 가격, 존재하지 않는 bookId라면 NOT_FOUND
+     */
+    int price(long bookId);
+
+    /**
+     * @return 도서명, 존재하지 않는 bookId라면 null
+     */
+    String name(long bookId);
+
+    default SimpleBook find(long bookId) {
+        String name = name(bookId);
+        if (name == null) {
+            return null;
+        }
+        return new SimpleBook(bookId, name, price(bookId));
+    }
+
+    /**
+     * fromBookId ~ toBookId 범위에 존재하는 도서의 가격을 bookId 오름차순으로 전달한다 (집계용 순차 scan)
+     * 기본 구현은 bookId마다 price()를 조회한다
+     */
+    default void forEachPrice(long fromBookId, long toBookId, PriceConsumer consumer) {
+        for (long bookId = fromBookId; bookId <= toBookId; bookId++) {
+            int price = price(bookId);
+            if (price != NOT_FOUND) {
+                consumer.accept(bookId, price);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface PriceConsumer {
+        void accept(long bookId, int price);
+    }
+}
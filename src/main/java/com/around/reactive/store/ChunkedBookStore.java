@@ -0,0 +1,119 @@
+package com.around.reactive.store;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 원본 카탈로그를 chunkSize 단위의 OffHeapBookStore 조각으로 나누어 백그라운드에서 병렬로 적재하는 BookStore
+ * 적재가 끝난 chunk에 속한 bookId는 off-heap 조각에서 바로 조회하고, 아직 적재되지 않은 bookId는 원본 카탈로그에서 on-demand로 조회한다
+ */
+public final class ChunkedBookStore implements BookStore {
+    private final BookStore source;
+    private final long firstBookId;
+    private final long lastBookId;
+    private final int chunkSize;
+    private final AtomicReferenceArray<OffHeapBookStore> chunks;
+    private final AtomicInteger loadedChunks = new AtomicInteger();
+    private final Sinks.Empty<Void> ready = Sinks.empty();
+
+    public ChunkedBookStore(BookStore source, long firstBookId, long lastBookId, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        this.source = source;
+        this.firstBookId = firstBookId;
+        this.lastBookId = lastBookId;
+        this.chunkSize = chunkSize;
+        this.chunks = new AtomicReferenceArray<>(Math.toIntExact((lastBookId - firstBookId) / chunkSize + 1));
+    }
+
+    /**
+     * 각 chunk를 scheduler에서 최대 parallelism개씩 동시에 적재한다
+     * 모든 chunk의 적재가 끝나면 ready()가 완료된다
+     */
+    public Mono<Void> load(Scheduler scheduler, int parallelism) {
+        return Flux.range(0, chunks.length())
+                .flatMap(chunk -> Mono.fromRunnable(() -> loadChunk(chunk)).subscribeOn(scheduler), parallelism)
+                .then()
+                .doOnSuccess(notUse -> ready.tryEmitEmpty())
+                .doOnError(ready::tryEmitError);
+    }
+
+    public Mono<Void> ready() {
+        return ready.asMono();
+    }
+
+    public boolean isReady() {
+        return loadedChunks.get() == chunks.length();
+    }
+
+    public int loadedChunks() {
+        return loadedChunks.get();
+    }
+
+    public int totalChunks() {
+        return chunks.length();
+    }
+
+    @Override
+    public int size() {
+        return source.size();
+    }
+
+    @Override
+    public boolean contains(long bookId) {
+        return storeFor(bookId).contains(bookId);
+    }
+
+    @Override
+    public int price(long bookId) {
+        return storeFor(bookId).price(bookId);
+    }
+
+    @Override
+    public String name(long bookId) {
+        return storeFor(bookId).name(bookId);
+    }
+
+    /**
+     * chunk 경계로 나눠서 적재된 chunk는 off-heap 조각에서, 나머지는 원본 카탈로그에서 순서대로 읽는다
+     */
+    @Override
+    public void forEachPrice(long fromBookId, long toBookId, PriceConsumer consumer) {
+        long bookId = fromBookId;
+        while (bookId <= toBookId) {
+            long end;
+            if (bookId < firstBookId) {
+                end = Math.min(toBookId, firstBookId - 1);
+            } else if (bookId > lastBookId) {
+                end = toBookId;
+            } else {
+                long chunkEnd = firstBookId + ((bookId - firstBookId) / chunkSize + 1) * chunkSize - 1;
+                end = Math.min(toBookId, Math.min(chunkEnd, lastBookId));
+            }
+            storeFor(bookId).forEachPrice(bookId, end, consumer);
+            bookId = end + 1;
+        }
+    }
+
+    private BookStore storeFor(long bookId) {
+        if (bookId < firstBookId || bookId > lastBookId) {
+            return source;
+        }
+        OffHeapBookStore chunk = chunks.get((int) ((bookId - firstBookId) / chunkSize));
+        return chunk != null ? chunk : source;
+    }
+
+    private void loadChunk(int chunk) {
+        long from = firstBookId + (long) chunk * chunkSize;
+        long to = Math.min(lastBookId, from + chunkSize - 1);
+        if (chunks.compareAndSet(chunk, null, OffHeapBookStore.copyOf(source, from, to))) {
+            loadedChunks.incrementAndGet();
+        }
+    }
+}
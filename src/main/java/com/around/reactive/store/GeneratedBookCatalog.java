@@ -0,0 +1,43 @@
+package com.around.reactive.store;
+
+/**
+ * bookId 1 ~ size 범위의 도서를 요청 시점에 계산해서 돌려주는 카탈로그 원본
+ * 적재가 끝나지 않은 bookId를 조회할 때 on-demand로 도서를 만들어 내는 용도로도 사용한다
+ */
+public final class GeneratedBookCatalog implements BookStore {
+    private static final int PRICE = 2000;
+
+    private final int size;
+
+    public GeneratedBookCatalog(int size) {
+        this.size = size;
+    }
+
+    public long firstBookId() {
+        return 1;
+    }
+
+    public long lastBookId() {
+        return size;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(long bookId) {
+        return bookId >= 1 && bookId <= size;
+    }
+
+    @Override
+    public int price(long bookId) {
+        return contains(bookId) ? PRICE : NOT_FOUND;
+    }
+
+    @Override
+    public String name(long bookId) {
+        return contains(bookId) ? "IT Book" + bookId : null;
+    }
+}
@@ -0,0 +1,369 @@
+package com.around.reactive.store;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Direct ByteBuffer(off-heap)에 컬럼 형태로 도서 카탈로그를 저장하는 BookStore
+ * - ids / prices / nameOffsets : 고정 길이 컬럼 (record 번호로 접근)
+ * - index : open addressing 방식의 bookId -> record 해시 테이블 (record + 1 저장, 0은 빈 슬롯)
+ * - names : [u16 길이][UTF-8 bytes] 형태로 저장되는 도서명 영역, 같은 도서명은 한 번만 저장(intern)된다
+ * bookId 오름차순으로 적재된 경우 forEachPrice()는 index를 거치지 않고 ids / prices 컬럼을 순서대로 읽는다
+ * 생성 이후에는 읽기 전용이며 절대 위치 get만 사용하기 때문에 여러 스레드에서 동시에 조회해도 안전하다
+ */
+public final class OffHeapBookStore implements BookStore {
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+    static final int MAX_NAME_BYTES = 0xFFFF;
+    private static final int EMPTY = 0;
+
+    private final int size;
+    private final int mask;
+    private final ByteBuffer ids;
+    private final ByteBuffer prices;
+    private final ByteBuffer nameOffsets;
+    private final ByteBuffer index;
+    private final ByteBuffer names;
+    private final boolean sortedByBookId;
+
+    OffHeapBookStore(int size, ByteBuffer ids, ByteBuffer prices, ByteBuffer nameOffsets,
+                     ByteBuffer index, ByteBuffer names) {
+        this.size = size;
+        this.mask = index.limit() / Integer.BYTES - 1;
+        this.ids = ids;
+        this.prices = prices;
+        this.nameOffsets = nameOffsets;
+        this.index = index;
+        this.names = names;
+        this.sortedByBookId = sortedByBookId(ids, size);
+    }
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    /**
+     * source에서 fromBookId ~ toBookId 범위에 존재하는 도서를 복사해서 OffHeapBookStore를 생성한다
+     */
+    public static OffHeapBookStore copyOf(BookStore source, long fromBookId, long toBookId) {
+        Builder builder = builder(Math.toIntExact(toBookId - fromBookId + 1));
+        for (long bookId = fromBookId; bookId <= toBookId; bookId++) {
+            String name = source.name(bookId);
+            if (name != null) {
+                builder.add(bookId, name, source.price(bookId));
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(long bookId) {
+        return record(bookId) != NOT_FOUND;
+    }
+
+    @Override
+    public int price(long bookId) {
+        int record = record(bookId);
+        return record == NOT_FOUND ? NOT_FOUND : prices.getInt(record << 2);
+    }
+
+    @Override
+    public String name(long bookId) {
+        int record = record(bookId);
+        return record == NOT_FOUND ? null : readName(names, nameOffsets.getInt(record << 2));
+    }
+
+    @Override
+    public void forEachPrice(long fromBookId, long toBookId, PriceConsumer consumer) {
+        if (!sortedByBookId) {
+            BookStore.super.forEachPrice(fromBookId, toBookId, consumer);
+            return;
+        }
+        for (int record = lowerBound(fromBookId); record < size; record++) {
+            long bookId = ids.getLong(record << 3);
+            if (bookId > toBookId) {
+                return;
+            }
+            consumer.accept(bookId, prices.getInt(record << 2));
+        }
+    }
+
+    /**
+     * 컬럼과 인덱스가 차지하는 off-heap 메모리 크기
+     */
+    public long offHeapBytes() {
+        return (long) ids.capacity() + prices.capacity() + nameOffsets.capacity()
+                + index.capacity() + names.capacity();
+    }
+
+    ByteBuffer ids() {
+        return ids.duplicate();
+    }
+
+    ByteBuffer prices() {
+        return prices.duplicate();
+    }
+
+    ByteBuffer nameOffsets() {
+        return nameOffsets.duplicate();
+    }
+
+    ByteBuffer index() {
+        return index.duplicate();
+    }
+
+    ByteBuffer names() {
+        return names.duplicate();
+    }
+
+    /**
+     * bookId 이상인 첫 번째 record (ids 컬럼 이진 탐색)
+     */
+    private int lowerBound(long bookId) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (ids.getLong(middle << 3) < bookId) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static boolean sortedByBookId(ByteBuffer ids, int size) {
+        for (int record = 1; record < size; record++) {
+            if (ids.getLong((record - 1) << 3) >= ids.getLong(record << 3)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int record(long bookId) {
+        return find(index, mask, ids, bookId);
+    }
+
+    private static int find(ByteBuffer index, int mask, ByteBuffer ids, long bookId) {
+        int slot = hash(bookId) & mask;
+        while (true) {
+            int entry = index.getInt(slot << 2);
+            if (entry == EMPTY) {
+                return NOT_FOUND;
+            }
+            int record = entry - 1;
+            if (ids.getLong(record << 3) == bookId) {
+                return record;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private static String readName(ByteBuffer names, int offset) {
+        byte[] bytes = new byte[names.getShort(offset) & MAX_NAME_BYTES];
+        names.get(offset + Short.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    static int tableSizeFor(int capacity) {
+        // load factor 0.5 이하를 유지한다
+        int tableSize = Integer.highestOneBit(Math.max(capacity, 1)) << 2;
+        if (tableSize <= 0) {
+            throw new IllegalArgumentException("capacity too large: " + capacity);
+        }
+        return tableSize;
+    }
+
+    static ByteBuffer allocate(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ORDER);
+    }
+
+    /**
+     * 단일 스레드에서 레코드를 추가한 후 build()로 읽기 전용 OffHeapBookStore를 생성한다
+     */
+    public static final class Builder {
+        private int capacity;
+        private int size;
+        private int mask;
+        private ByteBuffer ids;
+        private ByteBuffer prices;
+        private ByteBuffer nameOffsets;
+        private ByteBuffer index;
+        private ByteBuffer names;
+        private int namesLength;
+        private int[] internTable;
+
+        private Builder(int expectedSize) {
+            allocateColumns(Math.max(expectedSize, 16));
+            names = allocate(capacity * 16);
+        }
+
+        public Builder add(long bookId, String name, int price) {
+            if (ids == null) {
+                throw new IllegalStateException("store already built");
+            }
+            if (find(index, mask, ids, bookId) != NOT_FOUND) {
+                throw new IllegalArgumentException("duplicate bookId: " + bookId);
+            }
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > MAX_NAME_BYTES) {
+                throw new IllegalArgumentException("name too long: " + bytes.length + " bytes");
+            }
+            if (size == capacity) {
+                grow(capacity << 1);
+            }
+
+            ids.putLong(size << 3, bookId);
+            prices.putInt(size << 2, price);
+            nameOffsets.putInt(size << 2, intern(bytes));
+            insertIndex(bookId, size);
+            size++;
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public OffHeapBookStore build() {
+            OffHeapBookStore store = new OffHeapBookStore(size,
+                    trim(ids, size << 3),
+                    trim(prices, size << 2),
+                    trim(nameOffsets, size << 2),
+                    index,
+                    trim(names, namesLength));
+            ids = prices = nameOffsets = index = names = null;
+            internTable = null;
+            return store;
+        }
+
+        private void allocateColumns(int newCapacity) {
+            if (newCapacity > (Integer.MAX_VALUE >> 3)) {
+                throw new IllegalArgumentException("capacity too large: " + newCapacity);
+            }
+            int tableSize = tableSizeFor(newCapacity);
+            ids = resize(ids, size << 3, newCapacity << 3);
+            prices = resize(prices, size << 2, newCapacity << 2);
+            nameOffsets = resize(nameOffsets, size << 2, newCapacity << 2);
+            index = allocate(tableSize << 2);
+            internTable = new int[tableSize];
+            mask = tableSize - 1;
+            capacity = newCapacity;
+        }
+
+        private void grow(int newCapacity) {
+            allocateColumns(newCapacity);
+            for (int record = 0; record < size; record++) {
+                insertIndex(ids.getLong(record << 3), record);
+            }
+            int offset = 0;
+            while (offset < namesLength) {
+                int length = names.getShort(offset) & MAX_NAME_BYTES;
+                internTable[internSlot(nameHash(names, offset + Short.BYTES, length))] = offset + 1;
+                offset += Short.BYTES + length;
+            }
+        }
+
+        private void insertIndex(long bookId, int record) {
+            int slot = hash(bookId) & mask;
+            while (index.getInt(slot << 2) != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            index.putInt(slot << 2, record + 1);
+        }
+
+        private int intern(byte[] bytes) {
+            int slot = hashOf(bytes) & mask;
+            while (true) {
+                int entry = internTable[slot];
+                if (entry == EMPTY) {
+                    break;
+                }
+                if (sameName(entry - 1, bytes)) {
+                    return entry - 1;
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            int required = namesLength + Short.BYTES + bytes.length;
+            if (required < 0) {
+                throw new IllegalStateException("name region overflow");
+            }
+            if (required > names.capacity()) {
+                int newCapacity = (int) Math.min(Integer.MAX_VALUE, Math.max((long) names.capacity() << 1, required));
+                names = resize(names, namesLength, newCapacity);
+            }
+            int offset = namesLength;
+            names.putShort(offset, (short) bytes.length);
+            names.put(offset + Short.BYTES, bytes);
+            namesLength = required;
+            internTable[slot] = offset + 1;
+            return offset;
+        }
+
+        private int internSlot(int hash) {
+            int slot = hash & mask;
+            while (internTable[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private boolean sameName(int offset, byte[] bytes) {
+            if ((names.getShort(offset) & MAX_NAME_BYTES) != bytes.length) {
+                return false;
+            }
+            int start = offset + Short.BYTES;
+            for (int i = 0; i < bytes.length; i++) {
+                if (names.get(start + i) != bytes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int hashOf(byte[] bytes) {
+            int h = 1;
+            for (byte b : bytes) {
+                h = 31 * h + b;
+            }
+            return hash(h);
+        }
+
+        private static int nameHash(ByteBuffer names, int start, int length) {
+            int h = 1;
+            for (int i = 0; i < length; i++) {
+                h = 31 * h + names.get(start + i);
+            }
+            return hash(h);
+        }
+
+        private static ByteBuffer resize(ByteBuffer source, int length, int newCapacity) {
+            ByteBuffer target = allocate(newCapacity);
+            if (source != null && length > 0) {
+                target.put(0, source, 0, length);
+            }
+            return target;
+        }
+
+        private static ByteBuffer trim(ByteBuffer buffer, int length) {
+            return buffer.capacity() == length ? buffer : resize(buffer, length, length);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.around.reactive.reactive;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.around.reactive.filter.BookLogFilter;
+import com.around.reactive.log.AccessLog;
+import com.around.reactive.metrics.BookMetrics;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AccessLogTest {
+
+    /**
+     * ring buffer가 가득 차면 기다리지 않고 버리고 dropped로 세어야 한다
+     */
+    @Test
+    public void dropWhenFullTest(){
+        AccessLog accessLog = new AccessLog(4, 1, 256, Duration.ofSeconds(1));
+        for (int i = 0; i < 6; i++) {
+            accessLog.record("/v1/books/" + i, 200, 1_000, 10);
+        }
+
+        assertEquals(4, accessLog.recorded());
+        assertEquals(2, accessLog.dropped());
+    }
+
+    /**
+     * batchSize가 0 이하이면 flush가 끝나지 않으므로 만들 때 거부해야 한다
+     */
+    @Test
+    public void invalidBatchSizeTest(){
+        assertThrows(IllegalArgumentException.class, () -> new AccessLog(1_024, 1, 0, Duration.ofSeconds(1)));
+    }
+
+    /**
+     * 5xx 응답은 sampleRate와 상관없이 항상 기록되어야 한다
+     */
+    @Test
+    public void samplingTest(){
+        AccessLog accessLog = new AccessLog(1_024, Integer.MAX_VALUE, 256, Duration.ofSeconds(1));
+        for (int i = 0; i < 100; i++) {
+            accessLog.record("/v1/books/1", 500, 1_000, 10);
+        }
+
+        assertEquals(100, accessLog.recorded());
+        assertEquals(0, accessLog.dropped());
+    }
+
+    /**
+     * 핸들러가 던진 예외의 status는 filter 밖에서 설정되지만 access log에는 실제 응답 status(5xx)가 남아야 한다
+     */
+    @Test
+    public void errorStatusTest(){
+        AccessLog accessLog = new AccessLog(1_024, Integer.MAX_VALUE, 256, Duration.ofSeconds(1));
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        ((Logger) LoggerFactory.getLogger(AccessLog.class)).addAppender(appender);
+        WebTestClient client = WebTestClient.bindToController(new FailingController())
+                .webFilter(new BookLogFilter(accessLog, new BookMetrics()))
+                .build();
+
+        accessLog.start();
+        client.get().uri("/v1/books/fail").exchange().expectStatus().isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        client.get().uri("/v1/books/unavailable").exchange().expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        accessLog.stop();
+
+        assertEquals(2, accessLog.recorded());
+        String lines = appender.list.stream().map(ILoggingEvent::getFormattedMessage).collect(Collectors.joining());
+        assertTrue(lines.contains("path: /v1/books/fail, status: 500"), lines);
+        assertTrue(lines.contains("path: /v1/books/unavailable, status: 503"), lines);
+    }
+
+    @RestController
+    static class FailingController {
+        @GetMapping("/v1/books/fail")
+        public Mono<String> fail(){
+            return Mono.error(new IllegalStateException("fail"));
+        }
+
+        @GetMapping("/v1/books/unavailable")
+        public Mono<String> unavailable(){
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.around.reactive.reactive;
+
+import com.around.reactive.cache.BookBatchLoader;
+import com.around.reactive.cache.BookCache;
+import com.around.reactive.config.BookCacheConfiguration;
+import com.around.reactive.dto.Book;
+import com.around.reactive.repository.InMemoryBookRepository;
+import com.around.reactive.repository.ReactiveBookRepository;
+import com.around.reactive.store.GeneratedBookCatalog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BookBatchLoaderTest {
+    private final InMemoryBookRepository repository = new InMemoryBookRepository(new GeneratedBookCatalog(1_000));
+    private final BookBatchLoader loader = new BookBatchLoader(repository::findAllById, 100, Duration.ofMillis(50));
+
+    @AfterEach
+    public void tearDown(){
+        loader.dispose();
+    }
+
+    /**
+     * 동시에 들어온 250건은 batchSize(100) 단위로 3번만 bulk 조회되고, 각 요청은 자기 bookId의 도서를 받아야 한다
+     */
+    @Test
+    public void batchTest(){
+        StepVerifier
+                .create(Flux.range(1, 250)
+                        .flatMap(bookId -> loader.load(bookId).map(book -> book.getBookId() == bookId), 250)
+                        .all(matched -> matched))
+                .expectNext(true)
+                .verifyComplete();
+
+        assertEquals(250, loader.requests());
+        assertEquals(3, loader.batches());
+    }
+
+    /**
+     * 존재하지 않는 bookId는 empty로 완료되어야 한다
+     */
+    @Test
+    public void missingBookTest(){
+        StepVerifier
+                .create(Mono.zip(loader.load(7).map(Book::getBookId), loader.load(5_000).map(Book::getBookId).defaultIfEmpty(-1L)))
+                .expectNextMatches(result -> result.getT1() == 7 && result.getT2() == -1)
+                .verifyComplete();
+    }
+
+    /**
+     * batch-size가 기본값(1)이면 BookBatchLoader를 만들지 않고, 1보다 클 때만 만들어야 한다
+     */
+    @Test
+    public void conditionalBeanTest(){
+        ApplicationContextRunner runner = new ApplicationContextRunner()
+                .withBean(ReactiveBookRepository.class, () -> repository)
+                .withUserConfiguration(BookCacheConfiguration.class);
+
+        runner.run(context -> {
+            assertEquals(1, context.getBeansOfType(BookCache.class).size());
+            assertEquals(0, context.getBeansOfType(BookBatchLoader.class).size());
+        });
+        runner.withPropertyValues("book.cache.batch-size=64").run(context -> {
+            assertEquals(1, context.getBeansOfType(BookCache.class).size());
+            assertEquals(1, context.getBeansOfType(BookBatchLoader.class).size());
+        });
+    }
+}
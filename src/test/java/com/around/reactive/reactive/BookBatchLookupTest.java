@@ -0,0 +1,68 @@
+package com.around.reactive.reactive;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class BookBatchLookupTest {
+    private final WebTestClient client = new BookFixture().v2Client();
+
+    /**
+     * JSON 배열이든 NDJSON이든 ordered=true면 요청한 순서대로, 없는 bookId는 건너뛰고 응답해야 한다
+     */
+    @Test
+    public void orderedTest(){
+        Assertions.assertEquals(List.of(3L, 1L, 2L), lookup(MediaType.APPLICATION_JSON, "[3, 1000, 1, 2]", true));
+        Assertions.assertEquals(List.of(3L, 1L, 2L), lookup(MediaType.APPLICATION_NDJSON, "3\n1000\n1\n2\n", true));
+    }
+
+    /**
+     * ordered=false면 조회가 끝난 순서대로 응답하므로 순서와 상관없이 있는 도서만 모두 받아야 한다
+     */
+    @Test
+    public void unorderedTest(){
+        for (MediaType contentType : List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_NDJSON)) {
+            String body = contentType.equals(MediaType.APPLICATION_JSON)
+                    ? "[30, 1000, 10, 20, 2000]"
+                    : "30\n1000\n10\n20\n2000\n";
+            List<Long> bookIds = lookup(contentType, body, false);
+            Assertions.assertEquals(3, bookIds.size());
+            Assertions.assertEquals(Set.of(10L, 20L, 30L), Set.copyOf(bookIds));
+        }
+    }
+
+    /**
+     * Accept가 application/json이면 NDJSON이 아니라 JSON 배열 하나로 응답해야 한다
+     */
+    @Test
+    public void jsonArrayResponseTest(){
+        client.post().uri("/v2/books/batch?ordered=true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue("[2, 1000, 1]")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].bookId").isEqualTo(2)
+                .jsonPath("$[1].bookId").isEqualTo(1);
+    }
+
+    private List<Long> lookup(MediaType contentType, String body, boolean ordered) {
+        List<JsonNode> books = client.post().uri("/v2/books/batch?ordered=" + ordered)
+                .contentType(contentType)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(JsonNode.class).returnResult().getResponseBody();
+        return books.stream().map(book -> book.get("bookId").asLong()).collect(Collectors.toList());
+    }
+}
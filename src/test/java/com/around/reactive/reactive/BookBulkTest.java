@@ -0,0 +1,120 @@
+package com.around.reactive.reactive;
+
+import com.around.reactive.dto.BookDto;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+public class BookBulkTest {
+    private final BookFixture fixture = new BookFixture();
+    private final WebTestClient client = fixture.v2Client();
+
+    /**
+     * 1,000개씩 batch로 나눠서 저장하고, batch마다 연속된 bookId 범위를 응답하고, 도서마다 change feed에 발행해야 한다
+     */
+    @Test
+    public void bulkTest(){
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 2_500; i++) {
+            body.append("{\"titleKorean\":\"대량 등록 ").append(i).append("\",\"author\":\"Bulk\"}\n");
+        }
+
+        List<JsonNode> results = post(body.toString());
+
+        Assertions.assertEquals(3, results.size());
+        assertBatch(results.get(0), 0, 0, 1_000, null);
+        assertBatch(results.get(1), 1, 1_000, 1_000, null);
+        assertBatch(results.get(2), 2, 2_000, 500, null);
+        long firstBookId = BookFixture.CATALOG_SIZE + 1;
+        for (int i = 0; i < results.size(); i++) {
+            Assertions.assertEquals(firstBookId + i * 1_000L, results.get(i).get("firstBookId").asLong());
+            Assertions.assertEquals(firstBookId + i * 1_000L + results.get(i).get("count").asInt() - 1,
+                    results.get(i).get("lastBookId").asLong());
+        }
+
+        Assertions.assertEquals(2_500, fixture.changeFeed.sequence());
+        Assertions.assertEquals(2_500, fixture.authorStats.find("Bulk").getCount());
+        client.get().uri("/v2/books/" + (firstBookId + 2_499)).exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.titleKorean").isEqualTo("대량 등록 2499");
+    }
+
+    /**
+     * batch가 다 차지 않아도 BULK_BATCH_TIMEOUT(100ms) 동안 다음 도서가 오지 않으면 모인 만큼 저장해야 한다
+     */
+    @Test
+    public void batchTimeoutTest() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        BookDto.Post post = objectMapper.readValue("{\"titleKorean\":\"천천히 등록\"}", BookDto.Post.class);
+        Flux<BookDto.Post> posts = Flux.just(post, post, post)
+                .concatWith(Flux.just(post, post).delaySubscription(Duration.ofMillis(500)));
+
+        StepVerifier.create(fixture.bookService.createBooks(posts))
+                .assertNext(result -> {
+                    Assertions.assertEquals(3, result.getCount());
+                    Assertions.assertEquals(BookFixture.CATALOG_SIZE + 1, result.getFirstBookId());
+                    Assertions.assertEquals(BookFixture.CATALOG_SIZE + 3, result.getLastBookId());
+                })
+                .assertNext(result -> {
+                    Assertions.assertEquals(1, result.getBatch());
+                    Assertions.assertEquals(3, result.getFirstRecord());
+                    Assertions.assertEquals(2, result.getCount());
+                })
+                .verifyComplete();
+        Assertions.assertEquals(5, fixture.changeFeed.sequence());
+    }
+
+    /**
+     * 중복 ISBN이 있는 batch는 저장하지 않고 error가 있는 결과로 알린 뒤 다음 batch를 계속 저장해야 한다
+     */
+    @Test
+    public void rejectedBatchTest(){
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 2_500; i++) {
+            String isbn = i == 1_000 || i == 1_500 ? ",\"isbn\":\"9780306406157\"" : "";
+            body.append("{\"titleKorean\":\"대량 등록 ").append(i).append("\"").append(isbn).append("}\n");
+        }
+
+        List<JsonNode> results = post(body.toString());
+
+        Assertions.assertEquals(3, results.size());
+        assertBatch(results.get(0), 0, 0, 1_000, null);
+        assertBatch(results.get(1), 1, 1_000, 1_000, "isbn 9780306406157 is already registered to book ");
+        assertBatch(results.get(2), 2, 2_000, 500, null);
+        Assertions.assertEquals(0, results.get(1).get("firstBookId").asLong());
+        Assertions.assertEquals(2_101, results.get(2).get("firstBookId").asLong());
+
+        // 거부된 batch의 도서는 저장되지 않았으므로 ISBN을 다시 사용할 수 있다
+        client.get().uri("/v2/books/isbn/9780306406157").exchange().expectStatus().isNotFound();
+        Assertions.assertEquals(1_500, fixture.changeFeed.sequence());
+    }
+
+    private List<JsonNode> post(String body) {
+        return client.post().uri("/v2/books/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBodyList(JsonNode.class).returnResult().getResponseBody();
+    }
+
+    private static void assertBatch(JsonNode result, long batch, long firstRecord, int count, String error) {
+        Assertions.assertEquals(batch, result.get("batch").asLong(), result.toString());
+        Assertions.assertEquals(firstRecord, result.get("firstRecord").asLong(), result.toString());
+        Assertions.assertEquals(count, result.get("count").asInt(), result.toString());
+        if (error == null) {
+            Assertions.assertTrue(result.get("error").isNull(), result.toString());
+        } else {
+            Assertions.assertTrue(result.get("error").asText().startsWith(error), result.toString());
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.around.reactive.reactive;
+
+import com.around.reactive.cache.BookCache;
+import com.around.reactive.dto.Book;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BookCacheTest {
+    private final AtomicInteger loads = new AtomicInteger();
+    private final AtomicLong now = new AtomicLong(1);
+
+    /**
+     * 적재가 끝나기 전에 같은 bookId를 조회하면 진행 중인 적재 결과를 함께 받아야 한다
+     */
+    @Test
+    public void coalescedMissTest(){
+        BookCache cache = cache(100, id -> Mono.delay(Duration.ofMillis(100)).map(tick -> book(id)));
+
+        StepVerifier
+                .create(Mono.zip(cache.get(1), cache.get(1), cache.get(1)))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().getMisses());
+        assertEquals(2, cache.stats().getHits());
+        assertEquals(2, cache.stats().getCoalesced());
+    }
+
+    /**
+     * refreshAfterWrite가 지나면 기존 값을 응답하면서 요청 스레드가 아닌 곳에서 다시 적재하고, expireAfterWrite가 지나면 miss로 처리해야 한다
+     */
+    @Test
+    public void refreshAndExpireTest() throws InterruptedException {
+        Set<Thread> loaderThreads = ConcurrentHashMap.newKeySet();
+        BookCache cache = cache(100, id -> Mono.fromSupplier(() -> {
+            loaderThreads.add(Thread.currentThread());
+            return book(id);
+        }));
+        cache.get(1).block();
+
+        now.addAndGet(Duration.ofSeconds(2).toNanos());
+        cache.get(1).block();
+        for (int i = 0; i < 100 && cache.stats().getLoads() < 2; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.stats().getRefreshes());
+        assertEquals(2, loaderThreads.size());
+
+        now.addAndGet(Duration.ofSeconds(20).toNanos());
+        cache.get(1).block();
+        assertEquals(3, loads.get());
+        assertEquals(2, cache.stats().getMisses());
+    }
+
+    /**
+     * invalidate() 전에 시작된 적재에 이후의 miss가 합류하거나 그 결과가 캐싱되면 안 된다
+     */
+    @Test
+    public void invalidateInFlightTest(){
+        AtomicLong version = new AtomicLong(1);
+        BookCache cache = cache(100, id -> {
+            long loadedVersion = version.get();
+            return Mono.delay(Duration.ofMillis(100)).map(tick -> book(id, loadedVersion));
+        });
+
+        Mono<Book> stale = cache.get(1);
+        stale.subscribe();
+        version.set(2);
+        cache.invalidate(1);
+
+        assertEquals(2, cache.get(1).block().getVersion());
+        assertEquals(1, stale.block().getVersion());
+        assertEquals(2, cache.get(1).block().getVersion());
+        assertEquals(2, loads.get());
+    }
+
+    /**
+     * 존재하지 않는 bookId는 캐싱하지 않아야 한다
+     */
+    @Test
+    public void emptyNotCachedTest(){
+        BookCache cache = cache(100, id -> Mono.empty());
+
+        StepVerifier.create(cache.get(1)).verifyComplete();
+        StepVerifier.create(cache.get(1)).verifyComplete();
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+
+    /**
+     * 자주 조회되는 bookId는 한 번씩만 조회되는 bookId 사이에 섞여 들어와도 제거되지 않아야 한다
+     * (hot bookId의 재조회 간격이 cache 크기보다 커서 LRU라면 매번 miss가 발생하는 패턴)
+     */
+    @Test
+    public void frequencyAdmissionTest(){
+        BookCache cache = cache(100, id -> Mono.just(book(id)));
+        long cold = 1_000;
+        for (int i = 0; i < 10_000; i++) {
+            cache.get(1 + i % 50).block();
+            cache.get(cold++).block();
+            cache.get(cold++).block();
+        }
+
+        int loadsBefore = loads.get();
+        for (int i = 0; i < 1_000; i++) {
+            cache.get(1 + i % 50).block();
+            cache.get(cold++).block();
+            cache.get(cold++).block();
+        }
+        assertTrue(loads.get() - loadsBefore <= 2_000 + 5, "hot books reloaded: " + (loads.get() - loadsBefore - 2_000));
+        assertTrue(cache.size() <= 100);
+    }
+
+    /**
+     * main 영역에 들어간 뒤 다시 조회된 항목은 빈도가 더 높은 새 항목이 들어와도 한 번은 남아야 한다 (second chance)
+     */
+    @Test
+    public void secondChanceTest(){
+        BookCache cache = cache(100, id -> Mono.just(book(id)));
+        for (long bookId = 1; bookId <= 100; bookId++) {
+            cache.get(bookId).block();
+        }
+        for (long bookId = 1; bookId <= 50; bookId++) {
+            cache.get(bookId).block();
+        }
+        for (long bookId = 1_001; bookId <= 1_010; bookId++) {
+            for (int i = 0; i < 3; i++) {
+                cache.get(bookId).block();
+            }
+        }
+
+        int loadsBefore = loads.get();
+        for (long bookId = 1; bookId <= 50; bookId++) {
+            cache.get(bookId).block();
+        }
+        assertEquals(loadsBefore, loads.get());
+    }
+
+    private BookCache cache(long maximumSize, LongFunction<Mono<Book>> loader) {
+        return new BookCache(id -> {
+            loads.incrementAndGet();
+            return loader.apply(id);
+        }, maximumSize, Duration.ofSeconds(10), Duration.ofSeconds(1), now::get);
+    }
+
+    private static Book book(long bookId) {
+        return book(bookId, 1);
+    }
+
+    private static Book book(long bookId, long version) {
+        return new Book(bookId, "IT Book" + bookId, null, null, null, null, null, null, null, version);
+    }
+}
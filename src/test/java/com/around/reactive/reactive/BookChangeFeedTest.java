@@ -0,0 +1,171 @@
+package com.around.reactive.reactive;
+
+import com.around.reactive.dto.Book;
+import com.around.reactive.dto.BookDto;
+import com.around.reactive.event.BookChangeExpiredException;
+import com.around.reactive.event.BookChangeFeed;
+import com.around.reactive.event.InvalidChangePositionException;
+import com.around.reactive.search.BookSearchIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BookChangeFeedTest {
+    private final BookChangeFeed changeFeed = new BookChangeFeed(5, BookChangeFeed.Backpressure.DROP_OLDEST, 2);
+
+    /**
+     * after 다음 sequence부터 보관된 이벤트를 받고, 이후 발행되는 이벤트를 이어서 받아야 한다
+     */
+    @Test
+    public void resumeTest(){
+        publish(1);
+        publish(2);
+        publish(3);
+
+        StepVerifier
+                .create(changeFeed.changes(changeFeed.position(1)).map(BookDto.Change::getPosition))
+                .expectNext(changeFeed.position(2), changeFeed.position(3))
+                .then(() -> publish(4))
+                .expectNext(changeFeed.position(4))
+                .thenCancel()
+                .verify();
+    }
+
+    /**
+     * 보관 범위를 벗어난 sequence부터 이어서 받으려고 하면 BookChangeExpiredException이 발생해야 한다
+     */
+    @Test
+    public void expiredTest(){
+        for (int i = 1; i <= 10; i++) {
+            publish(i);
+        }
+
+        StepVerifier
+                .create(changeFeed.changes(changeFeed.position(2)))
+                .expectError(BookChangeExpiredException.class)
+                .verify();
+    }
+
+    /**
+     * 구독자가 이벤트를 받은 시점에는 listener(검색 색인)가 이미 생성/수정된 내용을 반영하고 있어야 한다
+     */
+    @Test
+    public void listenerTest(){
+        BookSearchIndex searchIndex = new BookSearchIndex();
+        BookChangeFeed changeFeed = new BookChangeFeed(5, BookChangeFeed.Backpressure.DROP_OLDEST, 2,
+                List.of(searchIndex));
+        Book created = new Book(1, "자바 입문", null, null, null, null, null, null, null, 1);
+        Book updated = new Book(1, "코틀린 입문", null, null, null, null, null, null, null, 2);
+
+        StepVerifier
+                .create(changeFeed.changes(null))
+                .then(() -> changeFeed.publishCreated(created))
+                .assertNext(change -> {
+                    assertEquals(BookDto.ChangeType.CREATED, change.getType());
+                    assertArrayEquals(new long[]{1}, searchIndex.search("자바", 10));
+                })
+                .then(() -> changeFeed.publishUpdated(created, updated))
+                .assertNext(change -> {
+                    assertEquals(BookDto.ChangeType.UPDATED, change.getType());
+                    assertArrayEquals(new long[0], searchIndex.search("자바", 10));
+                    assertArrayEquals(new long[]{1}, searchIndex.search("코틀린", 10));
+                })
+                .thenCancel()
+                .verify();
+    }
+
+    /**
+     * 재시작 전의 feed에서 받은 position은 지금 feed에 그 sequence의 이벤트가 있더라도 BookChangeExpiredException이 발생해야 한다
+     */
+    @Test
+    public void restartedTest(){
+        BookChangeFeed previous = new BookChangeFeed(5, BookChangeFeed.Backpressure.DROP_OLDEST, 2);
+        for (int i = 1; i <= 3; i++) {
+            publish(i);
+        }
+
+        StepVerifier
+                .create(changeFeed.changes(previous.position(2)))
+                .expectError(BookChangeExpiredException.class)
+                .verify();
+        StepVerifier
+                .create(changeFeed.changes(changeFeed.position(7)))
+                .expectError(BookChangeExpiredException.class)
+                .verify();
+    }
+
+    @Test
+    public void invalidPositionTest(){
+        for (String position : List.of("2", "abc-2", changeFeed.position(1) + "x", "-2")) {
+            StepVerifier
+                    .create(changeFeed.changes(position))
+                    .expectError(InvalidChangePositionException.class)
+                    .verify();
+        }
+    }
+
+    /**
+     * GET /v2/books/changes : 형식이 잘못된 after는 400, 다른 epoch의 after는 410
+     */
+    @Test
+    public void changesEndpointTest(){
+        WebTestClient client = new BookFixture().v2Client();
+
+        client.get().uri("/v2/books/changes?after=3").accept(MediaType.APPLICATION_NDJSON).exchange()
+                .expectStatus().isBadRequest();
+        client.get().uri("/v2/books/changes?after=" + changeFeed.position(0)).accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.GONE);
+    }
+
+    /**
+     * buffer가 retention보다 작아도 이어서 받는 구독자는 보관된 이벤트를 하나도 잃지 않아야 한다
+     */
+    @Test
+    public void slowResumeTest(){
+        for (int i = 1; i <= 5; i++) {
+            publish(i);
+        }
+
+        StepVerifier
+                .create(changeFeed.changes(changeFeed.position(0)).map(BookDto.Change::getSequence), 0)
+                .thenRequest(5)
+                .expectNext(1L, 2L, 3L, 4L, 5L)
+                .thenCancel()
+                .verify();
+
+        assertEquals(0, changeFeed.dropped());
+    }
+
+    /**
+     * 요청하지 않는 구독자가 있어도 발행은 멈추지 않고, buffer를 넘는 이벤트는 가장 오래된 것부터 버려져야 한다
+     */
+    @Test
+    public void slowSubscriberTest(){
+        StepVerifier
+                .create(changeFeed.changes(null).map(BookDto.Change::getSequence), 0)
+                .then(() -> {
+                    for (int i = 1; i <= 10; i++) {
+                        publish(i);
+                    }
+                })
+                .thenRequest(2)
+                .expectNext(9L, 10L)
+                .thenCancel()
+                .verify();
+
+        assertEquals(10, changeFeed.sequence());
+        assertEquals(8, changeFeed.dropped());
+    }
+
+    private void publish(long bookId) {
+        changeFeed.publishCreated(new Book(bookId, "IT Book" + bookId, null, null, null, null, null, null, null, 1));
+    }
+}
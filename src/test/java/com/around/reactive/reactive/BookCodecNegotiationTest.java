@@ -0,0 +1,107 @@
+package com.around.reactive.reactive;
+
+import com.around.reactive.codec.BookMediaTypes;
+import com.around.reactive.config.BookCodecConfiguration;
+import com.around.reactive.controller.BookCacheHeaders;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+public class BookCodecNegotiationTest {
+    private final WebTestClient client = new BookFixture().v2()
+            .httpMessageCodecs(new BookCodecConfiguration(Jackson2ObjectMapperBuilder.json().build())::configureHttpMessageCodecs)
+            .build();
+
+    /**
+     * Accept 헤더에 따라 같은 도서를 JSON, CBOR, Smile로 응답하고 binary 응답도 ETag를 유지해야 한다
+     */
+    @Test
+    public void acceptTest() throws Exception {
+        JsonNode json = read(Jackson2ObjectMapperBuilder.json().build(), MediaType.APPLICATION_JSON);
+        JsonNode cbor = read(Jackson2ObjectMapperBuilder.cbor().build(), MediaType.APPLICATION_CBOR);
+        JsonNode smile = read(Jackson2ObjectMapperBuilder.smile().build(), BookMediaTypes.APPLICATION_SMILE);
+
+        Assertions.assertEquals(json, cbor);
+        Assertions.assertEquals(json, smile);
+
+        client.get().uri("/v2/books/5").accept(MediaType.APPLICATION_CBOR)
+                .header("If-None-Match", BookCacheHeaders.etag(5, 1)).exchange()
+                .expectStatus().isNotModified();
+    }
+
+    /**
+     * ETag가 media type과 상관없이 같으므로 304를 포함한 도서 조회 응답에는 Vary: Accept가 있어야 한다
+     */
+    @Test
+    public void varyTest() {
+        client.patch().uri("/v2/books/5").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"isbn\":\"9780306406157\"}").exchange()
+                .expectStatus().isOk();
+
+        for (String uri : new String[]{"/v2/books/5", "/v2/books/isbn/9780306406157"}) {
+            client.get().uri(uri).accept(MediaType.APPLICATION_CBOR).exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().valueEquals("Vary", "Accept");
+
+            client.get().uri(uri).accept(MediaType.APPLICATION_JSON)
+                    .header("If-None-Match", BookCacheHeaders.etag(5, 2)).exchange()
+                    .expectStatus().isNotModified()
+                    .expectHeader().valueEquals("Vary", "Accept");
+        }
+    }
+
+    /**
+     * CBOR 요청 body로 도서를 생성하고 CBOR로 응답해야 한다
+     */
+    @Test
+    public void cborPostTest() throws Exception {
+        ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+        byte[] body = cborMapper.writeValueAsBytes(cborMapper.createObjectNode()
+                .put("titleKorean", "CBOR 입문").put("author", "Kevin"));
+
+        byte[] response = client.post().uri("/v2/books")
+                .contentType(MediaType.APPLICATION_CBOR).accept(MediaType.APPLICATION_CBOR)
+                .bodyValue(body).exchange()
+                .expectStatus().isCreated()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectBody(byte[].class).returnResult().getResponseBody();
+
+        JsonNode book = cborMapper.readTree(response);
+        Assertions.assertEquals("CBOR 입문", book.get("titleKorean").asText());
+        Assertions.assertEquals("Kevin", book.get("author").asText());
+    }
+
+    /**
+     * Accept 헤더가 없는 요청은 binary codec이 등록되어 있어도 JSON으로 응답해야 한다
+     */
+    @Test
+    public void jsonByDefaultTest() {
+        client.post().uri("/v2/books").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"titleKorean\":\"JSON 입문\"}").exchange()
+                .expectStatus().isCreated()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().jsonPath("$.titleKorean").isEqualTo("JSON 입문");
+
+        client.patch().uri("/v2/books/5").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"author\":\"Kevin\"}").exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON);
+
+        client.get().uri("/v2/books/5").exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON);
+    }
+
+    private JsonNode read(ObjectMapper objectMapper, MediaType mediaType) throws Exception {
+        byte[] body = client.get().uri("/v2/books/5").accept(mediaType).exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(mediaType)
+                .expectHeader().valueEquals("ETag", BookCacheHeaders.etag(5, 1))
+                .expectBody(byte[].class).returnResult().getResponseBody();
+        return objectMapper.readTree(body);
+    }
+}
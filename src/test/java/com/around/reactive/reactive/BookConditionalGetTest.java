@@ -0,0 +1,43 @@
+package com.around.reactive.reactive;
+
+import com.around.reactive.controller.BookCacheHeaders;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+public class BookConditionalGetTest {
+    private final WebTestClient client = new BookFixture().v2Client();
+
+    /**
+     * ETag가 같으면 body 없이 304, 도서가 수정되어 version이 바뀌면 200으로 응답해야 한다
+     */
+    @Test
+    public void ifNoneMatchTest(){
+        client.get().uri("/v2/books/5").exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", BookCacheHeaders.etag(5, 1))
+                .expectHeader().exists("Last-Modified");
+
+        client.get().uri("/v2/books/5").header("If-None-Match", BookCacheHeaders.etag(5, 1)).exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+
+        client.patch().uri("/v2/books/5").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"author\":\"Kevin\"}").exchange()
+                .expectStatus().isOk();
+
+        client.get().uri("/v2/books/5").header("If-None-Match", BookCacheHeaders.etag(5, 1)).exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", BookCacheHeaders.etag(5, 2));
+    }
+
+    /**
+     * 재시작 전의 process가 준 ETag는 bookId와 version이 같아도 304로 응답하지 않아야 한다
+     */
+    @Test
+    public void restartedTest(){
+        client.get().uri("/v2/books/5").header("If-None-Match", "W/\"5-1\"").exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", BookCacheHeaders.etag(5, 1));
+    }
+}
@@ -0,0 +1,57 @@
+package com.around.reactive.reactive;
+
+import com.around.reactive.cache.BookCache;
+import com.around.reactive.controller.v2.BookController;
+import com.around.reactive.controller.v3.BookHandler;
+import com.around.reactive.controller.v3.BookRouter;
+import com.around.reactive.event.BookChangeFeed;
+import com.around.reactive.log.AccessLog;
+import com.around.reactive.mapper.v2.bookMapperV2;
+import com.around.reactive.repository.InMemoryBookRepository;
+import com.around.reactive.search.BookSearchIndex;
+import com.around.reactive.service.v2.BookService;
+import com.around.reactive.stats.BookAuthorStats;
+import com.around.reactive.store.GeneratedBookCatalog;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 애플리케이션 설정과 같은 방식으로 연결한 v2 BookService (카탈로그 CATALOG_SIZE권, 검색 색인과 저자별 집계는 change feed listener)
+ * 테스트마다 새로 만들어서 저장소 상태를 공유하지 않는다
+ */
+final class BookFixture {
+    static final int CATALOG_SIZE = 100;
+
+    final GeneratedBookCatalog catalog = new GeneratedBookCatalog(CATALOG_SIZE);
+    final InMemoryBookRepository repository = new InMemoryBookRepository(catalog);
+    final BookSearchIndex searchIndex = new BookSearchIndex();
+    final BookAuthorStats authorStats = new BookAuthorStats(catalog);
+    final BookChangeFeed changeFeed = new BookChangeFeed(100, BookChangeFeed.Backpressure.DROP_OLDEST, 16,
+            List.of(searchIndex, authorStats));
+    final BookService bookService = new BookService(new bookMapperV2(), repository,
+            new BookCache(repository::findById, CATALOG_SIZE, Duration.ofMinutes(10), Duration.ofMinutes(1)),
+            changeFeed, searchIndex, authorStats);
+
+    /**
+     * /v2/books, codec이나 WebFilter를 추가하려면 build() 전에 설정한다
+     */
+    WebTestClient.ControllerSpec v2() {
+        return WebTestClient.bindToController(new BookController(bookService, new bookMapperV2()));
+    }
+
+    WebTestClient v2Client() {
+        return v2().build();
+    }
+
+    /**
+     * /v3/books 함수형 endpoint
+     */
+    WebTestClient v3Client(AccessLog accessLog) {
+        return WebTestClient
+                .bindToRouterFunction(new BookRouter().bookRouterV3(new BookHandler(bookService, new bookMapperV2()),
+                        accessLog))
+                .build();
+    }
+}
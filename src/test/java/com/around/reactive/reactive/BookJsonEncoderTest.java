@@ -0,0 +1,80 @@
+package com.around.reactive.reactive;
+
+import com.around.reactive.codec.BookJsonEncoder;
+import com.around.reactive.dto.Book;
+import com.around.reactive.dto.BookDto;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BookJsonEncoderTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * BookJsonEncoder의 결과는 Jackson으로 직렬화한 BookDto.Response와 같은 JSON이어야 한다
+     */
+    @Test
+    public void sameAsJacksonTest() throws Exception {
+        Book book = new Book(-1234567890123L, "자바 \"고급\" 😀", "Advanced\\Java", "line\nbreak\ttab\u0001",
+                null, "111-11-1111-111-1", "2022-03-22", LocalDateTime.now(), LocalDateTime.now(), 3);
+
+        DataBuffer buffer = new BookJsonEncoder().encodeValue(book, new DefaultDataBufferFactory(),
+                ResolvableType.forClass(Book.class), MediaType.APPLICATION_JSON, Collections.emptyMap());
+        String json = buffer.toString(StandardCharsets.UTF_8);
+
+        BookDto.Response response = BookDto.Response.builder()
+                .bookId(book.getBookId())
+                .titleKorean(book.getTitleKorean())
+                .titleEnglish(book.getTitleEnglish())
+                .description(book.getDescription())
+                .author(book.getAuthor())
+                .isbn(book.getIsbn())
+                .publishDate(book.getPublishDate())
+                .build();
+        assertEquals(objectMapper.readTree(objectMapper.writeValueAsString(response)), objectMapper.readTree(json));
+    }
+
+    /**
+     * Flux<Book>은 첫 번째 도서만이 아니라 전체 도서를 JSON 배열로 기록해야 한다
+     */
+    @Test
+    public void fluxArrayTest() throws Exception {
+        Flux<Book> books = Flux.range(1, 3).map(bookId -> new Book(bookId, "자바 " + bookId, null, null, null, null,
+                null, null, null, 1));
+
+        String json = DataBufferUtils.join(new BookJsonEncoder().encode(books, new DefaultDataBufferFactory(),
+                        ResolvableType.forClass(Book.class), MediaType.APPLICATION_JSON, Collections.emptyMap()))
+                .map(buffer -> buffer.toString(StandardCharsets.UTF_8))
+                .block();
+
+        assertEquals(3, objectMapper.readTree(json).size());
+        assertEquals("자바 3", objectMapper.readTree(json).get(2).get("titleKorean").asText());
+        assertEquals("[]", DataBufferUtils.join(new BookJsonEncoder().encode(Flux.empty(), new DefaultDataBufferFactory(),
+                        ResolvableType.forClass(Book.class), MediaType.APPLICATION_JSON, Collections.emptyMap()))
+                .map(buffer -> buffer.toString(StandardCharsets.UTF_8))
+                .block());
+    }
+
+    /**
+     * null 필드를 제외하는 것처럼 ObjectMapper 설정 때문에 결과가 달라지면 sameAs()가 false여야 한다
+     */
+    @Test
+    public void sameAsTest() {
+        assertTrue(new BookJsonEncoder().sameAs(objectMapper));
+        assertFalse(new BookJsonEncoder().sameAs(new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL)));
+    }
+}
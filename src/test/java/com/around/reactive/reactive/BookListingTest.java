@@ -0,0 +1,27 @@
+package com.around.reactive.reactive;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Map;
+
+public class BookListingTest {
+    private final WebTestClient client = new BookFixture().v2Client();
+
+    /**
+     * after 다음 bookId부터 limit개를 NDJSON으로 응답하고, 음수 limit은 400으로 거절해야 한다
+     */
+    @Test
+    public void limitTest(){
+        client.get().uri("/v2/books?after=10&limit=3").accept(MediaType.APPLICATION_NDJSON).exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Map.class).hasSize(3);
+
+        client.get().uri("/v2/books?limit=-1").accept(MediaType.APPLICATION_NDJSON).exchange()
+                .expectStatus().isBadRequest();
+
+        client.get().uri("/v2/books?limit=-1").accept(MediaType.TEXT_EVENT_STREAM).exchange()
+                .expectStatus().isBadRequest();
+    }
+}
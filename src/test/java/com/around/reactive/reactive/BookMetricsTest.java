@@ -0,0 +1,63 @@
+package com.around.reactive.reactive;
+
+import com.around.reactive.dto.MetricsDto;
+import com.around.reactive.filter.BookLogFilter;
+import com.around.reactive.log.AccessLog;
+import com.around.reactive.metrics.BookMetrics;
+import com.around.reactive.repository.BookVersionConflictException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BookMetricsTest {
+
+    /**
+     * 예외로 끝난 요청은 200이 아니라 예외의 status class로 집계되어야 한다
+     */
+    @Test
+    public void errorStatusTest(){
+        BookMetrics bookMetrics = new BookMetrics();
+        WebTestClient client = WebTestClient.bindToController(new StatusController())
+                .webFilter(new BookLogFilter(new AccessLog(1_024, 1, 256, Duration.ofSeconds(1)), bookMetrics))
+                .build();
+
+        client.get().uri("/v1/books/1").exchange().expectStatus().isOk();
+        client.get().uri("/v1/books/404").exchange().expectStatus().isNotFound();
+        client.get().uri("/v1/books/409").exchange().expectStatus().isEqualTo(HttpStatus.CONFLICT);
+        client.get().uri("/v1/books/500").exchange().expectStatus().isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+
+        Map<String, Long> counts = bookMetrics.snapshot().getRoutes().stream()
+                .filter(route -> route.getRoute().equals("/v1/books/{book-id}"))
+                .collect(Collectors.toMap(MetricsDto.Route::getStatus, MetricsDto.Route::getCount));
+        assertEquals(Map.of("2xx", 1L, "4xx", 2L, "5xx", 1L), counts);
+        assertEquals(0, bookMetrics.inFlight());
+    }
+
+    @RestController
+    static class StatusController {
+        @GetMapping("/v1/books/{book-id}")
+        public Mono<String> getBook(@PathVariable("book-id") long bookId){
+            if (bookId == 404) {
+                return Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND));
+            }
+            if (bookId == 409) {
+                return Mono.error(new BookVersionConflictException(bookId, 1));
+            }
+            if (bookId == 500) {
+                return Mono.error(new IllegalStateException("fail"));
+            }
+            return Mono.just("book");
+        }
+    }
+}
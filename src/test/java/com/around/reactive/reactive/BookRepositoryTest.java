@@ -0,0 +1,142 @@
+package com.around.reactive.reactive;
+
+import com.around.reactive.dto.Book;
+import com.around.reactive.repository.BookVersionConflictException;
+import com.around.reactive.repository.InMemoryBookRepository;
+import com.around.reactive.store.GeneratedBookCatalog;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BookRepositoryTest {
+    private final InMemoryBookRepository repository = new InMemoryBookRepository(new GeneratedBookCatalog(100));
+
+    /**
+     * 카탈로그에 없는 bookId부터 순서대로 할당되고 version 1로 저장되어야 한다
+     */
+    @Test
+    public void insertTest(){
+        StepVerifier
+                .create(repository.insert(book(0, "Java 고급", 0)).then(repository.findById(101)))
+                .expectNextMatches(book -> book.getTitleKorean().equals("Java 고급") && book.getVersion() == 1)
+                .verifyComplete();
+    }
+
+    /**
+     * 카탈로그 도서를 수정하면 version이 증가하고, 이전 version으로 다시 수정하면 충돌이 발생해야 한다
+     */
+    @Test
+    public void optimisticUpdateTest(){
+        StepVerifier
+                .create(repository.update(book(7, "Advanced Java", 1)))
+                .expectNextMatches(book -> book.getVersion() == 2 && book.getCreatedAt() != null)
+                .verifyComplete();
+
+        StepVerifier
+                .create(repository.update(book(7, "Reactive Java", 1)))
+                .expectError(BookVersionConflictException.class)
+                .verify();
+
+        StepVerifier
+                .create(repository.findById(7).map(Book::getTitleKorean))
+                .expectNext("Advanced Java")
+                .verifyComplete();
+    }
+
+    /**
+     * request(n)으로 요청한 개수만큼만 after 다음 bookId부터 순서대로 emit하고, 마지막 도서 이후에는 완료되어야 한다
+     */
+    @Test
+    public void findAllAfterTest(){
+        StepVerifier
+                .create(repository.findAllAfter(97).map(Book::getBookId), 0)
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(10))
+                .thenRequest(2)
+                .expectNext(98L, 99L)
+                .thenRequest(1)
+                .expectNext(100L)
+                .thenRequest(1)
+                .verifyComplete();
+    }
+
+    /**
+     * 할당만 되고 아직 저장되지 않은 bookId가 있으면 그 뒤의 도서를 emit하지 않아야 한다
+     * (emit하면 마지막으로 받은 bookId부터 이어서 조회하는 클라이언트가 그 도서를 놓친다)
+     */
+    @Test
+    public void pendingInsertTest() throws Exception {
+        CountDownLatch reserved = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger isbnReads = new AtomicInteger();
+        // insertAll()은 bookId를 할당한 뒤 ISBN을 등록하면서 getIsbn()을 두 번째로 호출한다
+        Book slow = new Book(0, "Slow", "Slow", null, "Kevin", null, null, null, null, 0) {
+            @Override
+            public String getIsbn() {
+                if (isbnReads.incrementAndGet() == 2) {
+                    reserved.countDown();
+                    awaitQuietly(release);
+                }
+                return null;
+            }
+        };
+        CompletableFuture<List<Book>> pending = CompletableFuture.supplyAsync(() -> repository.insertAll(List.of(slow)).block());
+        Assertions.assertTrue(reserved.await(5, TimeUnit.SECONDS));
+
+        Assertions.assertEquals(102, repository.insert(book(0, "Fast", 0)).block().getBookId());
+        StepVerifier
+                .create(repository.findAllAfter(100).map(Book::getBookId))
+                .verifyComplete();
+
+        release.countDown();
+        Assertions.assertEquals(101, pending.get(5, TimeUnit.SECONDS).get(0).getBookId());
+        StepVerifier
+                .create(repository.findAllAfter(100).map(Book::getBookId))
+                .expectNext(101L, 102L)
+                .verifyComplete();
+    }
+
+    /**
+     * patch()는 null이 아닌 필드만 덮어쓰고 수정 전 도서를 함께 돌려줘야 한다
+     */
+    @Test
+    public void patchTest(){
+        StepVerifier
+                .create(repository.patch(7, new Book(7, null, "Advanced Java", null, null, null, null, null, null, 0)))
+                .expectNextMatches(update -> update.getPrevious().getVersion() == 1
+                        && update.getUpdated().getVersion() == 2
+                        && update.getUpdated().getTitleEnglish().equals("Advanced Java")
+                        && update.getUpdated().getTitleKorean().equals(update.getPrevious().getTitleKorean()))
+                .verifyComplete();
+
+        StepVerifier
+                .create(repository.patch(1_000, book(1_000, "Advanced Java", 0)))
+                .verifyComplete();
+    }
+
+    @Test
+    public void missingBookTest(){
+        StepVerifier
+                .create(repository.update(book(1_000, "Advanced Java", 1)))
+                .verifyComplete();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Book book(long bookId, String title, long version){
+        return new Book(bookId, title, title, null, "Kevin", null, null, null, null, version);
+    }
+}
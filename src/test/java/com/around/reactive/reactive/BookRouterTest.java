@@ -0,0 +1,104 @@
+package com.around.reactive.reactive;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.around.reactive.controller.BookCacheHeaders;
+import com.around.reactive.log.AccessLog;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class BookRouterTest {
+    private final AccessLog accessLog = new AccessLog(1_024, 1, 256, Duration.ofSeconds(1));
+    private final WebTestClient client = new BookFixture().v3Client(accessLog);
+
+    /**
+     * ETag가 같으면 304, PATCH로 version이 바뀌면 새 ETag로 200을 응답해야 한다
+     */
+    @Test
+    public void getAndPatchTest(){
+        client.get().uri("/v3/books/5").exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", BookCacheHeaders.etag(5, 1))
+                .expectBody().jsonPath("$.bookId").isEqualTo(5);
+
+        client.get().uri("/v3/books/5").header("If-None-Match", BookCacheHeaders.etag(5, 1)).exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+
+        client.patch().uri("/v3/books/5").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"author\":\"Kevin\"}").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.author").isEqualTo("Kevin");
+
+        client.get().uri("/v3/books/5").header("If-None-Match", BookCacheHeaders.etag(5, 1)).exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", BookCacheHeaders.etag(5, 2));
+    }
+
+    @Test
+    public void postTest(){
+        client.post().uri("/v3/books").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"titleKorean\":\"함수형 endpoint\",\"author\":\"Kevin\"}").exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.bookId").isEqualTo(101)
+                .jsonPath("$.titleKorean").isEqualTo("함수형 endpoint");
+    }
+
+    /**
+     * 없는 bookId는 건너뛰고 요청한 순서대로 NDJSON으로 응답해야 한다
+     */
+    @Test
+    public void batchTest(){
+        List<JsonNode> books = client.post().uri("/v3/books/batch?ordered=true").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("[3, 1000, 1, 2]").exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(JsonNode.class).returnResult().getResponseBody();
+
+        Assertions.assertEquals(List.of(3L, 1L, 2L),
+                books.stream().map(book -> book.get("bookId").asLong()).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void notFoundAndBadRequestTest(){
+        client.get().uri("/v3/books/1000").exchange().expectStatus().isNotFound();
+        client.patch().uri("/v3/books/1000").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"author\":\"Kevin\"}").exchange()
+                .expectStatus().isNotFound();
+        client.get().uri("/v3/books/abc").exchange().expectStatus().isBadRequest();
+    }
+
+    /**
+     * 핸들러가 ServerResponse를 만든 시점이 아니라 실제로 보낸 응답의 status와 bytes가 access log에 남아야 한다
+     */
+    @Test
+    public void accessLogTest(){
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        ((Logger) LoggerFactory.getLogger(AccessLog.class)).addAppender(appender);
+
+        accessLog.start();
+        client.get().uri("/v3/books/5").exchange().expectStatus().isOk();
+        client.get().uri("/v3/books/5").header("If-None-Match", BookCacheHeaders.etag(5, 1)).exchange().expectStatus().isNotModified();
+        client.get().uri("/v3/books/1000").exchange().expectStatus().isNotFound();
+        client.get().uri("/v3/books/abc").exchange().expectStatus().isBadRequest();
+        accessLog.stop();
+
+        String lines = appender.list.stream().map(ILoggingEvent::getFormattedMessage).collect(Collectors.joining());
+        Assertions.assertEquals(4, accessLog.recorded(), lines);
+        Assertions.assertTrue(lines.matches("(?s).*path: /v3/books/5, status: 200, latency: \\d+us, bytes: [1-9]\\d*.*"), lines);
+        Assertions.assertTrue(lines.contains("path: /v3/books/5, status: 304"), lines);
+        Assertions.assertTrue(lines.contains("path: /v3/books/1000, status: 404"), lines);
+        Assertions.assertTrue(lines.contains("path: /v3/books/abc, status: 400"), lines);
+    }
+}
@@ -0,0 +1,176 @@
+package com.around.reactive.reactive;
+
+import com.around.reactive.dto.Book;
+import com.around.reactive.search.BookSearchIndex;
+import com.around.reactive.store.GeneratedBookCatalog;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+public class BookSearchIndexTest {
+
+    /**
+     * 카탈로그 도서는 단어와 숫자로 검색되고, 점수가 같으면 bookId 오름차순으로 정렬되어야 한다
+     */
+    @Test
+    public void catalogSearchTest() {
+        BookSearchIndex searchIndex = catalogIndex(1_000);
+
+        Assertions.assertArrayEquals(new long[]{123}, searchIndex.search("IT Book123", 10));
+        Assertions.assertArrayEquals(new long[]{123}, searchIndex.search("book 123", 10));
+        Assertions.assertArrayEquals(new long[]{1, 2, 3, 4, 5}, searchIndex.search("it book", 5));
+        Assertions.assertArrayEquals(new long[0], searchIndex.search("kotlin", 10));
+        Assertions.assertArrayEquals(new long[0], searchIndex.search("  ", 10));
+    }
+
+    /**
+     * 한글은 음절 bigram으로 검색되고 ISBN은 하이픈 유무와 관계없이 검색되어야 한다
+     */
+    @Test
+    public void koreanAndIsbnTest() {
+        BookSearchIndex searchIndex = catalogIndex(1_000);
+        searchIndex.index(book(1_001, "자바 고급 프로그래밍", "Advanced Java", "홍길동", "111-11-1111-111-1"));
+
+        Assertions.assertArrayEquals(new long[]{1_001}, searchIndex.search("자바", 10));
+        Assertions.assertArrayEquals(new long[]{1_001}, searchIndex.search("고급프로그래밍", 10));
+        Assertions.assertArrayEquals(new long[]{1_001}, searchIndex.search("래", 10));
+        Assertions.assertArrayEquals(new long[]{1_001}, searchIndex.search("홍길동 java", 10));
+        Assertions.assertArrayEquals(new long[]{1_001}, searchIndex.search("111-11-1111-111-1", 10));
+        Assertions.assertArrayEquals(new long[]{1_001}, searchIndex.search("1111111111111", 10));
+        Assertions.assertArrayEquals(new long[0], searchIndex.search("코틀린", 10));
+    }
+
+    /**
+     * 수정된 도서는 이전 내용으로 검색되지 않아야 한다 (카탈로그 도서 포함)
+     */
+    @Test
+    public void reindexTest() {
+        BookSearchIndex searchIndex = catalogIndex(1_000);
+        searchIndex.index(book(1_001, "자바 입문", null, null, null));
+        searchIndex.index(book(1_001, "코틀린 입문", null, null, null, 2));
+        searchIndex.index(book(5, "스프링 웹플럭스", "Spring WebFlux", null, null, 2));
+
+        Assertions.assertArrayEquals(new long[0], searchIndex.search("자바", 10));
+        Assertions.assertArrayEquals(new long[]{1_001}, searchIndex.search("입문", 10));
+        Assertions.assertArrayEquals(new long[0], searchIndex.search("book 5", 10));
+        Assertions.assertArrayEquals(new long[]{5}, searchIndex.search("웹플럭스", 10));
+
+        searchIndex.index(book(1_001, "자바 입문", null, null, null, 3));
+        Assertions.assertArrayEquals(new long[]{1_001}, searchIndex.search("자바 입문", 10));
+    }
+
+    /**
+     * 늦게 도착한 이전 version은 최신 version의 색인을 덮어쓰지 않아야 한다
+     */
+    @Test
+    public void staleVersionTest() {
+        BookSearchIndex searchIndex = new BookSearchIndex();
+        searchIndex.index(book(1, "코틀린 입문", null, null, null, 3));
+        searchIndex.index(book(1, "자바 입문", null, null, null, 2));
+        searchIndex.index(book(1, "스프링 입문", null, null, null, 3));
+
+        Assertions.assertArrayEquals(new long[]{1}, searchIndex.search("코틀린", 10));
+        Assertions.assertArrayEquals(new long[0], searchIndex.search("자바", 10));
+        Assertions.assertArrayEquals(new long[0], searchIndex.search("스프링", 10));
+    }
+
+    /**
+     * 같은 도서를 계속 수정해도 이전 내용의 posting은 compaction으로 지워져서 늘어나지 않아야 한다
+     */
+    @Test
+    public void compactionTest() {
+        BookSearchIndex searchIndex = new BookSearchIndex();
+        for (int bookId = 1; bookId <= 10; bookId++) {
+            searchIndex.index(book(bookId, "자바 입문 " + bookId, null, null, null));
+        }
+        long postings = searchIndex.overlayPostings();
+        for (int version = 2; version <= 1_000; version++) {
+            searchIndex.index(book(version % 10 + 1, "자바 입문 " + (version % 10 + 1), null, null, null, version));
+        }
+
+        Assertions.assertTrue(searchIndex.overlayPostings() <= postings * 2,
+                () -> postings + " -> " + searchIndex.overlayPostings());
+        Assertions.assertArrayEquals(new long[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10}, searchIndex.search("자바 입문", 20));
+        Assertions.assertArrayEquals(new long[]{7}, searchIndex.search("입문 7", 20));
+    }
+
+    /**
+     * 제목에서 찾은 도서가 저자에서 찾은 도서보다 먼저 오고, limit개까지만 돌려줘야 한다
+     */
+    @Test
+    public void rankingTest() {
+        BookSearchIndex searchIndex = new BookSearchIndex();
+        searchIndex.index(book(1, "Reactive Spring", null, "Kevin", null));
+        searchIndex.index(book(2, "Kevin's Reactor", null, "Josh", null));
+        searchIndex.index(book(3, "Spring in Action", null, "Craig", null));
+
+        Assertions.assertArrayEquals(new long[]{2, 1}, searchIndex.search("kevin", 10));
+        Assertions.assertArrayEquals(new long[]{1, 3}, searchIndex.search("spring", 10));
+        Assertions.assertArrayEquals(new long[]{1}, searchIndex.search("spring", 1));
+    }
+
+    /**
+     * 수정된 카탈로그 도서도 점수가 같으면 bookId 오름차순으로 카탈로그 도서 사이에 들어가야 한다
+     */
+    @Test
+    public void overlayTieTest() {
+        BookSearchIndex searchIndex = catalogIndex(1_000);
+        searchIndex.index(book(3, "IT Book3", null, null, null, 2));
+        searchIndex.index(book(4, "IT Book4", null, null, null, 2));
+
+        Assertions.assertArrayEquals(new long[]{1, 2, 3, 4, 5}, searchIndex.search("it book", 5));
+    }
+
+    /**
+     * GET /v2/books/search는 생성된 도서를 바로 검색해서 순위 순서대로 NDJSON으로 응답해야 한다
+     */
+    @Test
+    public void searchEndpointTest() {
+        WebTestClient client = new BookFixture().v2Client();
+
+        client.post().uri("/v2/books").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"titleKorean\":\"리액티브 프로그래밍\",\"author\":\"Kevin\"}").exchange()
+                .expectStatus().isCreated();
+
+        List<JsonNode> books = client.get().uri("/v2/books/search?q=리액티브")
+                .accept(MediaType.APPLICATION_NDJSON).exchange()
+                .expectStatus().isOk()
+                .expectBodyList(JsonNode.class).returnResult().getResponseBody();
+
+        Assertions.assertEquals(1, books.size());
+        Assertions.assertEquals(101, books.get(0).get("bookId").asLong());
+        Assertions.assertEquals("Kevin", books.get(0).get("author").asText());
+    }
+
+    /**
+     * limit이 0 이하이면 /stats와 같이 400으로 응답해야 한다
+     */
+    @Test
+    public void invalidLimitTest() {
+        WebTestClient client = new BookFixture().v2Client();
+
+        client.get().uri("/v2/books/search?q=book&limit=0").exchange()
+                .expectStatus().isBadRequest();
+        client.get().uri("/v2/books/search?q=book&limit=-1").exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private static BookSearchIndex catalogIndex(int size) {
+        BookSearchIndex searchIndex = new BookSearchIndex();
+        searchIndex.indexCatalog(new GeneratedBookCatalog(size));
+        return searchIndex;
+    }
+
+    private static Book book(long bookId, String titleKorean, String titleEnglish, String author, String isbn) {
+        return book(bookId, titleKorean, titleEnglish, author, isbn, 1);
+    }
+
+    private static Book book(long bookId, String titleKorean, String titleEnglish, String author, String isbn,
+                             long version) {
+        return new Book(bookId, titleKorean, titleEnglish, null, author, isbn, null, null, null, version);
+    }
+}
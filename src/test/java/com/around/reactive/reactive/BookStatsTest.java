@@ -0,0 +1,198 @@
+package com.around.reactive.reactive;
+
+import com.around.reactive.dto.Book;
+import com.around.reactive.dto.BookDto;
+import com.around.reactive.repository.InMemoryBookRepository;
+import com.around.reactive.service.v2.BookService;
+import com.around.reactive.stats.BookAuthorStats;
+import com.around.reactive.stats.BookStats;
+import com.around.reactive.stats.BookStatsEngine;
+import com.around.reactive.stats.BookStatsGroupBy;
+import com.around.reactive.stats.BookStatsMetric;
+import com.around.reactive.store.BookStore;
+import com.around.reactive.store.OffHeapBookStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+public class BookStatsTest {
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    /**
+     * shard 병렬 집계 결과는 수정된 카탈로그 도서를 한 번만 세고, parallelism과 관계없이 같아야 한다
+     */
+    @Test
+    public void aggregateTest() {
+        OffHeapBookStore.Builder builder = OffHeapBookStore.builder(100_000);
+        for (long bookId = 1; bookId <= 100_000; bookId++) {
+            builder.add(bookId, "IT Book" + bookId, 1_000 + (int) (bookId % 5) * 500);
+        }
+        BookStore catalog = builder.build();
+        List<Book> books = List.of(
+                book(7, "Kevin"), book(8, "Kevin"), book(100_001, "Kevin"), book(100_002, "Josh"), book(100_003, null));
+
+        for (int parallelism : new int[]{1, 3, 8}) {
+            BookStatsEngine engine = new BookStatsEngine(parallelism, Schedulers.parallel());
+            Map<String, BookStats.Group> byAuthor = groups(engine.aggregate(catalog, books, BookStatsGroupBy.AUTHOR).block());
+
+            Assertions.assertEquals(3, byAuthor.size());
+            Assertions.assertEquals(3, byAuthor.get("Kevin").getCount());
+            Assertions.assertEquals(2, byAuthor.get("Kevin").getPricedCount());
+            Assertions.assertEquals(2_000 + 2_500, byAuthor.get("Kevin").getSum());
+            Assertions.assertNull(byAuthor.get("Josh").value(BookStatsMetric.AVG_PRICE));
+            Assertions.assertEquals(100_000 - 2 + 1, byAuthor.get(null).getCount());
+
+            Map<String, BookStats.Group> byPrice = groups(engine.aggregate(catalog, books, BookStatsGroupBy.PRICE).block());
+            Assertions.assertEquals(6, byPrice.size());
+            Assertions.assertEquals(20_000, byPrice.get("1000").getCount());
+            Assertions.assertEquals(3, byPrice.get(null).getCount());
+            Assertions.assertEquals(100_000, byPrice.values().stream()
+                    .mapToLong(BookStats.Group::getPricedCount).sum());
+        }
+    }
+
+    private final BookFixture fixture = new BookFixture();
+    private final InMemoryBookRepository repository = fixture.repository;
+    private final BookAuthorStats authorStats = fixture.authorStats;
+    private final BookService bookService = fixture.bookService;
+    private final WebTestClient client = fixture.v2Client();
+
+    /**
+     * GET /v2/books/stats는 metric 값이 큰 순서대로 응답하고, 지원하지 않는 metric은 400으로 응답해야 한다
+     */
+    @Test
+    public void statsEndpointTest() {
+        patchAuthor(1, "Kevin");
+        patchAuthor(2, "Kevin");
+        postBook("Josh");
+
+        client.get().uri("/v2/books/stats?groupBy=author&metric=sum(price)&limit=2").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].group").doesNotExist()
+                .jsonPath("$[0].value").isEqualTo(98 * 2_000)
+                .jsonPath("$[1].group").isEqualTo("Kevin")
+                .jsonPath("$[1].value").isEqualTo(4_000)
+                .jsonPath("$[1].metric").isEqualTo("sum(price)");
+
+        client.get().uri("/v2/books/stats?groupBy=author&metric=sum(price*stock)").exchange()
+                .expectStatus().isBadRequest();
+        client.get().uri("/v2/books/stats?groupBy=publisher").exchange()
+                .expectStatus().isBadRequest();
+        client.get().uri("/v2/books/stats?limit=-1").exchange()
+                .expectStatus().isBadRequest();
+        client.get().uri("/v2/books/stats/authors?limit=0").exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    /**
+     * 같은 groupBy의 집계가 진행 중이면 catalog를 다시 scan하지 않고 진행 중인 집계 결과를 함께 받아야 한다
+     */
+    @Test
+    public void coalesceTest() {
+        Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        InMemoryBookRepository repository = new InMemoryBookRepository(fixture.catalog,
+                new BookStatsEngine(2, Schedulers.fromExecutor(tasks::add)));
+
+        CompletableFuture<BookStats> first = repository.aggregate(BookStatsGroupBy.AUTHOR).toFuture();
+        CompletableFuture<BookStats> second = repository.aggregate(BookStatsGroupBy.AUTHOR).toFuture();
+        CompletableFuture<BookStats> byPrice = repository.aggregate(BookStatsGroupBy.PRICE).toFuture();
+        Assertions.assertFalse(first.isDone());
+
+        for (Runnable task = tasks.poll(); task != null; task = tasks.poll()) {
+            task.run();
+        }
+
+        Assertions.assertSame(first.join(), second.join());
+        Assertions.assertNotSame(first.join(), byPrice.join());
+    }
+
+    /**
+     * 생성/수정마다 갱신된 저자별 집계는 전체 재계산 결과와 같아야 하고, 저자를 옮기면 이전 저자에서 빠져야 한다
+     */
+    @Test
+    public void authorStatsTest() {
+        Flux.range(1, 400)
+                .flatMap(i -> i <= 100
+                        ? bookService.updateBook(i, Mono.just(patch("Author" + (i % 7))))
+                        : bookService.createBook(Mono.just(post("Writer" + (i % 5)))), 16)
+                .subscribeOn(Schedulers.parallel())
+                .blockLast();
+        Flux.range(1, 50)
+                .flatMap(i -> bookService.updateBook(i, Mono.just(patch("Kevin"))), 16)
+                .subscribeOn(Schedulers.parallel())
+                .blockLast();
+
+        Assertions.assertEquals(List.of(), authorStats.verify(repository.aggregate(BookStatsGroupBy.AUTHOR).block()));
+        Assertions.assertEquals(50, authorStats.find("Kevin").getCount());
+
+        client.get().uri("/v2/books/stats/authors/Kevin").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.count").isEqualTo(50)
+                .jsonPath("$.priceSum").isEqualTo(50 * 2_000)
+                .jsonPath("$.minPrice").isEqualTo(2_000)
+                .jsonPath("$.averagePrice").isEqualTo(2_000.0);
+        client.get().uri("/v2/books/stats/authors/Author0").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.count").isEqualTo(7)
+                .jsonPath("$.pricedCount").isEqualTo(7)
+                .jsonPath("$.maxPrice").isEqualTo(2_000);
+        client.get().uri("/v2/books/stats/authors/Writer1").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.count").isEqualTo(60)
+                .jsonPath("$.pricedCount").isEqualTo(0)
+                .jsonPath("$.minPrice").doesNotExist();
+        client.get().uri("/v2/books/stats/authors/Nobody").exchange().expectStatus().isNotFound();
+        client.get().uri("/v2/books/stats/authors?metric=count&limit=1").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].group").isEqualTo("Writer0")
+                .jsonPath("$[0].value").isEqualTo(60);
+    }
+
+    private static Map<String, BookStats.Group> groups(BookStats stats) {
+        // 저자가 없는 group(null)도 key로 사용하기 때문에 Collectors.toMap() 대신 HashMap에 직접 넣는다
+        Map<String, BookStats.Group> groups = new HashMap<>();
+        stats.groups().forEach(group -> groups.put(group.getGroup(), group));
+        return groups;
+    }
+
+    private void patchAuthor(long bookId, String author) {
+        client.patch().uri("/v2/books/" + bookId).contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"author\":\"" + author + "\"}").exchange().expectStatus().isOk();
+    }
+
+    private void postBook(String author) {
+        client.post().uri("/v2/books").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"titleKorean\":\"리액티브 프로그래밍\",\"author\":\"" + author + "\"}").exchange()
+                .expectStatus().isCreated();
+    }
+
+    private static BookDto.Patch patch(String author) {
+        return JSON.convertValue(Map.of("author", author), BookDto.Patch.class);
+    }
+
+    private static BookDto.Post post(String author) {
+        return JSON.convertValue(Map.of("titleKorean", "리액티브 프로그래밍", "author", author), BookDto.Post.class);
+    }
+
+    private static Book book(long bookId, String author) {
+        return new Book(bookId, "title", null, null, author, null, null, null, null, 2);
+    }
+}
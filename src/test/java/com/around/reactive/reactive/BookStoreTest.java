@@ -0,0 +1,167 @@
+package com.around.reactive.reactive;
+
+import com.around.reactive.dto.SimpleBook;
+import com.around.reactive.store.BookSnapshot;
+import com.around.reactive.store.BookStore;
+import com.around.reactive.store.ChunkedBookStore;
+import com.around.reactive.store.GeneratedBookCatalog;
+import com.around.reactive.store.OffHeapBookStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BookStoreTest {
+
+    /**
+     * 초기 예상 크기보다 많은 레코드를 추가해도 컬럼과 인덱스가 확장되어 모든 레코드를 조회할 수 있어야 한다
+     */
+    @Test
+    public void growAndLookupTest(){
+        OffHeapBookStore.Builder builder = OffHeapBookStore.builder(4);
+        for (long i = 1; i <= 10_000; i++) {
+            builder.add(i * 7, "IT Book" + i, (int) i);
+        }
+        BookStore store = builder.build();
+
+        assertEquals(10_000, store.size());
+        assertEquals("IT Book1234", store.name(1234 * 7));
+        assertEquals(1234, store.price(1234 * 7));
+        assertEquals(new SimpleBook(70, "IT Book10", 10), store.find(70));
+        assertFalse(store.contains(8));
+        assertNull(store.name(8));
+        assertEquals(BookStore.NOT_FOUND, store.price(8));
+    }
+
+    /**
+     * 같은 도서명은 name 영역에 한 번만 저장되고 한글 도서명도 UTF-8로 그대로 복원되어야 한다
+     */
+    @Test
+    public void internNameTest(){
+        OffHeapBookStore shared = OffHeapBookStore.builder(16)
+                .add(1, "리액티브 프로그래밍", 1000)
+                .add(2, "리액티브 프로그래밍", 2000)
+                .build();
+        OffHeapBookStore single = OffHeapBookStore.builder(16)
+                .add(1, "리액티브 프로그래밍", 1000)
+                .build();
+
+        assertEquals("리액티브 프로그래밍", shared.name(2));
+        // 레코드 하나가 늘어난 만큼(bookId, price, nameOffset 컬럼)만 증가해야 한다
+        assertEquals(Long.BYTES + Integer.BYTES * 2, shared.offHeapBytes() - single.offHeapBytes());
+    }
+
+    @Test
+    public void duplicateBookIdTest(){
+        OffHeapBookStore.Builder builder = OffHeapBookStore.builder(16).add(1, "IT Book1", 2000);
+
+        assertThrows(IllegalArgumentException.class, () -> builder.add(1, "IT Book1", 2000));
+    }
+
+    /**
+     * 적재 전에는 원본 카탈로그에서 on-demand로 조회하고, load()가 끝나면 모든 chunk가 적재되고 ready()가 완료되어야 한다
+     */
+    @Test
+    public void chunkedLoadTest(){
+        ChunkedBookStore store = new ChunkedBookStore(new GeneratedBookCatalog(10_005), 1, 10_005, 1_000);
+
+        assertEquals("IT Book10005", store.name(10_005));
+        assertFalse(store.isReady());
+
+        StepVerifier
+                .create(store.load(Schedulers.parallel(), 4))
+                .verifyComplete();
+        StepVerifier
+                .create(store.ready())
+                .verifyComplete();
+
+        assertTrue(store.isReady());
+        assertEquals(11, store.loadedChunks());
+        assertEquals(2000, store.price(10_005));
+        assertFalse(store.contains(10_006));
+    }
+
+    /**
+     * forEachPrice()는 store 종류와 관계없이 범위 안의 도서를 bookId 오름차순으로 한 번씩 전달해야 한다
+     */
+    @Test
+    public void forEachPriceTest(){
+        OffHeapBookStore.Builder sorted = OffHeapBookStore.builder(16);
+        OffHeapBookStore.Builder unsorted = OffHeapBookStore.builder(16);
+        for (long i = 1; i <= 100; i++) {
+            sorted.add(i * 2, "IT Book" + i, (int) i);
+            unsorted.add((101 - i) * 2, "IT Book" + i, (int) (101 - i));
+        }
+        ChunkedBookStore chunked = new ChunkedBookStore(new GeneratedBookCatalog(100), 1, 100, 30);
+        chunked.load(Schedulers.immediate(), 1).block();
+
+        for (BookStore store : new BookStore[]{sorted.build(), unsorted.build()}) {
+            StringBuilder visited = new StringBuilder();
+            store.forEachPrice(9, 15, (bookId, price) -> visited.append(bookId).append('=').append(price).append(' '));
+            assertEquals("10=5 12=6 14=7 ", visited.toString());
+        }
+        long[] scanned = new long[2]; // 마지막 bookId, 가격 합
+        chunked.forEachPrice(0, 120, (bookId, price) -> {
+            assertEquals(scanned[0] + 1, bookId);
+            scanned[0] = bookId;
+            scanned[1] += price;
+        });
+        assertEquals(100, scanned[0]);
+        assertEquals(100 * 2000, scanned[1]);
+    }
+
+    /**
+     * 스냅샷으로 기록한 후 매핑해서 연 store는 원본 store와 같은 결과를 돌려주어야 한다
+     */
+    @Test
+    public void snapshotRoundTripTest(@TempDir Path dir){
+        OffHeapBookStore.Builder builder = OffHeapBookStore.builder(1_000);
+        for (long i = 1; i <= 1_000; i++) {
+            builder.add(i, i % 2 == 0 ? "리액티브 프로그래밍" : "IT Book" + i, (int) i * 10);
+        }
+        Path path = dir.resolve("book-catalog.snapshot");
+        BookSnapshot.write(builder.build(), path);
+
+        OffHeapBookStore snapshot = BookSnapshot.open(path);
+
+        assertEquals(1_000, snapshot.size());
+        assertEquals("IT Book999", snapshot.name(999));
+        assertEquals("리액티브 프로그래밍", snapshot.name(1_000));
+        assertEquals(10_000, snapshot.price(1_000));
+        assertFalse(snapshot.contains(1_001));
+    }
+
+    /**
+     * 스냅샷 기록에 실패하면 임시 파일을 남기지 않아야 한다
+     */
+    @Test
+    public void snapshotFailureTest(@TempDir Path dir) throws IOException {
+        OffHeapBookStore.Builder builder = OffHeapBookStore.builder(10);
+        for (long i = 1; i <= 10; i++) {
+            builder.add(i, "IT Book" + i, (int) i * 10);
+        }
+        // 비어 있지 않은 디렉터리로는 rename할 수 없다
+        Path path = Files.createDirectories(dir.resolve("book-catalog.snapshot"));
+        Files.createFile(path.resolve("occupied"));
+
+        assertThrows(UncheckedIOException.class, () -> BookSnapshot.write(builder.build(), path));
+
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(List.of(path), files.collect(Collectors.toList()));
+        }
+    }
+}
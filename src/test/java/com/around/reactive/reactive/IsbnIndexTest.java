@@ -0,0 +1,124 @@
+package com.around.reactive.reactive;
+
+import com.around.reactive.repository.InvalidIsbnException;
+import com.around.reactive.repository.Isbn;
+import com.around.reactive.repository.IsbnIndex;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class IsbnIndexTest {
+
+    /**
+     * ISBN-10과 ISBN-13은 하이픈 유무와 관계없이 같은 key가 되어야 한다
+     */
+    @Test
+    public void parseTest() {
+        Assertions.assertEquals(9780306406157L, Isbn.parse("0-306-40615-2"));
+        Assertions.assertEquals(9780306406157L, Isbn.parse("978-0-306-40615-7"));
+        Assertions.assertEquals(9780804429573L, Isbn.parse("080442957X"));
+        Assertions.assertThrows(InvalidIsbnException.class, () -> Isbn.parse("12345"));
+        Assertions.assertThrows(InvalidIsbnException.class, () -> Isbn.parse("978-0-306-4061A-7"));
+    }
+
+    /**
+     * 삭제 후에도 같은 probe 경로의 다른 ISBN은 조회되어야 하고, resize 후에도 모든 ISBN이 남아 있어야 한다
+     */
+    @Test
+    public void putRemoveTest() {
+        IsbnIndex index = new IsbnIndex(16);
+        for (long i = 0; i < 10_000; i++) {
+            Assertions.assertEquals(IsbnIndex.NOT_FOUND, index.putIfAbsent(9_780_000_000_000L + i, i));
+        }
+        Assertions.assertEquals(7L, index.putIfAbsent(9_780_000_000_007L, 1));
+        Assertions.assertFalse(index.remove(9_780_000_000_007L, 1));
+        for (long i = 0; i < 10_000; i += 2) {
+            Assertions.assertTrue(index.remove(9_780_000_000_000L + i, i));
+        }
+        for (long i = 0; i < 10_000; i++) {
+            Assertions.assertEquals(i % 2 == 0 ? IsbnIndex.NOT_FOUND : i, index.get(9_780_000_000_000L + i));
+        }
+        Assertions.assertEquals(5_000, index.size());
+    }
+
+    /**
+     * 같은 ISBN을 동시에 등록하면 한 요청만 성공해야 한다
+     */
+    @Test
+    public void concurrentPutIfAbsentTest() throws InterruptedException {
+        IsbnIndex index = new IsbnIndex();
+        int writers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger winners = new AtomicInteger();
+        for (int writer = 0; writer < writers; writer++) {
+            long bookId = writer;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (long isbn = 0; isbn < 1_000; isbn++) {
+                    if (index.putIfAbsent(isbn, bookId) == IsbnIndex.NOT_FOUND) {
+                        winners.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        Assertions.assertEquals(1_000, winners.get());
+        Assertions.assertEquals(1_000, index.size());
+    }
+
+    /**
+     * 이미 등록된 ISBN으로 생성/수정하면 409, ISBN 형식이 아니면 400으로 응답하고
+     * PATCH로 ISBN을 바꾸면 GET /v2/books/isbn/{isbn}은 새 ISBN으로만 조회되어야 한다
+     */
+    @Test
+    public void isbnEndpointTest() {
+        WebTestClient client = client();
+
+        post(client, "0-306-40615-2").expectStatus().isCreated();
+        post(client, "978-0-306-40615-7").expectStatus().isEqualTo(409);
+        post(client, "12345").expectStatus().isBadRequest();
+        post(client, "979-11-1111-111-1").expectStatus().isCreated();
+
+        client.get().uri("/v2/books/isbn/9780306406157").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.bookId").isEqualTo(101);
+
+        client.patch().uri("/v2/books/103").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"isbn\":\"0306406152\"}").exchange()
+                .expectStatus().isEqualTo(409);
+        client.patch().uri("/v2/books/101").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"isbn\":\"979-11-2222-222-2\"}").exchange()
+                .expectStatus().isOk();
+
+        client.get().uri("/v2/books/isbn/0-306-40615-2").exchange().expectStatus().isNotFound();
+        client.get().uri("/v2/books/isbn/9791122222222").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.bookId").isEqualTo(101);
+        client.get().uri("/v2/books/isbn/not-an-isbn").exchange().expectStatus().isBadRequest();
+        post(client, "0-306-40615-2").expectStatus().isCreated();
+    }
+
+    private static WebTestClient.ResponseSpec post(WebTestClient client, String isbn) {
+        return client.post().uri("/v2/books").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"titleKorean\":\"리액티브 프로그래밍\",\"isbn\":\"" + isbn + "\"}").exchange();
+    }
+
+    private static WebTestClient client() {
+        return new BookFixture().v2Client();
+    }
+}
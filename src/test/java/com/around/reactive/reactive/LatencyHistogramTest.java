@@ -0,0 +1,37 @@
+package com.around.reactive.reactive;
+
+import com.around.reactive.metrics.LatencyHistogram;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LatencyHistogramTest {
+
+    /**
+     * 128us 미만은 정확한 값, 그 이상은 1/64 이내의 오차로 percentile을 계산해야 한다
+     */
+    @Test
+    public void percentileTest(){
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 100_000; micros++) {
+            histogram.record(micros);
+        }
+
+        long[] values = histogram.percentiles(0.1, 50, 99, 99.9);
+        assertEquals(100, values[0]);
+        assertWithin(50_000, values[1]);
+        assertWithin(99_000, values[2]);
+        assertWithin(99_900, values[3]);
+    }
+
+    @Test
+    public void emptyTest(){
+        assertArrayEquals(new long[]{0, 0}, new LatencyHistogram().percentiles(50, 99));
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected + expected / 64, "expected ~" + expected + " but " + actual);
+    }
+}
@@ -0,0 +1,71 @@
+package com.around.reactive.reactive;
+
+import com.around.reactive.config.NettyServerFactoryCustomizer;
+import com.around.reactive.config.NettyServerProperties;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.ChannelOption;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerConfig;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class NettyServerFactoryCustomizerTest {
+
+    /**
+     * book.netty.* 설정이 HttpServer의 channel option과 HTTP 설정에 반영되어야 한다
+     */
+    @Test
+    public void customizeTest(){
+        NettyServerProperties properties = new NettyServerProperties();
+        properties.setEventLoopThreads(2);
+        properties.setNativeTransport(false);
+        properties.setPooledAllocator(false);
+        properties.setSoBacklog(4_096);
+        NettyServerFactoryCustomizer customizer = new NettyServerFactoryCustomizer(properties);
+        HttpServerConfig config = customize(customizer);
+
+        assertEquals(4_096, config.options().get(ChannelOption.SO_BACKLOG));
+        assertEquals(true, config.childOptions().get(ChannelOption.TCP_NODELAY));
+        ByteBufAllocator allocator = (ByteBufAllocator) config.childOptions().get(ChannelOption.ALLOCATOR);
+        assertTrue(allocator instanceof UnpooledByteBufAllocator);
+        ByteBuf buffer = allocator.buffer();
+        assertFalse(buffer.isDirect());
+        buffer.release();
+        assertFalse(config.isPreferNative());
+        customizer.dispose();
+    }
+
+    /**
+     * 설정하지 않은 SO_BACKLOG, ALLOCATOR는 Reactor Netty 기본값 그대로 두어야 한다
+     */
+    @Test
+    public void defaultsTest(){
+        HttpServerConfig defaults = HttpServer.create().configuration();
+        HttpServerConfig config = customize(new NettyServerFactoryCustomizer(new NettyServerProperties()));
+
+        assertFalse(config.options().containsKey(ChannelOption.SO_BACKLOG));
+        assertFalse(config.childOptions().containsKey(ChannelOption.ALLOCATOR));
+        assertEquals(defaults.options(), config.options());
+        assertEquals(defaults.maxKeepAliveRequests(), config.maxKeepAliveRequests());
+        assertArrayEquals(defaults.protocols(), config.protocols());
+        assertEquals(defaults.isPreferNative(), config.isPreferNative());
+    }
+
+    private static HttpServerConfig customize(NettyServerFactoryCustomizer customizer) {
+        NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory(0);
+        customizer.customize(factory);
+        HttpServer server = HttpServer.create();
+        for (NettyServerCustomizer serverCustomizer : factory.getServerCustomizers()) {
+            server = serverCustomizer.apply(server);
+        }
+        return server.configuration();
+    }
+}
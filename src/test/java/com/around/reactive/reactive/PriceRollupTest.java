@@ -0,0 +1,242 @@
+package com.around.reactive.reactive;
+
+import com.around.reactive.controller.v2.PriceController;
+import com.around.reactive.dto.PriceDto;
+import com.around.reactive.event.PriceTickFeed;
+import com.around.reactive.service.v2.PriceService;
+import com.around.reactive.stats.InvalidPriceWindowException;
+import com.around.reactive.stats.PriceRollup;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class PriceRollupTest {
+
+    /**
+     * 30초 window / 10초 slide : SLIDING은 bucket이 닫힐 때마다, TUMBLING은 30초 경계에서만 emit된다
+     */
+    @Test
+    public void rollupTest() {
+        PriceRollup rollup = new PriceRollup("AAPL", 30_000, 10_000, EnumSet.allOf(PriceDto.WindowType.class));
+
+        Assertions.assertTrue(rollup.add(1_000, 10, 100).isEmpty());
+        Assertions.assertTrue(rollup.add(9_999, 20, 300).isEmpty());
+
+        List<PriceDto.Window> closed = rollup.add(10_000, 30, 0);
+        Assertions.assertEquals(1, closed.size());
+        PriceDto.Window first = closed.get(0);
+        Assertions.assertEquals(PriceDto.WindowType.SLIDING, first.getType());
+        Assertions.assertEquals(-20_000, first.getStart());
+        Assertions.assertEquals(10_000, first.getEnd());
+        Assertions.assertEquals(2, first.getCount());
+        Assertions.assertEquals(30, first.getSum());
+        Assertions.assertEquals(10, first.getMin());
+        Assertions.assertEquals(20, first.getMax());
+        Assertions.assertEquals((10 * 100 + 20 * 300) / 400.0, first.getVwap());
+        Assertions.assertEquals(400, first.getVolume());
+
+        // 이미 닫힌 bucket의 tick은 버린다
+        Assertions.assertTrue(rollup.add(5_000, 1_000, 1).isEmpty());
+        Assertions.assertEquals(1, rollup.lateTicks());
+
+        // 20초 bucket은 건너뛰고 30초 경계를 넘는다 : SLIDING(end=20s), TUMBLING(end=30s), SLIDING(end=30s)
+        closed = rollup.add(35_000, 40, 0);
+        Assertions.assertEquals(List.of("SLIDING:20000:3", "TUMBLING:30000:3", "SLIDING:30000:3"), describe(closed));
+        Assertions.assertEquals(0, closed.get(1).getStart());
+
+        // window가 한참 지나서 온 tick : 30초 bucket이 포함된 window까지만 emit하고 빈 window는 건너뛴다
+        closed = rollup.add(200_000, 50, 10);
+        Assertions.assertEquals(List.of("SLIDING:40000:2", "SLIDING:50000:1", "TUMBLING:60000:1", "SLIDING:60000:1"),
+                describe(closed));
+
+        // stream이 끝나면 마지막 tick을 포함하는 나머지 window를 emit한다
+        Assertions.assertEquals(List.of("TUMBLING:210000:1", "SLIDING:210000:1", "SLIDING:220000:1", "SLIDING:230000:1"),
+                describe(rollup.flush()));
+        Assertions.assertTrue(rollup.flush().isEmpty());
+    }
+
+    @Test
+    public void tumblingOnlyTest() {
+        PriceRollup rollup = new PriceRollup("AAPL", 1_000, 1_000, EnumSet.of(PriceDto.WindowType.TUMBLING));
+        Flux<PriceDto.Tick> ticks = Flux.range(0, 3_000).map(i -> new PriceDto.Tick(i, i % 1_000, 0));
+
+        StepVerifier.create(PriceRollup.windows(ticks, () -> rollup))
+                .expectNextMatches(window -> window.getEnd() == 1_000 && window.getCount() == 1_000
+                        && window.getMin() == 0 && window.getMax() == 999 && window.getVwap() == 499.5)
+                .expectNextMatches(window -> window.getEnd() == 2_000)
+                .expectNextMatches(window -> window.getEnd() == 3_000)
+                .verifyComplete();
+
+        Assertions.assertThrows(InvalidPriceWindowException.class,
+                () -> new PriceRollup("AAPL", 1_000, 300, EnumSet.of(PriceDto.WindowType.TUMBLING)));
+        Assertions.assertThrows(InvalidPriceWindowException.class, () -> PriceRollup.types(List.of("hopping")));
+    }
+
+    /**
+     * POST /v2/prices/{symbol}/ticks로 발행한 tick의 rollup이 SSE로 전달되어야 한다
+     */
+    @Test
+    public void rollupStreamTest() {
+        PriceController controller = new PriceController(new PriceService(new PriceTickFeed(1_024)));
+        WebTestClient client = WebTestClient.bindToController(controller).build();
+
+        long base = System.currentTimeMillis() / 1_000 * 1_000;
+
+        // SSE 응답은 첫 event를 보낼 때 시작되기 때문에 controller를 직접 구독한 뒤 tick을 발행한다
+        Flux<ServerSentEvent<PriceDto.Window>> rollups = controller.streamRollups("AAPL", 1_000, 1_000, List.of("tumbling"));
+
+        StepVerifier.create(rollups.take(2))
+                .then(() -> client.post()
+                        .uri("/v2/prices/AAPL/ticks")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .bodyValue(tick(base + 100, 10, 1) + tick(base + 900, 20, 3)
+                                + tick(base + 1_500, 30, 1) + tick(base + 2_100, 40, 1))
+                        .exchange()
+                        .expectStatus().isAccepted())
+                .expectNextMatches(event -> String.valueOf(base + 1_000).equals(event.id())
+                        && "TUMBLING".equals(event.event())
+                        && event.data().getCount() == 2 && event.data().getVwap() == 17.5)
+                .expectNextMatches(event -> String.valueOf(base + 2_000).equals(event.id()) && event.data().getCount() == 1)
+                .verifyComplete();
+
+        client.get()
+                .uri("/v2/prices/AAPL/rollups?windowMillis=1000&slideMillis=300")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    /**
+     * 서버 시각보다 몇 초 늦게 찍힌 tick도 watermark가 먼저 window를 닫아 버리지 않고 집계되어야 한다
+     */
+    @Test
+    public void lateProducerTest() {
+        PriceController controller = new PriceController(new PriceService(new PriceTickFeed(1_024)));
+        WebTestClient client = WebTestClient.bindToController(controller).build();
+        long base = System.currentTimeMillis() / 1_000 * 1_000 - 10_000;
+
+        StepVerifier.create(controller.streamRollups("AAPL", 1_000, 100, List.of("tumbling")).take(1))
+                .then(() -> postTicks(client, tick(base + 100, 10, 1)))
+                // slide(100ms)마다 오는 watermark가 몇 번 지나간 뒤에 같은 window의 tick을 보낸다
+                .thenAwait(Duration.ofMillis(300))
+                .then(() -> postTicks(client, tick(base + 200, 20, 1) + tick(base + 1_100, 30, 1)))
+                .expectNextMatches(event -> String.valueOf(base + 1_000).equals(event.id())
+                        && event.data().getCount() == 2)
+                .verifyComplete();
+    }
+
+    /**
+     * tick이 끊겨도 watermark가 경계를 지나면 window를 닫고, 이미 emit한 window의 tick은 늦게 도착한 tick으로 버린다
+     */
+    @Test
+    public void watermarkTest() {
+        PriceRollup rollup = new PriceRollup("AAPL", 2_000, 1_000, EnumSet.of(PriceDto.WindowType.SLIDING));
+
+        Assertions.assertTrue(rollup.advance(5_000).isEmpty());
+        Assertions.assertTrue(rollup.add(1_200, 10, 1).isEmpty());
+        Assertions.assertTrue(rollup.advance(1_999).isEmpty());
+        Assertions.assertEquals(List.of("SLIDING:2000:1"), describe(rollup.advance(2_500)));
+
+        Assertions.assertTrue(rollup.add(1_500, 20, 1).isEmpty());
+        Assertions.assertEquals(1, rollup.lateTicks());
+
+        // 다음 bucket의 tick이나 flush는 이미 emit한 window를 다시 emit하지 않는다
+        Assertions.assertTrue(rollup.add(2_100, 30, 1).isEmpty());
+        Assertions.assertEquals(List.of("SLIDING:3000:2", "SLIDING:4000:1"), describe(rollup.flush()));
+
+        // 구독이 끝나지 않은 종목도 watermark로 마지막 window를 받는다
+        Flux<PriceDto.Tick> idle = Flux.just(new PriceDto.Tick(1_200, 10, 1)).concatWith(Flux.never());
+        StepVerifier.create(PriceRollup.windows(idle, Flux.just(10_000L),
+                        () -> new PriceRollup("AAPL", 2_000, 1_000, EnumSet.of(PriceDto.WindowType.SLIDING))))
+                .expectNextMatches(window -> window.getEnd() == 2_000 && window.getCount() == 1)
+                .expectNextMatches(window -> window.getEnd() == 3_000 && window.getCount() == 1)
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    public void invalidTickTest() {
+        WebTestClient client = WebTestClient
+                .bindToController(new PriceController(new PriceService(new PriceTickFeed(1_024))))
+                .build();
+        long now = System.currentTimeMillis();
+
+        for (String body : List.of("{\"timestamp\":" + now + ",\"price\":\"NaN\",\"volume\":1}\n",
+                "{\"timestamp\":" + now + ",\"price\":1e400,\"volume\":1}\n",
+                tick(now, 10, -1),
+                tick(now - 3_600_000, 10, 1),
+                tick(now, 10, 1) + tick(now + 3_600_000, 10, 1))) {
+            client.post()
+                    .uri("/v2/prices/AAPL/ticks")
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .bodyValue(body)
+                    .exchange()
+                    .expectStatus().isBadRequest();
+        }
+
+        // timestamp 0은 수신 시각으로 채운다
+        client.post()
+                .uri("/v2/prices/AAPL/ticks")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue(tick(0, 10, 0) + tick(now, 10, 1))
+                .exchange()
+                .expectStatus().isAccepted();
+    }
+
+    /**
+     * 구독자가 없는 종목의 tick은 sink를 만들지 않고, 마지막 구독자가 떠나면 sink를 지운다
+     */
+    @Test
+    public void idleSymbolTest() {
+        PriceTickFeed feed = new PriceTickFeed(16);
+        for (int i = 0; i < 1_000; i++) {
+            feed.publish("SYM" + i, new PriceDto.Tick(1, 10, 1));
+        }
+        Assertions.assertEquals(0, feed.symbols());
+
+        StepVerifier.create(feed.ticks("AAPL").take(1))
+                .then(() -> {
+                    Assertions.assertEquals(1, feed.symbols());
+                    feed.publish("AAPL", new PriceDto.Tick(1, 10, 1));
+                })
+                .expectNextMatches(tick -> tick.getPrice() == 10)
+                .verifyComplete();
+        Assertions.assertEquals(0, feed.symbols());
+
+        Disposable first = feed.ticks("AAPL").subscribe();
+        Disposable second = feed.ticks("AAPL").subscribe();
+        first.dispose();
+        Assertions.assertEquals(1, feed.symbols());
+        second.dispose();
+        Assertions.assertEquals(0, feed.symbols());
+    }
+
+    private static void postTicks(WebTestClient client, String body) {
+        client.post()
+                .uri("/v2/prices/AAPL/ticks")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isAccepted();
+    }
+
+        private static String tick(long timestamp, double price, long volume) {
+        return "{\"timestamp\":" + timestamp + ",\"price\":" + price + ",\"volume\":" + volume + "}\n";
+    }
+
+    private static List<String> describe(List<PriceDto.Window> windows) {
+        return windows.stream()
+                .map(window -> window.getType() + ":" + window.getEnd() + ":" + window.getCount())
+                .collect(Collectors.toList());
+    }
+}
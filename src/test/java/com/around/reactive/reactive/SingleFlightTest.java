@@ -0,0 +1,67 @@
+package com.around.reactive.reactive;
+
+import com.around.reactive.cache.SingleFlight;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SingleFlightTest {
+    private final SingleFlight<String> singleFlight = new SingleFlight<>();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    /**
+     * 진행 중인 작업이 있는 동안의 요청은 모두 같은 결과를 받고, 작업은 한 번만 실행되어야 한다
+     */
+    @Test
+    public void coalesceTest(){
+        StepVerifier
+                .create(Flux.range(1, 100).flatMap(i -> singleFlight.execute(7, this::slowCall)))
+                .expectNextCount(100)
+                .verifyComplete();
+
+        assertEquals(1, calls.get());
+        assertEquals(1, singleFlight.executions());
+        assertEquals(99, singleFlight.coalesced());
+    }
+
+    /**
+     * 작업이 끝난 후의 요청은 다시 실행되어야 한다
+     */
+    @Test
+    public void completedFlightTest(){
+        singleFlight.execute(7, this::slowCall).block();
+        singleFlight.execute(7, this::slowCall).block();
+
+        assertEquals(2, calls.get());
+        assertEquals(0, singleFlight.coalesced());
+    }
+
+    /**
+     * empty와 에러도 기다리던 모든 요청에 전달되어야 한다
+     */
+    @Test
+    public void emptyAndErrorTest(){
+        StepVerifier
+                .create(Flux.range(1, 3).flatMap(i -> singleFlight.execute(1,
+                        key -> Mono.delay(Duration.ofMillis(50)).then(Mono.<String>empty()))))
+                .verifyComplete();
+
+        StepVerifier
+                .create(Flux.range(1, 3).flatMap(i -> singleFlight.execute(2,
+                        key -> Mono.delay(Duration.ofMillis(50)).then(Mono.<String>error(new IllegalStateException())))
+                        .onErrorReturn("error")))
+                .expectNext("error", "error", "error")
+                .verifyComplete();
+    }
+
+    private Mono<String> slowCall(long key) {
+        calls.incrementAndGet();
+        return Mono.delay(Duration.ofMillis(100)).map(tick -> "book " + key);
+    }
+}